@@ -0,0 +1,420 @@
+package com.example.backend.cache;
+
+import com.example.backend.model.AiResponse;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BiConsumer;
+import java.util.function.Predicate;
+
+/**
+ * Holds the parsed AI explanations keyed by "language:word", in three tiers:
+ * - L1, a small on-heap cache of decoded entries, bounded by entry count and by an
+ *   estimate of the heap they retain
+ * - L2, a large {@link OffHeapCache} of serialized entries in direct memory, which
+ *   receives entries demoted from L1 when they are evicted there
+ * - the persistent {@link AiResponseStore}, so a restarted instance starts warm
+ *
+ * Entries found in L2 or the store are promoted back into L1. A {@link BloomFilter}
+ * over the keys written to L2 and the store lets definite misses skip both probes.
+ *
+ * Each entry carries the prompt version that produced it; callers decide whether an
+ * entry from an older version is still worth serving while it is regenerated.
+ */
+@Component
+public class AiResponseCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(AiResponseCache.class);
+
+    // Rough JVM sizes: object header + fields for the entry and the map node
+    private static final long ENTRY_OVERHEAD_BYTES = 72;
+    private static final long STRING_OVERHEAD_BYTES = 40;
+    private static final long ARRAY_OVERHEAD_BYTES = 16;
+
+    private final BoundedCache<String, CachedAiResponse> cache;
+    private final OffHeapCache offHeap;
+    private final AiResponseStore store;
+    private final long ttlMillis;
+
+    private final long bloomExpectedEntries;
+    private final double bloomFalsePositiveRate;
+    private volatile BloomFilter bloom;
+    // Written to as well as bloom while a replacement filter is being filled
+    private volatile BloomFilter rebuildingBloom;
+    private final AtomicBoolean bloomRebuildRunning = new AtomicBoolean();
+
+    private final AtomicLong offHeapHits = new AtomicLong();
+    private final AtomicLong offHeapMisses = new AtomicLong();
+    private final AtomicLong storeHits = new AtomicLong();
+    private final AtomicLong storeMisses = new AtomicLong();
+    private final AtomicLong bloomSkips = new AtomicLong();
+    private final AtomicLong bloomFalsePositives = new AtomicLong();
+    private final AtomicLong promotions = new AtomicLong();
+    private final AtomicLong demotions = new AtomicLong();
+
+    public AiResponseCache(AiResponseStore store, MeterRegistry meterRegistry,
+            @Value("${app.cache.max-entries:2000}") long maxEntries,
+            @Value("${app.cache.max-weight-mb:16}") long maxWeightMb,
+            @Value("${app.cache.ttl-hours:168}") long ttlHours,
+            @Value("${app.cache.heap-pressure-threshold:0.85}") double heapPressureThreshold,
+            @Value("${app.cache.heap-pressure-shrink-ratio:0.25}") double shrinkRatio,
+            @Value("${app.cache.offheap.max-mb:128}") int offHeapMaxMb,
+            @Value("${app.cache.bloom.enabled:true}") boolean bloomEnabled,
+            @Value("${app.cache.bloom.expected-entries:500000}") long bloomExpectedEntries,
+            @Value("${app.cache.bloom.false-positive-rate:0.01}") double bloomFalsePositiveRate) {
+        this.store = store;
+        this.ttlMillis = ttlHours > 0 ? Duration.ofHours(ttlHours).toMillis() : 0;
+        this.offHeap = offHeapMaxMb > 0 ? new OffHeapCache(offHeapMaxMb * 1024 * 1024) : null;
+        this.cache = new BoundedCache<>(maxEntries, maxWeightMb * 1024 * 1024,
+                ttlHours > 0 ? Duration.ofHours(ttlHours) : null, AiResponseCache::estimateBytes);
+        this.cache.setHeapPressurePolicy(heapPressureThreshold, shrinkRatio);
+        this.cache.setRemovalListener((key, value, cause) -> {
+            if (cause == BoundedCache.RemovalCause.HEAP_PRESSURE) {
+                logger.warn("Evicted '{}' from AI cache due to heap pressure", key);
+            }
+            if (cause == BoundedCache.RemovalCause.SIZE || cause == BoundedCache.RemovalCause.HEAP_PRESSURE) {
+                demote(key, value);
+            }
+        });
+
+        this.bloomExpectedEntries = bloomExpectedEntries;
+        this.bloomFalsePositiveRate = bloomFalsePositiveRate;
+        if (bloomEnabled) {
+            this.bloom = new BloomFilter(bloomExpectedEntries, bloomFalsePositiveRate);
+            store.keys().forEach(bloom::put);
+        }
+
+        CacheMetrics.monitor(meterRegistry, "ai", cache);
+        Gauge.builder("ekamus.cache.store.size", store, AiResponseStore::size)
+                .description("Entries in the persistent AI response store").register(meterRegistry);
+        Gauge.builder("ekamus.cache.store.disk", store, AiResponseStore::diskBytes).baseUnit("bytes")
+                .description("Disk used by the persistent AI response store").register(meterRegistry);
+        if (offHeap != null) {
+            Gauge.builder("ekamus.cache.offheap.size", offHeap, OffHeapCache::size)
+                    .description("Entries in the off-heap AI cache tier").register(meterRegistry);
+            Gauge.builder("ekamus.cache.offheap.used", offHeap, OffHeapCache::usedBytes).baseUnit("bytes")
+                    .description("Direct memory used by the off-heap AI cache tier").register(meterRegistry);
+        }
+        FunctionCounter.builder("ekamus.cache.promotions", promotions, AtomicLong::get)
+                .tag("cache", "ai").description("Entries moved up into the on-heap tier").register(meterRegistry);
+        FunctionCounter.builder("ekamus.cache.demotions", demotions, AtomicLong::get)
+                .tag("cache", "ai").description("Entries moved down into the off-heap tier").register(meterRegistry);
+        FunctionCounter.builder("ekamus.cache.bloom.skips", bloomSkips, AtomicLong::get)
+                .tag("cache", "ai").description("Lookups the Bloom filter answered as definite misses")
+                .register(meterRegistry);
+        logger.info("AiResponseCache initialized: maxEntries={}, maxWeight={}MB, offHeap={}MB, bloom={}, ttl={}h, "
+                + "heapPressureThreshold={}", maxEntries, maxWeightMb, offHeapMaxMb, bloomEnabled, ttlHours,
+                heapPressureThreshold);
+    }
+
+    /**
+     * Looks the key up on-heap first, then off-heap, then in the persistent store
+     */
+    public AiResponse get(String key) {
+        CachedAiResponse entry = getEntry(key);
+        return entry != null ? entry.getResponse() : null;
+    }
+
+    /**
+     * Like {@link #get(String)} but also returns the prompt version and creation time
+     */
+    public CachedAiResponse getEntry(String key) {
+        CachedAiResponse entry = cache.getIfPresent(key);
+        if (entry != null) {
+            return entry;
+        }
+        BloomFilter filter = bloom;
+        if (filter != null && !filter.mightContain(key)) {
+            bloomSkips.incrementAndGet();
+            return null;
+        }
+        entry = offHeapEntry(key);
+        if (entry != null) {
+            offHeapHits.incrementAndGet();
+            return promote(key, entry);
+        }
+        offHeapMisses.incrementAndGet();
+        entry = store.get(key);
+        if (entry != null) {
+            storeHits.incrementAndGet();
+            logger.debug("Promoting '{}' from persistent store", key);
+            return promote(key, entry);
+        }
+        storeMisses.incrementAndGet();
+        if (filter != null) {
+            bloomFalsePositives.incrementAndGet();
+        }
+        return null;
+    }
+
+    public CachedAiResponse put(String key, AiResponse response, String promptVersion) {
+        CachedAiResponse entry = new CachedAiResponse(response, promptVersion, System.currentTimeMillis());
+        put(key, entry);
+        return entry;
+    }
+
+    public void put(String key, CachedAiResponse entry) {
+        if (offHeap != null) {
+            // Drop the older copy; this one reaches L2 when L1 evicts it
+            offHeap.remove(key);
+        }
+        store.put(key, entry);
+        addToBloom(key);
+        Duration ttl = remainingTtl(entry);
+        if (ttl == null || ttl.toMillis() > 0) {
+            cache.put(key, entry.withDecodedResponse(), ttl);
+        }
+    }
+
+    /**
+     * Visits every live entry once, in memory first and then those only in the store.
+     * Entries are read one at a time, so the full contents are never held at once.
+     */
+    public void forEachEntry(BiConsumer<String, CachedAiResponse> action) {
+        Set<String> visited = new HashSet<>();
+        cache.forEach((key, entry) -> {
+            visited.add(key);
+            action.accept(key, entry);
+        });
+        if (offHeap != null) {
+            for (String key : offHeap.keys()) {
+                CachedAiResponse entry = offHeapEntry(key);
+                if (entry != null && visited.add(key)) {
+                    action.accept(key, entry);
+                }
+            }
+        }
+        for (String key : store.keys()) {
+            if (!visited.contains(key)) {
+                CachedAiResponse entry = store.get(key);
+                if (entry != null) {
+                    action.accept(key, entry);
+                }
+            }
+        }
+    }
+
+    /**
+     * Returns the entry without counting a hit or miss or promoting it to L1
+     */
+    public CachedAiResponse peekEntry(String key) {
+        CachedAiResponse entry = cache.peek(key);
+        if (entry != null) {
+            return entry;
+        }
+        BloomFilter filter = bloom;
+        if (filter != null && !filter.mightContain(key)) {
+            return null;
+        }
+        entry = offHeapEntry(key);
+        return entry != null ? entry : store.get(key);
+    }
+
+    /**
+     * Whether any tier holds an unexpired entry for the key, without counting a hit or
+     * miss or promoting it to L1
+     */
+    public boolean contains(String key) {
+        return peekEntry(key) != null;
+    }
+
+    public void clear() {
+        cache.invalidateAll();
+        if (offHeap != null) {
+            offHeap.clear();
+        }
+        store.clear();
+        if (bloom != null) {
+            bloom = new BloomFilter(bloomExpectedEntries, bloomFalsePositiveRate);
+        }
+    }
+
+    public int size() {
+        return cache.size();
+    }
+
+    /**
+     * Sets which keys L1 keeps in preference to others when it has to evict
+     */
+    public void setPinningPolicy(Predicate<String> pinned) {
+        cache.setPinningPolicy(pinned);
+    }
+
+    /**
+     * Returns size, weight and hit/miss/eviction counters for the stats endpoint. The
+     * top-level counters describe L1; l2, store and bloom describe the lower tiers.
+     */
+    public Map<String, Object> statistics() {
+        Map<String, Object> stats = new HashMap<>();
+        long hits = cache.hitCount();
+        long misses = cache.missCount();
+        stats.put("size", cache.size());
+        stats.put("maxEntries", cache.maximumSize());
+        stats.put("estimatedBytes", cache.weightedSize());
+        stats.put("maxBytes", cache.maximumWeight());
+        stats.put("hits", hits);
+        stats.put("misses", misses);
+        stats.put("evictions", cache.evictionCount());
+        stats.put("hitRatio", ratio(hits, misses));
+        stats.put("promotions", promotions.get());
+        stats.put("demotions", demotions.get());
+
+        Map<String, Object> l2 = new HashMap<>();
+        l2.put("enabled", offHeap != null);
+        if (offHeap != null) {
+            l2.put("size", offHeap.size());
+            l2.put("usedBytes", offHeap.usedBytes());
+            l2.put("capacityBytes", offHeap.capacityBytes());
+            l2.put("evictions", offHeap.evictionCount());
+            l2.put("hits", offHeapHits.get());
+            l2.put("misses", offHeapMisses.get());
+            l2.put("hitRatio", ratio(offHeapHits.get(), offHeapMisses.get()));
+        }
+        stats.put("l2", l2);
+
+        Map<String, Object> storeStats = store.statistics();
+        storeStats.put("hits", storeHits.get());
+        storeStats.put("misses", storeMisses.get());
+        storeStats.put("hitRatio", ratio(storeHits.get(), storeMisses.get()));
+        stats.put("store", storeStats);
+
+        Map<String, Object> bloomStats = new HashMap<>();
+        BloomFilter filter = bloom;
+        bloomStats.put("enabled", filter != null);
+        if (filter != null) {
+            bloomStats.put("bits", filter.bitSize());
+            bloomStats.put("insertions", filter.insertions());
+            bloomStats.put("expectedFalsePositiveRate", filter.expectedFalsePositiveRate());
+            bloomStats.put("skippedLookups", bloomSkips.get());
+            bloomStats.put("falsePositives", bloomFalsePositives.get());
+        }
+        stats.put("bloom", bloomStats);
+        return stats;
+    }
+
+    private CachedAiResponse promote(String key, CachedAiResponse entry) {
+        CachedAiResponse decoded = entry.withDecodedResponse();
+        Duration ttl = remainingTtl(entry);
+        if (ttl == null || ttl.toMillis() > 0) {
+            cache.put(key, decoded, ttl);
+            promotions.incrementAndGet();
+        }
+        return decoded;
+    }
+
+    /**
+     * Returns how long the entry may still live, counted from when it was generated
+     * rather than when it reached this tier (zero or negative once expired), or null
+     * without a TTL
+     */
+    private Duration remainingTtl(CachedAiResponse entry) {
+        if (ttlMillis <= 0) {
+            return null;
+        }
+        return Duration.ofMillis(ttlMillis - (System.currentTimeMillis() - entry.getCreatedAt()));
+    }
+
+    private void demote(String key, CachedAiResponse entry) {
+        if (offHeap == null || offHeap.containsKey(key)) {
+            return;
+        }
+        if (offHeap.put(key, AiResponseCodec.encodeEntry(entry))) {
+            addToBloom(key);
+            demotions.incrementAndGet();
+        }
+    }
+
+    private CachedAiResponse offHeapEntry(String key) {
+        if (offHeap == null) {
+            return null;
+        }
+        byte[] bytes = offHeap.get(key);
+        if (bytes == null) {
+            return null;
+        }
+        try {
+            CachedAiResponse entry = AiResponseCodec.decodeEntry(bytes);
+            if (ttlMillis > 0 && System.currentTimeMillis() - entry.getCreatedAt() > ttlMillis) {
+                offHeap.remove(key);
+                return null;
+            }
+            return entry;
+        } catch (RuntimeException e) {
+            logger.warn("Dropping unreadable off-heap entry for '{}': {}", key, e.getMessage());
+            offHeap.remove(key);
+            return null;
+        }
+    }
+
+    private void addToBloom(String key) {
+        BloomFilter filter = bloom;
+        if (filter == null) {
+            return;
+        }
+        filter.put(key);
+        BloomFilter replacement = rebuildingBloom;
+        if (replacement != null) {
+            replacement.put(key);
+        }
+        // Keys are never removed, so once the filter is past its sizing its false
+        // positive rate climbs; rebuild it from the keys actually held
+        if (filter.insertions() > filter.expectedInsertions() && bloomRebuildRunning.compareAndSet(false, true)) {
+            Thread rebuild = new Thread(this::rebuildBloom, "ai-cache-bloom-rebuild");
+            rebuild.setDaemon(true);
+            rebuild.start();
+        }
+    }
+
+    private void rebuildBloom() {
+        try {
+            long held = store.size() + (offHeap != null ? offHeap.size() : 0);
+            BloomFilter replacement = new BloomFilter(Math.max(bloomExpectedEntries, 2 * held), bloomFalsePositiveRate);
+            // Published before the keys are read, so keys written meanwhile reach it too
+            rebuildingBloom = replacement;
+            store.keys().forEach(replacement::put);
+            if (offHeap != null) {
+                offHeap.keys().forEach(replacement::put);
+            }
+            bloom = replacement;
+            rebuildingBloom = null;
+            logger.info("Rebuilt AI cache Bloom filter with {} keys", replacement.insertions());
+        } catch (RuntimeException e) {
+            logger.error("Could not rebuild AI cache Bloom filter: {}", e.getMessage(), e);
+        } finally {
+            bloomRebuildRunning.set(false);
+        }
+    }
+
+    private static double ratio(long hits, long misses) {
+        return hits + misses == 0 ? 0.0 : (double) hits / (hits + misses);
+    }
+
+    static long estimateBytes(String key, CachedAiResponse entry) {
+        long bytes = ENTRY_OVERHEAD_BYTES + stringBytes(key)
+                + stringBytes(entry.getPromptVersion())
+                + ARRAY_OVERHEAD_BYTES + entry.encodedSize();
+        AiResponse decoded = entry.decodedResponse();
+        if (decoded != null) {
+            bytes += ENTRY_OVERHEAD_BYTES / 3 + stringBytes(decoded.getExplanation())
+                    + stringBytes(decoded.getExamples()) + stringBytes(decoded.getPronunciation());
+        }
+        return bytes;
+    }
+
+    private static long stringBytes(String s) {
+        // Strings with any non-Latin-1 character (all CJK text) are stored as UTF-16
+        return s == null ? 0 : STRING_OVERHEAD_BYTES + 2L * s.length();
+    }
+}
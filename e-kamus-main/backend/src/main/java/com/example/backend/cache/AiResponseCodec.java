@@ -0,0 +1,221 @@
+package com.example.backend.cache;
+
+import com.example.backend.model.AiResponse;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * Binary encoding of {@link AiResponse} used wherever a response leaves the heap
+ * (disk store, shared cache tier). Strings are written as length-prefixed UTF-8,
+ * which is also much smaller than the in-memory UTF-16 form for Malay text.
+ *
+ * Layout: version byte, flags byte, then each non-null string as int length + bytes.
+ * When it saves space, that string section is instead stored as its int length
+ * followed by the section deflated against a preset dictionary of text common in our
+ * explanations, which lets even short entries compress well.
+ *
+ * A {@link CachedAiResponse} adds a marker byte, its creation time and its prompt
+ * version in front.
+ */
+public final class AiResponseCodec {
+
+    private static final byte VERSION = 1;
+    private static final int FLAG_ADJECTIVE = 1;
+    private static final int FLAG_EXPLANATION = 1 << 1;
+    private static final int FLAG_EXAMPLES = 1 << 2;
+    private static final int FLAG_PRONUNCIATION = 1 << 3;
+    private static final int FLAG_DEFLATED = 1 << 4;
+
+    // Sections shorter than this rarely shrink enough to pay for inflating on a hit
+    private static final int MIN_DEFLATE_BYTES = 96;
+
+    // Frequent Malay words, Chinese characters and pinyin syllables from generated
+    // explanations, most frequent last. Entries deflated with it can only be inflated
+    // with the identical bytes: never edit it, add a new flag and dictionary instead.
+    private static final byte[] PRESET_DICTIONARY = (
+            "ā á ǎ à ē é ě è ī í ǐ ì ō ó ǒ ò ū ú ǔ ù ǚ ǜ "
+                    + "shì de wǒ nǐ tā men zài le hěn bù zhè nà yǒu hé rén chī shuō huì yào qù lái "
+                    + "上 到 大 小 好 个 一 那 这 不 很 了 在 们 她 他 你 我 是 的 。，"
+                    + "seseorang sesuatu keadaan perkataan biasanya digunakan menggambarkan "
+                    + "merujuk kepada perbuatan sifat perasaan sangat boleh tidak mereka "
+                    + "dia kami kita ini itu dalam pada dari untuk dengan adalah yang dan "
+                    + "Saya makan Dia sedang Mereka Kami Ini Itu sangat "
+                    + "bermaksud ")
+            .getBytes(StandardCharsets.UTF_8);
+
+    // Entries written before prompt versions were recorded begin with the creation
+    // time, whose high byte is always 0, so a non-zero first byte marks the newer layout
+    private static final byte ENTRY_VERSIONED = 1;
+
+    private AiResponseCodec() {
+    }
+
+    public static byte[] encode(AiResponse response) {
+        byte[] explanation = utf8(response.getExplanation());
+        byte[] examples = utf8(response.getExamples());
+        byte[] pronunciation = utf8(response.getPronunciation());
+
+        int flags = (response.isAdjective() ? FLAG_ADJECTIVE : 0)
+                | (explanation != null ? FLAG_EXPLANATION : 0)
+                | (examples != null ? FLAG_EXAMPLES : 0)
+                | (pronunciation != null ? FLAG_PRONUNCIATION : 0);
+
+        ByteBuffer strings = ByteBuffer.allocate(sizeOf(explanation) + sizeOf(examples) + sizeOf(pronunciation));
+        putString(strings, explanation);
+        putString(strings, examples);
+        putString(strings, pronunciation);
+        byte[] section = strings.array();
+
+        byte[] deflated = section.length >= MIN_DEFLATE_BYTES ? deflate(section) : null;
+        if (deflated != null && 4 + deflated.length < section.length) {
+            ByteBuffer buffer = ByteBuffer.allocate(2 + 4 + deflated.length);
+            buffer.put(VERSION);
+            buffer.put((byte) (flags | FLAG_DEFLATED));
+            buffer.putInt(section.length);
+            buffer.put(deflated);
+            return buffer.array();
+        }
+
+        ByteBuffer buffer = ByteBuffer.allocate(2 + section.length);
+        buffer.put(VERSION);
+        buffer.put((byte) flags);
+        buffer.put(section);
+        return buffer.array();
+    }
+
+    public static AiResponse decode(byte[] bytes) {
+        return decode(ByteBuffer.wrap(bytes));
+    }
+
+    /**
+     * Decodes a response starting at the buffer's position, advancing it past the
+     * encoded bytes
+     */
+    public static AiResponse decode(ByteBuffer buffer) {
+        byte version = buffer.get();
+        if (version != VERSION) {
+            throw new IllegalArgumentException("Unsupported AiResponse encoding version: " + version);
+        }
+        int flags = buffer.get();
+        if ((flags & FLAG_DEFLATED) != 0) {
+            buffer = ByteBuffer.wrap(inflate(buffer));
+        }
+        AiResponse response = new AiResponse();
+        response.setExplanation((flags & FLAG_EXPLANATION) != 0 ? getString(buffer) : null);
+        response.setExamples((flags & FLAG_EXAMPLES) != 0 ? getString(buffer) : null);
+        response.setPronunciation((flags & FLAG_PRONUNCIATION) != 0 ? getString(buffer) : null);
+        response.setAdjective((flags & FLAG_ADJECTIVE) != 0);
+        return response;
+    }
+
+    public static byte[] encodeEntry(CachedAiResponse entry) {
+        byte[] encoded = entry.encodedResponse();
+        byte[] version = entry.getPromptVersion().getBytes(StandardCharsets.UTF_8);
+        ByteBuffer buffer = ByteBuffer.allocate(1 + 8 + 2 + version.length + encoded.length);
+        buffer.put(ENTRY_VERSIONED);
+        buffer.putLong(entry.getCreatedAt());
+        buffer.putShort((short) version.length);
+        buffer.put(version);
+        buffer.put(encoded);
+        return buffer.array();
+    }
+
+    /**
+     * Decodes an entry; one written without a prompt version gets
+     * {@link CachedAiResponse#UNKNOWN_VERSION}
+     */
+    public static CachedAiResponse decodeEntry(byte[] bytes) {
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        boolean versioned = bytes[0] == ENTRY_VERSIONED;
+        if (versioned) {
+            buffer.get();
+        }
+        long createdAt = buffer.getLong();
+        String promptVersion = CachedAiResponse.UNKNOWN_VERSION;
+        if (versioned) {
+            byte[] version = new byte[buffer.getShort()];
+            buffer.get(version);
+            promptVersion = new String(version, StandardCharsets.UTF_8);
+        }
+        byte[] encoded = new byte[buffer.remaining()];
+        buffer.get(encoded);
+        // Fail now on a corrupt entry rather than on every later hit
+        decode(encoded);
+        return CachedAiResponse.ofEncoded(encoded, promptVersion, createdAt);
+    }
+
+    private static byte[] deflate(byte[] input) {
+        Deflater deflater = new Deflater(Deflater.BEST_COMPRESSION, true);
+        try {
+            deflater.setDictionary(PRESET_DICTIONARY);
+            deflater.setInput(input);
+            deflater.finish();
+            ByteArrayOutputStream out = new ByteArrayOutputStream(input.length);
+            byte[] chunk = new byte[Math.max(64, input.length)];
+            while (!deflater.finished()) {
+                int count = deflater.deflate(chunk);
+                out.write(chunk, 0, count);
+                if (out.size() >= input.length) {
+                    return null;
+                }
+            }
+            return out.toByteArray();
+        } finally {
+            deflater.end();
+        }
+    }
+
+    private static byte[] inflate(ByteBuffer buffer) {
+        byte[] output = new byte[buffer.getInt()];
+        byte[] input = new byte[buffer.remaining()];
+        buffer.get(input);
+        Inflater inflater = new Inflater(true);
+        try {
+            inflater.setDictionary(PRESET_DICTIONARY);
+            inflater.setInput(input);
+            int length = 0;
+            while (length < output.length) {
+                int count = inflater.inflate(output, length, output.length - length);
+                if (count == 0 && (inflater.finished() || inflater.needsInput())) {
+                    break;
+                }
+                length += count;
+            }
+            if (length != output.length) {
+                throw new IllegalArgumentException("Deflated AiResponse is truncated");
+            }
+            return output;
+        } catch (DataFormatException e) {
+            throw new IllegalArgumentException("Corrupt deflated AiResponse", e);
+        } finally {
+            inflater.end();
+        }
+    }
+
+    private static byte[] utf8(String s) {
+        return s == null ? null : s.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static int sizeOf(byte[] bytes) {
+        return bytes == null ? 0 : 4 + bytes.length;
+    }
+
+    private static void putString(ByteBuffer buffer, byte[] bytes) {
+        if (bytes != null) {
+            buffer.putInt(bytes.length);
+            buffer.put(bytes);
+        }
+    }
+
+    private static String getString(ByteBuffer buffer) {
+        int length = buffer.getInt();
+        byte[] bytes = new byte[length];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,197 @@
+package com.example.backend.cache;
+
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Disk-backed tier for parsed AI explanations so they survive restarts and deploys.
+ * Entries live in a memory-mapped {@link SegmentLog}; each value is an encoded
+ * {@link CachedAiResponse}, whose creation time lets the cache TTL still apply after
+ * a restart.
+ *
+ * A single background thread periodically flushes the log and compacts it once
+ * enough records have been superseded. If the data directory cannot be opened the
+ * store disables itself and the application runs with the in-memory cache only.
+ */
+@Component
+public class AiResponseStore {
+
+    private static final Logger logger = LoggerFactory.getLogger(AiResponseStore.class);
+
+    private final SegmentLog log;
+    private final long ttlMillis;
+    private final double compactionThreshold;
+    private final ScheduledExecutorService maintenance;
+
+    public AiResponseStore(
+            @Value("${app.store.enabled:true}") boolean enabled,
+            @Value("${app.store.dir:./data/ai-store}") String directory,
+            @Value("${app.store.segment-size-mb:16}") int segmentSizeMb,
+            @Value("${app.store.compaction-threshold:0.5}") double compactionThreshold,
+            @Value("${app.store.maintenance-interval-seconds:60}") long maintenanceIntervalSeconds,
+            @Value("${app.cache.ttl-hours:168}") long ttlHours) {
+        this.ttlMillis = ttlHours > 0 ? Duration.ofHours(ttlHours).toMillis() : 0;
+        this.compactionThreshold = compactionThreshold;
+
+        SegmentLog opened = null;
+        if (enabled) {
+            try {
+                opened = SegmentLog.open(Paths.get(directory), segmentSizeMb * 1024 * 1024);
+                logger.info("AiResponseStore opened at {} with {} entries", directory, opened.size());
+            } catch (IOException | RuntimeException e) {
+                logger.error("Could not open AI response store at {}, continuing without it: {}", directory,
+                        e.getMessage(), e);
+            }
+        } else {
+            logger.info("AiResponseStore is disabled");
+        }
+        this.log = opened;
+
+        if (log != null) {
+            this.maintenance = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "ai-store-maintenance");
+                thread.setDaemon(true);
+                thread.setPriority(Thread.MIN_PRIORITY);
+                return thread;
+            });
+            maintenance.scheduleWithFixedDelay(this::runMaintenance, maintenanceIntervalSeconds,
+                    maintenanceIntervalSeconds, TimeUnit.SECONDS);
+        } else {
+            this.maintenance = null;
+        }
+    }
+
+    public boolean isEnabled() {
+        return log != null;
+    }
+
+    /**
+     * Returns the stored entry, or null if it is absent, expired or unreadable
+     */
+    public CachedAiResponse get(String key) {
+        if (log == null) {
+            return null;
+        }
+        byte[] bytes = log.get(key);
+        if (bytes == null) {
+            return null;
+        }
+        try {
+            CachedAiResponse entry = AiResponseCodec.decodeEntry(bytes);
+            if (ttlMillis > 0 && System.currentTimeMillis() - entry.getCreatedAt() > ttlMillis) {
+                logger.debug("Stored entry for '{}' has expired", key);
+                remove(key);
+                return null;
+            }
+            return entry;
+        } catch (RuntimeException e) {
+            logger.warn("Dropping unreadable stored entry for '{}': {}", key, e.getMessage());
+            remove(key);
+            return null;
+        }
+    }
+
+    public void put(String key, CachedAiResponse entry) {
+        if (log == null) {
+            return;
+        }
+        try {
+            log.put(key, AiResponseCodec.encodeEntry(entry));
+        } catch (IOException e) {
+            logger.error("Could not persist AI response for '{}': {}", key, e.getMessage());
+        }
+    }
+
+    public boolean contains(String key) {
+        return log != null && log.contains(key);
+    }
+
+    public void remove(String key) {
+        if (log == null) {
+            return;
+        }
+        try {
+            log.remove(key);
+        } catch (IOException e) {
+            logger.error("Could not remove stored AI response for '{}': {}", key, e.getMessage());
+        }
+    }
+
+    public void clear() {
+        if (log == null) {
+            return;
+        }
+        try {
+            log.clear();
+            logger.info("Cleared AI response store");
+        } catch (IOException e) {
+            logger.error("Could not clear AI response store: {}", e.getMessage(), e);
+        }
+    }
+
+    public int size() {
+        return log == null ? 0 : log.size();
+    }
+
+    /**
+     * Returns the bytes the segment files occupy, including superseded records
+     */
+    public long diskBytes() {
+        return log == null ? 0 : log.totalBytes();
+    }
+
+    /**
+     * Returns a snapshot of the stored keys, including ones that have expired but have
+     * not been read since
+     */
+    public Set<String> keys() {
+        return log == null ? Set.of() : log.keys();
+    }
+
+    /**
+     * Returns entry count and disk usage of the store
+     */
+    public Map<String, Object> statistics() {
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("enabled", log != null);
+        if (log != null) {
+            stats.put("size", log.size());
+            stats.put("segments", log.segmentCount());
+            stats.put("liveBytes", log.liveBytes());
+            stats.put("totalBytes", log.totalBytes());
+        }
+        return stats;
+    }
+
+    private void runMaintenance() {
+        try {
+            log.force();
+            log.compact(compactionThreshold);
+        } catch (IOException | RuntimeException e) {
+            logger.error("AI response store maintenance failed: {}", e.getMessage(), e);
+        }
+    }
+
+    @PreDestroy
+    public void close() {
+        if (log == null) {
+            return;
+        }
+        maintenance.shutdownNow();
+        log.close();
+        logger.info("AiResponseStore closed");
+    }
+}
@@ -0,0 +1,149 @@
+package com.example.backend.cache;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.IntSupplier;
+import java.util.function.Supplier;
+
+/**
+ * Runs optional background work (refreshes, prefetches) at lower priority than live
+ * requests.
+ *
+ * - Tasks are deduplicated by key while queued or running
+ * - The queue is bounded; submissions beyond its capacity are dropped
+ * - At most {@code concurrency} tasks run at once, and a task only starts while the
+ *   supplied live-work count does not exceed the queue's own running tasks, i.e.
+ *   when no user request is waiting on the upstream service
+ */
+public class BackgroundQueue {
+
+    private static final Logger logger = LoggerFactory.getLogger(BackgroundQueue.class);
+    private static final Duration IDLE_POLL_INTERVAL = Duration.ofMillis(500);
+
+    private final String name;
+    private final int capacity;
+    private final IntSupplier liveWork;
+    private final Set<String> pendingKeys = ConcurrentHashMap.newKeySet();
+    private final AtomicInteger queued = new AtomicInteger();
+    private final AtomicInteger running = new AtomicInteger();
+    private final LongAdder completed = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+    private final Sinks.Many<Task> tasks = Sinks.many().unicast().onBackpressureBuffer();
+    private final Scheduler scheduler;
+    private final Disposable worker;
+
+    /**
+     * @param name        Thread and log name
+     * @param concurrency Maximum tasks running at once
+     * @param capacity    Maximum tasks waiting to run
+     * @param liveWork    Number of upstream calls currently running, including ours
+     */
+    public BackgroundQueue(String name, int concurrency, int capacity, IntSupplier liveWork) {
+        this.name = name;
+        this.capacity = capacity;
+        this.liveWork = liveWork;
+        this.scheduler = Schedulers.fromExecutorService(Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, name);
+            thread.setDaemon(true);
+            thread.setPriority(Thread.MIN_PRIORITY);
+            return thread;
+        }));
+        this.worker = tasks.asFlux()
+                .publishOn(scheduler)
+                .flatMap(task -> awaitIdle().then(Mono.defer(() -> run(task))), Math.max(1, concurrency))
+                .subscribe();
+    }
+
+    /**
+     * Queues a task unless one with the same key is already pending or the queue is full
+     *
+     * @return true if the task was queued
+     */
+    public boolean submit(String key, Supplier<Mono<?>> work) {
+        if (queued.get() >= capacity || !pendingKeys.add(key)) {
+            dropped.increment();
+            return false;
+        }
+        queued.incrementAndGet();
+        if (tasks.tryEmitNext(new Task(key, work)).isFailure()) {
+            queued.decrementAndGet();
+            pendingKeys.remove(key);
+            dropped.increment();
+            return false;
+        }
+        return true;
+    }
+
+    public boolean isPending(String key) {
+        return pendingKeys.contains(key);
+    }
+
+    public int queuedCount() {
+        return queued.get();
+    }
+
+    public int runningCount() {
+        return running.get();
+    }
+
+    public long completedCount() {
+        return completed.sum();
+    }
+
+    public long droppedCount() {
+        return dropped.sum();
+    }
+
+    public void shutdown() {
+        worker.dispose();
+        scheduler.dispose();
+    }
+
+    private Mono<Void> awaitIdle() {
+        return Mono.defer(() -> liveWork.getAsInt() > running.get()
+                ? Mono.delay(IDLE_POLL_INTERVAL, scheduler).then(awaitIdle())
+                : Mono.empty());
+    }
+
+    private Mono<Void> run(Task task) {
+        queued.decrementAndGet();
+        running.incrementAndGet();
+        Mono<?> work;
+        try {
+            work = task.work.get();
+        } catch (RuntimeException e) {
+            work = Mono.error(e);
+        }
+        return work
+                .doOnError(e -> logger.warn("{} task '{}' failed: {}", name, task.key, e.getMessage()))
+                .onErrorResume(e -> Mono.empty())
+                .doFinally(signal -> {
+                    running.decrementAndGet();
+                    pendingKeys.remove(task.key);
+                    completed.increment();
+                })
+                .then();
+    }
+
+    private static final class Task {
+        final String key;
+        final Supplier<Mono<?>> work;
+
+        Task(String key, Supplier<Mono<?>> work) {
+            this.key = key;
+            this.work = work;
+        }
+    }
+}
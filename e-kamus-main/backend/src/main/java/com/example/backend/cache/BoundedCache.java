@@ -0,0 +1,497 @@
+package com.example.backend.cache;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.BiConsumer;
+import java.util.function.LongSupplier;
+import java.util.function.Predicate;
+
+/**
+ * A concurrent in-memory cache bounded by entry count and by estimated byte weight.
+ *
+ * The eviction policy is a simplified W-TinyLFU:
+ * - New entries land in a small LRU admission window (1% of the capacity)
+ * - When the window overflows, its oldest entry competes with the oldest entry
+ *   of the main LRU region, and the one requested more often (according to a
+ *   {@link FrequencySketch}) stays. One-off lookups, such as a scan over many
+ *   distinct words, therefore cannot flush the popular entries out of the cache.
+ *
+ * Entries expire after a per-entry time-to-live. When the heap is still nearly full
+ * after a garbage collection, the cache sheds a fraction of its least recently used
+ * entries so that it gives memory back before the JVM runs out.
+ *
+ * Keys matched by a pinning policy are passed over when choosing what to evict for
+ * size or heap pressure, as long as an unpinned entry is found near the LRU end; they
+ * still expire. Only a handful of hot keys should be pinned.
+ *
+ * Reads are lock-free; reordering on a read is skipped when the eviction lock is
+ * contended, which only makes the LRU order slightly less precise.
+ */
+public class BoundedCache<K, V> {
+
+    /**
+     * Estimates the retained size in bytes of a cache entry
+     */
+    @FunctionalInterface
+    public interface Weigher<K, V> {
+        long weigh(K key, V value);
+    }
+
+    /**
+     * Notified whenever an entry leaves the cache
+     */
+    @FunctionalInterface
+    public interface RemovalListener<K, V> {
+        void onRemoval(K key, V value, RemovalCause cause);
+    }
+
+    public enum RemovalCause {
+        EXPLICIT, REPLACED, EXPIRED, SIZE, HEAP_PRESSURE
+    }
+
+    private static final long SWEEP_INTERVAL_NANOS = TimeUnit.SECONDS.toNanos(30);
+    private static final long PRESSURE_CHECK_INTERVAL_NANOS = TimeUnit.SECONDS.toNanos(1);
+    // How far from the LRU end to look for an unpinned entry before evicting a pinned one
+    private static final int PINNED_SCAN_LIMIT = 256;
+
+    private final ConcurrentHashMap<K, Node<K, V>> data = new ConcurrentHashMap<>();
+    // Both regions are access-ordered and guarded by evictionLock
+    private final LinkedHashMap<K, Node<K, V>> window = new LinkedHashMap<>(16, 0.75f, true);
+    private final LinkedHashMap<K, Node<K, V>> main = new LinkedHashMap<>(16, 0.75f, true);
+    private final ReentrantLock evictionLock = new ReentrantLock();
+
+    private final long maximumSize;
+    private final long maximumWeight;
+    private final long windowMaximum;
+    private final long defaultTtlNanos;
+    private final Weigher<K, V> weigher;
+    private final FrequencySketch sketch;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final AtomicLong weightedSize = new AtomicLong();
+
+    private volatile RemovalListener<K, V> removalListener = (key, value, cause) -> {
+    };
+    private volatile Predicate<? super K> pinned = key -> false;
+    private volatile double heapPressureThreshold = 1.0;
+    private volatile double heapPressureShrinkRatio = 0.25;
+    private LongSupplier ticker = System::nanoTime;
+
+    // Guarded by evictionLock
+    private long nextSweepAt;
+    private long nextPressureCheckAt;
+    private long lastShrinkGcCount = -1;
+
+    /**
+     * @param maximumSize   Maximum number of entries
+     * @param maximumWeight Maximum total weight in bytes as reported by the weigher
+     * @param defaultTtl    Time-to-live of entries stored without an explicit TTL, or
+     *                      null for no expiry
+     * @param weigher       Estimates the byte size of an entry
+     */
+    public BoundedCache(long maximumSize, long maximumWeight, Duration defaultTtl, Weigher<K, V> weigher) {
+        if (maximumSize <= 0 || maximumWeight <= 0) {
+            throw new IllegalArgumentException("Cache bounds must be positive");
+        }
+        this.maximumSize = maximumSize;
+        this.maximumWeight = maximumWeight;
+        this.windowMaximum = Math.max(1, maximumSize / 100);
+        this.defaultTtlNanos = (defaultTtl == null || defaultTtl.isZero() || defaultTtl.isNegative())
+                ? 0 : defaultTtl.toNanos();
+        this.weigher = weigher;
+        this.sketch = new FrequencySketch(maximumSize);
+    }
+
+    /**
+     * Sets the post-GC heap occupancy (0..1) above which the cache sheds entries
+     *
+     * @param threshold   Heap ratio that triggers shrinking, 1.0 disables it
+     * @param shrinkRatio Fraction of entries dropped each time the threshold is hit
+     */
+    public void setHeapPressurePolicy(double threshold, double shrinkRatio) {
+        this.heapPressureThreshold = threshold;
+        this.heapPressureShrinkRatio = Math.min(Math.max(shrinkRatio, 0.0), 1.0);
+    }
+
+    public void setRemovalListener(RemovalListener<K, V> removalListener) {
+        this.removalListener = removalListener;
+    }
+
+    /**
+     * Sets which keys to keep in preference to others when evicting
+     */
+    public void setPinningPolicy(Predicate<? super K> pinned) {
+        this.pinned = pinned;
+    }
+
+    void setTicker(LongSupplier ticker) {
+        this.ticker = ticker;
+    }
+
+    /**
+     * Returns the value for the key, or null if it is absent or expired
+     */
+    public V getIfPresent(K key) {
+        sketch.increment(key);
+        Node<K, V> node = data.get(key);
+        if (node == null) {
+            misses.increment();
+            return null;
+        }
+        if (node.isExpired(ticker.getAsLong())) {
+            removeNode(node, RemovalCause.EXPIRED);
+            misses.increment();
+            return null;
+        }
+        hits.increment();
+        if (evictionLock.tryLock()) {
+            try {
+                // A get on an access-ordered LinkedHashMap moves the entry to the tail
+                if (window.get(key) == null) {
+                    main.get(key);
+                }
+            } finally {
+                evictionLock.unlock();
+            }
+        }
+        return node.value;
+    }
+
+    /**
+     * Checks for a live entry without counting a hit or miss or touching the LRU order
+     */
+    public boolean containsKey(K key) {
+        Node<K, V> node = data.get(key);
+        return node != null && !node.isExpired(ticker.getAsLong());
+    }
+
+    /**
+     * Returns a live value without counting a hit or miss or touching the LRU order
+     */
+    public V peek(K key) {
+        Node<K, V> node = data.get(key);
+        return node != null && !node.isExpired(ticker.getAsLong()) ? node.value : null;
+    }
+
+    public void put(K key, V value) {
+        put(key, value, null);
+    }
+
+    /**
+     * Stores a value with its own time-to-live
+     *
+     * @param ttl Time-to-live for this entry, or null to use the cache default
+     */
+    public void put(K key, V value, Duration ttl) {
+        long now = ticker.getAsLong();
+        long ttlNanos = ttl != null ? ttl.toNanos() : defaultTtlNanos;
+        Node<K, V> node = new Node<>(key, value, Math.max(weigher.weigh(key, value), 1),
+                ttlNanos > 0 ? now + ttlNanos : 0);
+
+        List<Node<K, V>> removed = new ArrayList<>();
+        evictionLock.lock();
+        try {
+            Node<K, V> previous = data.put(key, node);
+            if (previous != null) {
+                weightedSize.addAndGet(-previous.weight);
+                if (main.remove(key) != null) {
+                    main.put(key, node);
+                } else {
+                    window.remove(key);
+                    window.put(key, node);
+                }
+                previous.cause = RemovalCause.REPLACED;
+                removed.add(previous);
+            } else {
+                window.put(key, node);
+            }
+            weightedSize.addAndGet(node.weight);
+            maintenance(now, removed);
+        } finally {
+            evictionLock.unlock();
+        }
+        notifyRemovals(removed);
+    }
+
+    /**
+     * Removes the entry for the key
+     *
+     * @return The removed value, or null if there was none
+     */
+    public V invalidate(K key) {
+        Node<K, V> node = data.get(key);
+        if (node == null) {
+            return null;
+        }
+        return removeNode(node, RemovalCause.EXPLICIT) ? node.value : null;
+    }
+
+    /**
+     * Removes all entries
+     */
+    public void invalidateAll() {
+        List<Node<K, V>> removed = new ArrayList<>();
+        evictionLock.lock();
+        try {
+            for (Node<K, V> node : data.values()) {
+                if (data.remove(node.key, node)) {
+                    weightedSize.addAndGet(-node.weight);
+                    node.cause = RemovalCause.EXPLICIT;
+                    removed.add(node);
+                }
+            }
+            window.clear();
+            main.clear();
+        } finally {
+            evictionLock.unlock();
+        }
+        notifyRemovals(removed);
+    }
+
+    /**
+     * Runs pending expiry and heap-pressure maintenance immediately
+     */
+    public void cleanUp() {
+        List<Node<K, V>> removed = new ArrayList<>();
+        evictionLock.lock();
+        try {
+            nextSweepAt = 0;
+            nextPressureCheckAt = 0;
+            maintenance(ticker.getAsLong(), removed);
+        } finally {
+            evictionLock.unlock();
+        }
+        notifyRemovals(removed);
+    }
+
+    /**
+     * Visits every live entry. The iteration is weakly consistent and does not affect
+     * statistics or eviction order.
+     */
+    public void forEach(BiConsumer<? super K, ? super V> action) {
+        long now = ticker.getAsLong();
+        for (Node<K, V> node : data.values()) {
+            if (!node.isExpired(now)) {
+                action.accept(node.key, node.value);
+            }
+        }
+    }
+
+    public int size() {
+        return data.size();
+    }
+
+    public long weightedSize() {
+        return weightedSize.get();
+    }
+
+    public long maximumSize() {
+        return maximumSize;
+    }
+
+    public long maximumWeight() {
+        return maximumWeight;
+    }
+
+    public long hitCount() {
+        return hits.sum();
+    }
+
+    public long missCount() {
+        return misses.sum();
+    }
+
+    public long evictionCount() {
+        return evictions.sum();
+    }
+
+    private boolean removeNode(Node<K, V> node, RemovalCause cause) {
+        boolean removed;
+        evictionLock.lock();
+        try {
+            removed = data.remove(node.key, node);
+            if (removed) {
+                if (!window.remove(node.key, node)) {
+                    main.remove(node.key, node);
+                }
+                weightedSize.addAndGet(-node.weight);
+            }
+        } finally {
+            evictionLock.unlock();
+        }
+        if (removed) {
+            if (cause == RemovalCause.EXPIRED) {
+                evictions.increment();
+            }
+            removalListener.onRemoval(node.key, node.value, cause);
+        }
+        return removed;
+    }
+
+    // Must be called while holding evictionLock
+    private void maintenance(long now, List<Node<K, V>> removed) {
+        if (now - nextSweepAt >= 0) {
+            expireEntries(now, removed);
+            nextSweepAt = now + SWEEP_INTERVAL_NANOS;
+        }
+        if (heapPressureThreshold < 1.0 && now - nextPressureCheckAt >= 0) {
+            shrinkUnderHeapPressure(removed);
+            nextPressureCheckAt = now + PRESSURE_CHECK_INTERVAL_NANOS;
+        }
+        evictEntries(removed);
+    }
+
+    private void expireEntries(long now, List<Node<K, V>> removed) {
+        expireRegion(window, now, removed);
+        expireRegion(main, now, removed);
+    }
+
+    private void expireRegion(LinkedHashMap<K, Node<K, V>> region, long now, List<Node<K, V>> removed) {
+        Iterator<Node<K, V>> it = region.values().iterator();
+        while (it.hasNext()) {
+            Node<K, V> node = it.next();
+            if (node.isExpired(now)) {
+                it.remove();
+                evict(node, RemovalCause.EXPIRED, removed);
+            }
+        }
+    }
+
+    private void shrinkUnderHeapPressure(List<Node<K, V>> removed) {
+        long gcCount = MemoryPressure.collectionCount();
+        // The post-GC reading only changes after another collection, so shrink at most
+        // once per collection
+        if (gcCount == lastShrinkGcCount || MemoryPressure.heapUsedAfterGc() < heapPressureThreshold) {
+            return;
+        }
+        lastShrinkGcCount = gcCount;
+        long toDrop = (long) Math.ceil(data.size() * heapPressureShrinkRatio);
+        for (long i = 0; i < toDrop; i++) {
+            Node<K, V> victim = pollVictim();
+            if (victim == null) {
+                break;
+            }
+            evict(victim, RemovalCause.HEAP_PRESSURE, removed);
+        }
+    }
+
+    private void evictEntries(List<Node<K, V>> removed) {
+        // Drain the admission window; each overflowing entry must beat the main
+        // region's LRU victim on frequency to be kept once the cache is full
+        while (window.size() > windowMaximum) {
+            Node<K, V> candidate = pollEldest(window);
+            if (!overBounds() || pinned.test(candidate.key)) {
+                // A pinned candidate is admitted; the loop below makes room if needed
+                main.put(candidate.key, candidate);
+                continue;
+            }
+            Node<K, V> victim = eldestUnpinned(main);
+            if (victim == null || sketch.frequency(candidate.key) > sketch.frequency(victim.key)) {
+                if (victim != null) {
+                    main.remove(victim.key);
+                    evict(victim, RemovalCause.SIZE, removed);
+                }
+                main.put(candidate.key, candidate);
+            } else {
+                evict(candidate, RemovalCause.SIZE, removed);
+            }
+        }
+        // A single heavy entry can still leave the cache over its weight bound
+        while (overBounds()) {
+            Node<K, V> victim = pollVictim();
+            if (victim == null) {
+                break;
+            }
+            evict(victim, RemovalCause.SIZE, removed);
+        }
+    }
+
+    /**
+     * Removes and returns the least recently used unpinned entry, or the least recently
+     * used entry if none is unpinned near the LRU end of either region
+     */
+    private Node<K, V> pollVictim() {
+        Node<K, V> victim = eldestUnpinned(main);
+        LinkedHashMap<K, Node<K, V>> region = main;
+        if (victim == null) {
+            victim = eldestUnpinned(window);
+            region = window;
+        }
+        if (victim != null) {
+            region.remove(victim.key);
+            return victim;
+        }
+        victim = pollEldest(main);
+        return victim != null ? victim : pollEldest(window);
+    }
+
+    private Node<K, V> eldestUnpinned(LinkedHashMap<K, Node<K, V>> region) {
+        Predicate<? super K> policy = pinned;
+        Iterator<Node<K, V>> it = region.values().iterator();
+        for (int scanned = 0; it.hasNext() && scanned < PINNED_SCAN_LIMIT; scanned++) {
+            Node<K, V> node = it.next();
+            if (!policy.test(node.key)) {
+                return node;
+            }
+        }
+        return null;
+    }
+
+    private boolean overBounds() {
+        return data.size() > maximumSize || weightedSize.get() > maximumWeight;
+    }
+
+    private void evict(Node<K, V> node, RemovalCause cause, List<Node<K, V>> removed) {
+        if (data.remove(node.key, node)) {
+            weightedSize.addAndGet(-node.weight);
+            evictions.increment();
+            node.cause = cause;
+            removed.add(node);
+        }
+    }
+
+    private Node<K, V> pollEldest(LinkedHashMap<K, Node<K, V>> region) {
+        Iterator<Node<K, V>> it = region.values().iterator();
+        if (!it.hasNext()) {
+            return null;
+        }
+        Node<K, V> node = it.next();
+        it.remove();
+        return node;
+    }
+
+    private void notifyRemovals(List<Node<K, V>> removed) {
+        for (Node<K, V> node : removed) {
+            removalListener.onRemoval(node.key, node.value, node.cause);
+        }
+    }
+
+    private static final class Node<K, V> {
+        final K key;
+        final V value;
+        final long weight;
+        final long expiresAt;
+        RemovalCause cause;
+
+        Node(K key, V value, long weight, long expiresAt) {
+            this.key = key;
+            this.value = value;
+            this.weight = weight;
+            this.expiresAt = expiresAt;
+        }
+
+        boolean isExpired(long now) {
+            return expiresAt != 0 && now - expiresAt >= 0;
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package com.example.backend.cache;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+
+/**
+ * Registers Micrometer meters for a {@link BoundedCache}, all tagged with the cache
+ * name so every cache shows up under the same meter names in /actuator/metrics:
+ * - ekamus.cache.gets (result=hit|miss)
+ * - ekamus.cache.evictions
+ * - ekamus.cache.size
+ * - ekamus.cache.weight, the estimated heap the entries retain
+ */
+public final class CacheMetrics {
+
+    private CacheMetrics() {
+    }
+
+    public static void monitor(MeterRegistry registry, String cacheName, BoundedCache<?, ?> cache) {
+        Tags tags = Tags.of("cache", cacheName);
+        FunctionCounter.builder("ekamus.cache.gets", cache, BoundedCache::hitCount)
+                .tags(tags).tag("result", "hit")
+                .description("Cache lookups that found a live entry")
+                .register(registry);
+        FunctionCounter.builder("ekamus.cache.gets", cache, BoundedCache::missCount)
+                .tags(tags).tag("result", "miss")
+                .description("Cache lookups that found nothing")
+                .register(registry);
+        FunctionCounter.builder("ekamus.cache.evictions", cache, BoundedCache::evictionCount)
+                .tags(tags)
+                .description("Entries removed to stay within the size, weight or heap limits")
+                .register(registry);
+        Gauge.builder("ekamus.cache.size", cache, BoundedCache::size)
+                .tags(tags)
+                .description("Entries currently cached")
+                .register(registry);
+        Gauge.builder("ekamus.cache.weight", cache, BoundedCache::weightedSize)
+                .tags(tags)
+                .baseUnit("bytes")
+                .description("Estimated heap retained by the cached entries")
+                .register(registry);
+    }
+}
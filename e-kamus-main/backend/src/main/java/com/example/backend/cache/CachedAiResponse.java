@@ -0,0 +1,100 @@
+package com.example.backend.cache;
+
+import com.example.backend.model.AiResponse;
+
+import java.util.Objects;
+
+/**
+ * A cached {@link AiResponse} stamped with the version of the prompt and model that
+ * produced it, so entries generated by an older prompt can be recognised and
+ * refreshed.
+ *
+ * The response is held in its compact {@link AiResponseCodec} form rather than as four
+ * Java Strings, and decoded again on every {@link #getResponse()}. Entries for the small
+ * on-heap tier also keep the decoded response (see {@link #withDecodedResponse()}) so
+ * hot keys skip the decoding. Either way callers receive a fresh copy they are free to
+ * modify.
+ */
+public final class CachedAiResponse {
+
+    /**
+     * Version given to entries written before versions were recorded; never current
+     */
+    public static final String UNKNOWN_VERSION = "";
+
+    private final byte[] encodedResponse;
+    private final AiResponse decodedResponse;
+    private final String promptVersion;
+    private final long createdAt;
+
+    public CachedAiResponse(AiResponse response, String promptVersion, long createdAt) {
+        this(AiResponseCodec.encode(Objects.requireNonNull(response, "response")), null, promptVersion, createdAt);
+    }
+
+    private CachedAiResponse(byte[] encodedResponse, AiResponse decodedResponse, String promptVersion,
+            long createdAt) {
+        this.encodedResponse = encodedResponse;
+        this.decodedResponse = decodedResponse;
+        this.promptVersion = promptVersion != null ? promptVersion : UNKNOWN_VERSION;
+        this.createdAt = createdAt;
+    }
+
+    /**
+     * Wraps a response already encoded with {@link AiResponseCodec#encode}
+     */
+    static CachedAiResponse ofEncoded(byte[] encodedResponse, String promptVersion, long createdAt) {
+        return new CachedAiResponse(encodedResponse, null, promptVersion, createdAt);
+    }
+
+    /**
+     * Returns this entry with the decoded response kept alongside the encoded bytes
+     */
+    public CachedAiResponse withDecodedResponse() {
+        if (decodedResponse != null) {
+            return this;
+        }
+        return new CachedAiResponse(encodedResponse, AiResponseCodec.decode(encodedResponse), promptVersion,
+                createdAt);
+    }
+
+    public AiResponse getResponse() {
+        if (decodedResponse == null) {
+            return AiResponseCodec.decode(encodedResponse);
+        }
+        return new AiResponse(decodedResponse.getExplanation(), decodedResponse.getExamples(),
+                decodedResponse.getPronunciation(), decodedResponse.isAdjective());
+    }
+
+    /**
+     * Returns the decoded response held by on-heap entries, or null for compact ones
+     */
+    AiResponse decodedResponse() {
+        return decodedResponse;
+    }
+
+    /**
+     * Returns the size in bytes of the encoded response held by this entry
+     */
+    public int encodedSize() {
+        return encodedResponse.length;
+    }
+
+    byte[] encodedResponse() {
+        return encodedResponse;
+    }
+
+    public String getPromptVersion() {
+        return promptVersion;
+    }
+
+    /**
+     * Returns the epoch milliseconds at which the response was generated
+     */
+    public long getCreatedAt() {
+        return createdAt;
+    }
+
+    public boolean isCurrent(String currentVersion) {
+        return promptVersion.equals(currentVersion);
+    }
+}
@@ -0,0 +1,118 @@
+package com.example.backend.cache;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * A Count-Min sketch of 4-bit counters used to estimate how often a key has been
+ * requested recently. The counters are halved once enough increments have been
+ * recorded, so old popularity fades over time.
+ *
+ * Each long in the table holds sixteen 4-bit counters. Updates use compare-and-set
+ * so the sketch can be updated from the read path without taking a lock.
+ */
+public class FrequencySketch {
+
+    private static final long[] SEEDS = {
+            0xc3a5c85c97cb3127L, 0xb492b66fbe98f273L, 0x9ae16a3b2f90404fL, 0xcbf29ce484222325L };
+    private static final long RESET_MASK = 0x7777777777777777L;
+    private static final int MAX_COUNT = 15;
+
+    private final AtomicLongArray table;
+    private final int tableMask;
+    private final int sampleSize;
+    private final AtomicInteger additions = new AtomicInteger();
+
+    /**
+     * @param expectedSize The number of distinct keys the cache is expected to hold
+     */
+    public FrequencySketch(long expectedSize) {
+        int length = tableSizeFor((int) Math.min(Math.max(expectedSize, 16), 1 << 24));
+        this.table = new AtomicLongArray(length);
+        this.tableMask = length - 1;
+        this.sampleSize = (int) Math.min(10L * length, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Returns the estimated number of recent occurrences of the key, at most 15
+     */
+    public int frequency(Object key) {
+        int hash = spread(key.hashCode());
+        int frequency = MAX_COUNT;
+        for (int i = 0; i < 4; i++) {
+            long word = table.get(indexOf(hash, i));
+            int count = (int) ((word >>> counterShift(hash, i)) & 0xFL);
+            frequency = Math.min(frequency, count);
+        }
+        return frequency;
+    }
+
+    /**
+     * Records one occurrence of the key, aging all counters when the sample period
+     * has elapsed
+     */
+    public void increment(Object key) {
+        int hash = spread(key.hashCode());
+        boolean added = false;
+        for (int i = 0; i < 4; i++) {
+            added |= incrementAt(indexOf(hash, i), counterShift(hash, i));
+        }
+        if (added && additions.incrementAndGet() >= sampleSize) {
+            reset();
+        }
+    }
+
+    private boolean incrementAt(int index, int shift) {
+        while (true) {
+            long word = table.get(index);
+            long count = (word >>> shift) & 0xFL;
+            if (count == MAX_COUNT) {
+                return false;
+            }
+            if (table.compareAndSet(index, word, word + (1L << shift))) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Halves every counter so that the sketch favours recent activity
+     */
+    private void reset() {
+        int current = additions.get();
+        if (current < sampleSize || !additions.compareAndSet(current, current / 2)) {
+            // Another thread is already aging the table
+            return;
+        }
+        for (int i = 0; i < table.length(); i++) {
+            while (true) {
+                long word = table.get(i);
+                if (table.compareAndSet(i, word, (word >>> 1) & RESET_MASK)) {
+                    break;
+                }
+            }
+        }
+    }
+
+    private int indexOf(int hash, int row) {
+        long h = (hash + SEEDS[row]) * SEEDS[row];
+        h += h >>> 32;
+        return (int) h & tableMask;
+    }
+
+    private static int counterShift(int hash, int row) {
+        // Use a different nibble of the hash to pick one of the 16 counters per row
+        return ((hash >>> (row << 3)) & 0xF) << 2;
+    }
+
+    private static int spread(int x) {
+        x = ((x >>> 16) ^ x) * 0x45d9f3b;
+        x = ((x >>> 16) ^ x) * 0x45d9f3b;
+        return (x >>> 16) ^ x;
+    }
+
+    private static int tableSizeFor(int n) {
+        int size = Integer.highestOneBit(Math.max(n - 1, 1)) << 1;
+        return Math.max(size, 16);
+    }
+}
@@ -0,0 +1,168 @@
+package com.example.backend.cache;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * HeavyHitters finds the most frequent keys in a stream without keeping a counter for
+ * every key.
+ *
+ * Frequencies are estimated with a Count-Min sketch (never under-counted, rarely
+ * over-counted). Keys whose estimate reaches the smallest tracked count become
+ * candidates, and the candidate set is trimmed back to a few times k when it grows.
+ * {@link #decay()} halves every count, so the ranking follows recent traffic rather
+ * than all-time totals.
+ *
+ * {@link #record} only uses atomic increments and a concurrent map, so it is safe to
+ * call on the request path from any number of threads.
+ */
+public class HeavyHitters {
+
+    private static final int DEPTH = 4;
+    private static final long[] SEEDS = {
+            0x9E3779B97F4A7C15L, 0xC2B2AE3D27D4EB4FL, 0x165667B19E3779F9L, 0xD6E8FEB86659FD93L };
+
+    private final int k;
+    private final int candidateLimit;
+    private final int width;
+    private final AtomicLongArray counts;
+    private final Map<String, Boolean> candidates = new ConcurrentHashMap<>();
+    private final AtomicBoolean trimming = new AtomicBoolean();
+    private final LongAdder recorded = new LongAdder();
+    // Estimate a key needs to become a candidate once the candidate set is full
+    private volatile long admissionThreshold;
+
+    /**
+     * @param k     Number of top keys to report
+     * @param width Counters per sketch row; larger means fewer over-counts
+     */
+    public HeavyHitters(int k, int width) {
+        if (k <= 0 || width <= 0) {
+            throw new IllegalArgumentException("k and width must be positive");
+        }
+        this.k = k;
+        this.candidateLimit = 4 * k;
+        this.width = width;
+        this.counts = new AtomicLongArray(DEPTH * width);
+    }
+
+    /**
+     * Counts one occurrence of the key
+     */
+    public void record(String key) {
+        long hash = hash(key);
+        long estimate = Long.MAX_VALUE;
+        for (int row = 0; row < DEPTH; row++) {
+            estimate = Math.min(estimate, counts.incrementAndGet(index(row, hash)));
+        }
+        recorded.increment();
+        if (estimate >= admissionThreshold && candidates.putIfAbsent(key, Boolean.TRUE) == null
+                && candidates.size() > 2 * candidateLimit) {
+            trim();
+        }
+    }
+
+    /**
+     * Returns the estimated count of the key, including the effect of decay
+     */
+    public long estimate(String key) {
+        long hash = hash(key);
+        long estimate = Long.MAX_VALUE;
+        for (int row = 0; row < DEPTH; row++) {
+            estimate = Math.min(estimate, counts.get(index(row, hash)));
+        }
+        return estimate;
+    }
+
+    /**
+     * Returns up to k keys with their estimated counts, most frequent first
+     */
+    public List<Map.Entry<String, Long>> top() {
+        return top(k);
+    }
+
+    public List<Map.Entry<String, Long>> top(int limit) {
+        List<Map.Entry<String, Long>> ranked = new ArrayList<>();
+        for (String key : candidates.keySet()) {
+            long estimate = estimate(key);
+            if (estimate > 0) {
+                ranked.add(Map.entry(key, estimate));
+            }
+        }
+        ranked.sort(Map.Entry.<String, Long>comparingByValue(Comparator.reverseOrder())
+                .thenComparing(Map.Entry.comparingByKey()));
+        return ranked.size() > limit ? new ArrayList<>(ranked.subList(0, limit)) : ranked;
+    }
+
+    /**
+     * Halves every count, ageing out keys that are no longer looked up
+     */
+    public void decay() {
+        for (int i = 0; i < counts.length(); i++) {
+            long current;
+            do {
+                current = counts.get(i);
+            } while (current != 0 && !counts.compareAndSet(i, current, current >>> 1));
+        }
+        trim();
+    }
+
+    /**
+     * Returns the number of keys recorded in total, ignoring decay
+     */
+    public long recordedCount() {
+        return recorded.sum();
+    }
+
+    /**
+     * Whether the key is currently a candidate for the top k
+     */
+    public boolean isTracked(String key) {
+        return candidates.containsKey(key);
+    }
+
+    public int candidateCount() {
+        return candidates.size();
+    }
+
+    private void trim() {
+        if (!trimming.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            // Keys that decayed to zero are already left out of the ranking
+            List<Map.Entry<String, Long>> ranked = top(Integer.MAX_VALUE);
+            Set<String> kept = new HashSet<>();
+            for (int i = 0; i < Math.min(candidateLimit, ranked.size()); i++) {
+                kept.add(ranked.get(i).getKey());
+            }
+            candidates.keySet().retainAll(kept);
+            admissionThreshold = ranked.size() >= candidateLimit ? ranked.get(candidateLimit - 1).getValue() : 0;
+        } finally {
+            trimming.set(false);
+        }
+    }
+
+    private int index(int row, long hash) {
+        long h = (hash ^ SEEDS[row]) * 0x9E3779B97F4A7C15L;
+        return row * width + (int) Math.floorMod(h ^ (h >>> 32), (long) width);
+    }
+
+    private static long hash(String key) {
+        long hash = 0xCBF29CE484222325L;
+        for (byte b : key.getBytes(StandardCharsets.UTF_8)) {
+            hash ^= b & 0xFF;
+            hash *= 0x100000001B3L;
+        }
+        return hash;
+    }
+}
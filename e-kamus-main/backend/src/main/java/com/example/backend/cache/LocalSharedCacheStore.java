@@ -0,0 +1,67 @@
+package com.example.backend.cache;
+
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-process {@link SharedCacheStore}. It stands in for Redis in tests and in
+ * single-instance setups that want to exercise the shared-tier code path; nothing is
+ * actually shared between processes.
+ */
+public class LocalSharedCacheStore implements SharedCacheStore {
+
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+
+    @Override
+    public String name() {
+        return "local";
+    }
+
+    @Override
+    public Mono<byte[]> get(String key) {
+        return Mono.fromSupplier(() -> {
+            Entry entry = entries.get(key);
+            if (entry == null) {
+                return null;
+            }
+            if (entry.expiresAt != 0 && System.currentTimeMillis() >= entry.expiresAt) {
+                entries.remove(key, entry);
+                return null;
+            }
+            return entry.value.clone();
+        });
+    }
+
+    @Override
+    public Mono<Void> put(String key, byte[] value, Duration ttl) {
+        return Mono.fromRunnable(() -> {
+            long expiresAt = ttl != null && !ttl.isZero() && !ttl.isNegative()
+                    ? System.currentTimeMillis() + ttl.toMillis()
+                    : 0;
+            entries.put(key, new Entry(value.clone(), expiresAt));
+        });
+    }
+
+    @Override
+    public Mono<Void> remove(String key) {
+        return Mono.fromRunnable(() -> entries.remove(key));
+    }
+
+    @Override
+    public Map<String, Object> statistics() {
+        return Map.of("size", entries.size());
+    }
+
+    private static final class Entry {
+        final byte[] value;
+        final long expiresAt;
+
+        Entry(byte[] value, long expiresAt) {
+            this.value = value;
+            this.expiresAt = expiresAt;
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package com.example.backend.cache;
+
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.lang.management.MemoryUsage;
+
+/**
+ * Reads heap occupancy as it stood after the most recent garbage collection.
+ * Post-GC usage only counts live objects, so it is a much better signal of real
+ * memory pressure than Runtime.freeMemory(), which also counts garbage.
+ */
+public final class MemoryPressure {
+
+    private MemoryPressure() {
+    }
+
+    /**
+     * Returns the highest used/max ratio across heap pools after the last GC, or the
+     * current overall heap ratio when no pool reports collection usage
+     */
+    public static double heapUsedAfterGc() {
+        double highest = -1;
+        for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+            if (pool.getType() != MemoryType.HEAP || !pool.isCollectionUsageThresholdSupported()) {
+                continue;
+            }
+            MemoryUsage usage = pool.getCollectionUsage();
+            if (usage == null || usage.getMax() <= 0) {
+                continue;
+            }
+            highest = Math.max(highest, (double) usage.getUsed() / usage.getMax());
+        }
+        if (highest >= 0) {
+            return highest;
+        }
+        Runtime runtime = Runtime.getRuntime();
+        return (double) (runtime.totalMemory() - runtime.freeMemory()) / runtime.maxMemory();
+    }
+
+    /**
+     * Returns the total number of collections run by all collectors so far
+     */
+    public static long collectionCount() {
+        long count = 0;
+        for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+            count += Math.max(gc.getCollectionCount(), 0);
+        }
+        return count;
+    }
+}
@@ -0,0 +1,156 @@
+package com.example.backend.cache;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.BiFunction;
+
+/**
+ * Collects items submitted within a short window into one batch per group, so one
+ * upstream call can serve several of them.
+ *
+ * - A group's first pending item opens a window; the batch is flushed when the window
+ *   ends or as soon as it holds {@code maxBatchSize} items, whichever comes first
+ * - An item submitted again while pending shares the pending result
+ * - The batch function returns a result per item; an item missing from its result,
+ *   or a failed batch, fails that item's caller
+ */
+public class MicroBatcher<T, R> {
+
+    private static final Logger logger = LoggerFactory.getLogger(MicroBatcher.class);
+
+    private final String name;
+    private final int maxBatchSize;
+    private final Duration window;
+    private final BiFunction<String, List<T>, Mono<Map<T, R>>> batchFunction;
+    private final ScheduledExecutorService timer;
+
+    private final Object lock = new Object();
+    private final Map<String, Map<T, Sinks.One<R>>> pending = new HashMap<>();
+
+    private final LongAdder batches = new LongAdder();
+    private final LongAdder items = new LongAdder();
+    private final LongAdder fullBatches = new LongAdder();
+
+    /**
+     * @param name          Thread and log name
+     * @param maxBatchSize  Items that flush a batch without waiting for the window
+     * @param window        How long the first item of a batch waits for others
+     * @param batchFunction Produces the results for a group's batch
+     */
+    public MicroBatcher(String name, int maxBatchSize, Duration window,
+            BiFunction<String, List<T>, Mono<Map<T, R>>> batchFunction) {
+        if (maxBatchSize < 1) {
+            throw new IllegalArgumentException("Batch size must be at least 1 for " + name);
+        }
+        this.name = name;
+        this.maxBatchSize = maxBatchSize;
+        this.window = window;
+        this.batchFunction = batchFunction;
+        this.timer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, name);
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Adds the item to the group's next batch and returns its result once that batch
+     * has run
+     */
+    public Mono<R> submit(String group, T item) {
+        return Mono.defer(() -> {
+            Sinks.One<R> sink;
+            Map<T, Sinks.One<R>> full = null;
+            synchronized (lock) {
+                Map<T, Sinks.One<R>> batch = pending.get(group);
+                if (batch == null) {
+                    batch = new LinkedHashMap<>();
+                    pending.put(group, batch);
+                    Map<T, Sinks.One<R>> opened = batch;
+                    timer.schedule(() -> flushIfPending(group, opened), window.toMillis(), TimeUnit.MILLISECONDS);
+                }
+                sink = batch.get(item);
+                if (sink == null) {
+                    sink = Sinks.one();
+                    batch.put(item, sink);
+                    if (batch.size() >= maxBatchSize) {
+                        pending.remove(group);
+                        fullBatches.increment();
+                        full = batch;
+                    }
+                }
+            }
+            if (full != null) {
+                run(group, full);
+            }
+            return sink.asMono();
+        });
+    }
+
+    public Map<String, Object> statistics() {
+        Map<String, Object> stats = new HashMap<>();
+        long batchCount = batches.sum();
+        long itemCount = items.sum();
+        stats.put("maxBatchSize", maxBatchSize);
+        stats.put("windowMs", window.toMillis());
+        stats.put("batches", batchCount);
+        stats.put("items", itemCount);
+        stats.put("fullBatches", fullBatches.sum());
+        stats.put("averageBatchSize", batchCount == 0 ? 0.0 : Math.round(itemCount * 100.0 / batchCount) / 100.0);
+        return stats;
+    }
+
+    public void shutdown() {
+        timer.shutdownNow();
+    }
+
+    private void flushIfPending(String group, Map<T, Sinks.One<R>> batch) {
+        synchronized (lock) {
+            // Already flushed because it filled up
+            if (!pending.remove(group, batch)) {
+                return;
+            }
+        }
+        run(group, batch);
+    }
+
+    private void run(String group, Map<T, Sinks.One<R>> batch) {
+        batches.increment();
+        items.add(batch.size());
+        List<T> batchItems = new ArrayList<>(batch.keySet());
+        Mono<Map<T, R>> results;
+        try {
+            results = batchFunction.apply(group, batchItems);
+        } catch (RuntimeException e) {
+            results = Mono.error(e);
+        }
+        results.subscribe(
+                values -> batch.forEach((item, sink) -> {
+                    R value = values.get(item);
+                    if (value != null) {
+                        sink.tryEmitValue(value);
+                    } else {
+                        sink.tryEmitError(new IllegalStateException(name + " batch returned no result for " + item));
+                    }
+                }),
+                error -> {
+                    logger.warn("{} batch of {} failed: {}", name, batch.size(), error.getMessage());
+                    batch.values().forEach(sink -> sink.tryEmitError(error));
+                },
+                () -> batch.values().forEach(sink -> sink.tryEmitError(
+                        new IllegalStateException(name + " batch completed without results"))));
+    }
+}
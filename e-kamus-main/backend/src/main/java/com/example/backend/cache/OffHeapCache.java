@@ -0,0 +1,160 @@
+package com.example.backend.cache;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * OffHeapCache keeps serialized values in a single direct buffer outside the Java heap,
+ * so it can hold far more entries than the heap could without adding GC work.
+ *
+ * The buffer is used as a ring: records are appended at the head, and when the head
+ * catches up with the oldest record that record is evicted (FIFO). Only the key index
+ * lives on the heap. Each record is laid out as key length, value length, key bytes,
+ * value bytes; a record never wraps around the end of the buffer.
+ */
+public class OffHeapCache {
+
+    private static final int HEADER_BYTES = 8;
+    // Written where the space left before the end of the buffer is too small for a record
+    private static final int WRAP_MARKER = -1;
+
+    private final ByteBuffer buffer;
+    private final int capacity;
+    private final Map<String, Long> index = new HashMap<>();
+
+    // Logical positions grow forever; the physical offset is position % capacity
+    private long head;
+    private long tail;
+
+    private long evictions;
+
+    public OffHeapCache(int capacityBytes) {
+        if (capacityBytes < 1024) {
+            throw new IllegalArgumentException("capacityBytes must be at least 1024");
+        }
+        this.capacity = capacityBytes;
+        this.buffer = ByteBuffer.allocateDirect(capacityBytes);
+    }
+
+    /**
+     * Returns a copy of the value, or null if it was never stored or has been evicted
+     */
+    public synchronized byte[] get(String key) {
+        Long position = index.get(key);
+        if (position == null) {
+            return null;
+        }
+        int offset = offset(position);
+        int keyLength = buffer.getInt(offset);
+        int valueLength = buffer.getInt(offset + 4);
+        byte[] value = new byte[valueLength];
+        buffer.get(offset + HEADER_BYTES + keyLength, value);
+        return value;
+    }
+
+    /**
+     * Stores the value, replacing any earlier one and evicting the oldest records as
+     * needed. Returns false if the record is too large to ever fit.
+     */
+    public synchronized boolean put(String key, byte[] value) {
+        byte[] keyBytes = key.getBytes(StandardCharsets.UTF_8);
+        int length = HEADER_BYTES + keyBytes.length + value.length;
+        if (length > capacity / 4) {
+            return false;
+        }
+        index.remove(key);
+
+        int remaining = capacity - offset(head);
+        if (remaining < length) {
+            // Skip the rest of the buffer so the record starts at offset 0
+            makeRoom(remaining);
+            if (remaining >= 4) {
+                buffer.putInt(offset(head), WRAP_MARKER);
+            }
+            head += remaining;
+        }
+        makeRoom(length);
+
+        int offset = offset(head);
+        buffer.putInt(offset, keyBytes.length);
+        buffer.putInt(offset + 4, value.length);
+        buffer.put(offset + HEADER_BYTES, keyBytes);
+        buffer.put(offset + HEADER_BYTES + keyBytes.length, value);
+        index.put(key, head);
+        head += length;
+        return true;
+    }
+
+    public synchronized boolean containsKey(String key) {
+        return index.containsKey(key);
+    }
+
+    /**
+     * Forgets the key; its bytes are reclaimed when the ring comes round to them
+     */
+    public synchronized void remove(String key) {
+        index.remove(key);
+    }
+
+    public synchronized void clear() {
+        index.clear();
+        head = 0;
+        tail = 0;
+    }
+
+    public synchronized int size() {
+        return index.size();
+    }
+
+    /**
+     * Returns the bytes between the oldest record and the head, including superseded
+     * records not yet overwritten
+     */
+    public synchronized long usedBytes() {
+        return head - tail;
+    }
+
+    public int capacityBytes() {
+        return capacity;
+    }
+
+    public synchronized Set<String> keys() {
+        return new HashSet<>(index.keySet());
+    }
+
+    /**
+     * Returns the number of live entries overwritten to make room for newer ones
+     */
+    public synchronized long evictionCount() {
+        return evictions;
+    }
+
+    private void makeRoom(int length) {
+        while (head + length - tail > capacity) {
+            int offset = offset(tail);
+            int remaining = capacity - offset;
+            if (remaining < HEADER_BYTES || buffer.getInt(offset) == WRAP_MARKER) {
+                tail += remaining;
+                continue;
+            }
+            int keyLength = buffer.getInt(offset);
+            int valueLength = buffer.getInt(offset + 4);
+            byte[] keyBytes = new byte[keyLength];
+            buffer.get(offset + HEADER_BYTES, keyBytes);
+            String key = new String(keyBytes, StandardCharsets.UTF_8);
+            // Only drop the index entry if it still points at this record
+            if (index.remove(key, tail)) {
+                evictions++;
+            }
+            tail += HEADER_BYTES + keyLength + valueLength;
+        }
+    }
+
+    private int offset(long position) {
+        return (int) (position % capacity);
+    }
+}
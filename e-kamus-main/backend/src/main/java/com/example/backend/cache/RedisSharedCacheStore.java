@@ -0,0 +1,287 @@
+package com.example.backend.cache;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * {@link SharedCacheStore} backed by any server speaking the Redis protocol (RESP2):
+ * Redis, Valkey, KeyDB, Dragonfly and the like.
+ *
+ * Only GET, SET with PX, DEL, AUTH and SELECT are needed, so this talks the protocol
+ * over plain sockets instead of pulling in a client library. Connections are pooled;
+ * the blocking socket calls run on the bounded-elastic scheduler so callers are never
+ * blocked. A connection that fails is discarded rather than returned to the pool.
+ */
+public class RedisSharedCacheStore implements SharedCacheStore {
+
+    private static final Logger logger = LoggerFactory.getLogger(RedisSharedCacheStore.class);
+    private static final byte[] CRLF = { '\r', '\n' };
+
+    private final String host;
+    private final int port;
+    private final String password;
+    private final int database;
+    private final int timeoutMillis;
+    private final int poolSize;
+    private final BlockingQueue<Connection> idle;
+    private final AtomicInteger open = new AtomicInteger();
+    private final Scheduler scheduler = Schedulers.boundedElastic();
+    private volatile boolean closed;
+
+    public RedisSharedCacheStore(String host, int port, String password, int database, int poolSize,
+            Duration timeout) {
+        this.host = host;
+        this.port = port;
+        this.password = password != null && !password.isEmpty() ? password : null;
+        this.database = database;
+        this.poolSize = Math.max(1, poolSize);
+        this.timeoutMillis = (int) Math.max(1, timeout.toMillis());
+        this.idle = new ArrayBlockingQueue<>(this.poolSize);
+    }
+
+    @Override
+    public String name() {
+        return "redis";
+    }
+
+    @Override
+    public Mono<byte[]> get(String key) {
+        return call(connection -> {
+            Object reply = connection.execute(bytes("GET"), bytes(key));
+            return reply instanceof byte[] ? (byte[]) reply : null;
+        });
+    }
+
+    @Override
+    public Mono<Void> put(String key, byte[] value, Duration ttl) {
+        return call(connection -> {
+            if (ttl != null && !ttl.isZero() && !ttl.isNegative()) {
+                connection.execute(bytes("SET"), bytes(key), value, bytes("PX"), bytes(Long.toString(ttl.toMillis())));
+            } else {
+                connection.execute(bytes("SET"), bytes(key), value);
+            }
+            return null;
+        }).then();
+    }
+
+    @Override
+    public Mono<Void> remove(String key) {
+        return call(connection -> connection.execute(bytes("DEL"), bytes(key))).then();
+    }
+
+    @Override
+    public Map<String, Object> statistics() {
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("address", host + ":" + port);
+        stats.put("openConnections", open.get());
+        stats.put("idleConnections", idle.size());
+        return stats;
+    }
+
+    @Override
+    public void close() {
+        closed = true;
+        Connection connection;
+        while ((connection = idle.poll()) != null) {
+            connection.close();
+        }
+    }
+
+    private <T> Mono<T> call(Command<T> command) {
+        return Mono.fromCallable((Callable<T>) () -> {
+            Connection connection = borrow();
+            boolean healthy = false;
+            try {
+                T result = command.run(connection);
+                healthy = true;
+                return result;
+            } finally {
+                release(connection, healthy);
+            }
+        }).subscribeOn(scheduler);
+    }
+
+    private Connection borrow() throws IOException, InterruptedException {
+        if (closed) {
+            throw new IOException("Redis store is closed");
+        }
+        Connection connection = idle.poll();
+        if (connection != null) {
+            return connection;
+        }
+        if (open.incrementAndGet() <= poolSize) {
+            try {
+                return connect();
+            } catch (IOException | RuntimeException e) {
+                open.decrementAndGet();
+                throw e;
+            }
+        }
+        open.decrementAndGet();
+        connection = idle.poll(timeoutMillis, TimeUnit.MILLISECONDS);
+        if (connection == null) {
+            throw new IOException("No Redis connection available within " + timeoutMillis + "ms");
+        }
+        return connection;
+    }
+
+    private void release(Connection connection, boolean healthy) {
+        if (healthy && !closed && idle.offer(connection)) {
+            return;
+        }
+        connection.close();
+        open.decrementAndGet();
+    }
+
+    private Connection connect() throws IOException {
+        Socket socket = new Socket();
+        try {
+            socket.connect(new InetSocketAddress(host, port), timeoutMillis);
+            socket.setSoTimeout(timeoutMillis);
+            socket.setTcpNoDelay(true);
+            Connection connection = new Connection(socket);
+            if (password != null) {
+                connection.execute(bytes("AUTH"), bytes(password));
+            }
+            if (database != 0) {
+                connection.execute(bytes("SELECT"), bytes(Integer.toString(database)));
+            }
+            logger.debug("Opened Redis connection to {}:{}", host, port);
+            return connection;
+        } catch (IOException | RuntimeException e) {
+            socket.close();
+            throw e;
+        }
+    }
+
+    private static byte[] bytes(String s) {
+        return s.getBytes(StandardCharsets.UTF_8);
+    }
+
+    @FunctionalInterface
+    private interface Command<T> {
+        T run(Connection connection) throws IOException;
+    }
+
+    /**
+     * One RESP2 connection. Not thread-safe; the pool hands it to one caller at a time.
+     */
+    static final class Connection implements Closeable {
+
+        private final Socket socket;
+        private final InputStream in;
+        private final OutputStream out;
+
+        Connection(Socket socket) throws IOException {
+            this.socket = socket;
+            this.in = new BufferedInputStream(socket.getInputStream());
+            this.out = new BufferedOutputStream(socket.getOutputStream());
+        }
+
+        /**
+         * Sends one command and returns its reply: byte[] for bulk strings, String for
+         * status replies, Long for integers, Object[] for arrays and null for nil
+         *
+         * @throws IOException if the server replies with an error or the socket fails
+         */
+        Object execute(byte[]... arguments) throws IOException {
+            out.write('*');
+            out.write(bytes(Integer.toString(arguments.length)));
+            out.write(CRLF);
+            for (byte[] argument : arguments) {
+                out.write('$');
+                out.write(bytes(Integer.toString(argument.length)));
+                out.write(CRLF);
+                out.write(argument);
+                out.write(CRLF);
+            }
+            out.flush();
+            return readReply();
+        }
+
+        private Object readReply() throws IOException {
+            int type = in.read();
+            switch (type) {
+                case '+':
+                    return readLine();
+                case '-':
+                    throw new IOException("Redis error: " + readLine());
+                case ':':
+                    return Long.parseLong(readLine());
+                case '$': {
+                    int length = Integer.parseInt(readLine());
+                    if (length < 0) {
+                        return null;
+                    }
+                    byte[] value = in.readNBytes(length);
+                    if (value.length < length || in.read() != '\r' || in.read() != '\n') {
+                        throw new EOFException("Truncated Redis bulk reply");
+                    }
+                    return value;
+                }
+                case '*': {
+                    int count = Integer.parseInt(readLine());
+                    if (count < 0) {
+                        return null;
+                    }
+                    Object[] items = new Object[count];
+                    for (int i = 0; i < count; i++) {
+                        items[i] = readReply();
+                    }
+                    return items;
+                }
+                case -1:
+                    throw new EOFException("Redis closed the connection");
+                default:
+                    throw new IOException("Unexpected Redis reply type: " + (char) type);
+            }
+        }
+
+        private String readLine() throws IOException {
+            ByteArrayOutputStream line = new ByteArrayOutputStream(16);
+            int c;
+            while ((c = in.read()) != '\r') {
+                if (c == -1) {
+                    throw new EOFException("Redis closed the connection");
+                }
+                line.write(c);
+            }
+            if (in.read() != '\n') {
+                throw new IOException("Malformed Redis reply line");
+            }
+            return line.toString(StandardCharsets.UTF_8);
+        }
+
+        @Override
+        public void close() {
+            try {
+                socket.close();
+            } catch (IOException e) {
+                logger.debug("Error closing Redis connection: {}", e.getMessage());
+            }
+        }
+    }
+}
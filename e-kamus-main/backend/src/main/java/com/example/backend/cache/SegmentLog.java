@@ -0,0 +1,499 @@
+package com.example.backend.cache;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+/**
+ * An append-only key/value log stored in fixed-size, memory-mapped segment files.
+ *
+ * Every record carries a CRC32, so after a crash the log is replayed up to the last
+ * intact record and any torn tail is discarded. An in-memory index maps each key to
+ * the location of its newest record; reads copy straight out of the mapped segment
+ * without a lock.
+ *
+ * Superseded records are reclaimed by {@link #compact(double)}, which rewrites the
+ * live records of all sealed segments into a single file and swaps it in with an
+ * atomic rename. The compacted file holds no tombstones, so the segments it replaces
+ * must not outlive it: a marker listing them is written before the rename, and
+ * recovery finishes deleting them if the process stopped in between.
+ *
+ * Record layout: magic, crc, keyLength, valueLength (-1 for a tombstone), key, value.
+ */
+public class SegmentLog implements Closeable {
+
+    private static final Logger logger = LoggerFactory.getLogger(SegmentLog.class);
+
+    private static final int MAGIC = 0x4B414D55; // "KAMU"
+    private static final int HEADER_BYTES = 16;
+    private static final int TOMBSTONE = -1;
+    private static final String SEGMENT_SUFFIX = ".seg";
+    private static final String COMPACT_SUFFIX = ".seg.compact";
+    // Lists the segments a compaction replaces while they are being deleted
+    static final String COMPACTION_MARKER = "compaction.pending";
+
+    private final Path directory;
+    private final int segmentBytes;
+    private final Map<String, Location> index = new ConcurrentHashMap<>();
+    // Sorted by id; the last segment is the active one. Guarded by this.
+    private final List<Segment> segments = new ArrayList<>();
+    private volatile Segment active;
+
+    private SegmentLog(Path directory, int segmentBytes) {
+        this.directory = directory;
+        this.segmentBytes = segmentBytes;
+    }
+
+    /**
+     * Opens the log in the given directory, replaying all segments to rebuild the index
+     *
+     * @param directory    Data directory, created if missing
+     * @param segmentBytes Size of each segment file; larger values are rejected on put
+     */
+    public static SegmentLog open(Path directory, int segmentBytes) throws IOException {
+        Files.createDirectories(directory);
+        SegmentLog log = new SegmentLog(directory, segmentBytes);
+        log.recover();
+        return log;
+    }
+
+    /**
+     * Returns a copy of the newest value for the key, or null if absent
+     */
+    public byte[] get(String key) {
+        Location location = index.get(key);
+        if (location == null) {
+            return null;
+        }
+        byte[] value = new byte[location.valueLength];
+        location.segment.buffer.get(location.valueOffset, value);
+        return value;
+    }
+
+    public boolean contains(String key) {
+        return index.containsKey(key);
+    }
+
+    public synchronized void put(String key, byte[] value) throws IOException {
+        byte[] keyBytes = key.getBytes(StandardCharsets.UTF_8);
+        int recordLength = HEADER_BYTES + keyBytes.length + value.length;
+        if (recordLength > segmentBytes) {
+            throw new IOException("Record of " + recordLength + " bytes exceeds segment size " + segmentBytes);
+        }
+        Segment segment = segmentWithRoom(recordLength);
+        int offset = segment.append(keyBytes, value);
+        Location location = new Location(segment, offset + HEADER_BYTES + keyBytes.length, value.length,
+                recordLength);
+        segment.liveBytes.addAndGet(recordLength);
+        release(index.put(key, location));
+    }
+
+    public synchronized void remove(String key) throws IOException {
+        Location previous = index.remove(key);
+        if (previous == null) {
+            return;
+        }
+        release(previous);
+        byte[] keyBytes = key.getBytes(StandardCharsets.UTF_8);
+        segmentWithRoom(HEADER_BYTES + keyBytes.length).append(keyBytes, null);
+    }
+
+    /**
+     * Deletes every segment and starts again with an empty log
+     */
+    public synchronized void clear() throws IOException {
+        index.clear();
+        for (Segment segment : segments) {
+            segment.close();
+            deleteQuietly(segment.path);
+        }
+        segments.clear();
+        // Segment ids start again at 1, so an old marker must not name any of them
+        deleteQuietly(directory.resolve(COMPACTION_MARKER));
+        active = createSegment(1);
+    }
+
+    public int size() {
+        return index.size();
+    }
+
+    public Set<String> keys() {
+        return index.keySet();
+    }
+
+    /**
+     * Returns the bytes of all records on disk, including superseded ones
+     */
+    public synchronized long totalBytes() {
+        long total = 0;
+        for (Segment segment : segments) {
+            total += segment.writePosition;
+        }
+        return total;
+    }
+
+    /**
+     * Returns the bytes of the records the index still points to
+     */
+    public synchronized long liveBytes() {
+        long live = 0;
+        for (Segment segment : segments) {
+            live += segment.liveBytes.get();
+        }
+        return live;
+    }
+
+    public synchronized int segmentCount() {
+        return segments.size();
+    }
+
+    /**
+     * Flushes written records to the storage device
+     */
+    public synchronized void force() {
+        for (Segment segment : segments) {
+            segment.buffer.force();
+        }
+    }
+
+    /**
+     * Rewrites the live records of all sealed segments into one segment when at
+     * least the given fraction of their bytes is garbage
+     *
+     * @param minGarbageRatio Garbage ratio (0..1) below which compaction is skipped
+     * @return true if segments were compacted
+     */
+    public synchronized boolean compact(double minGarbageRatio) throws IOException {
+        List<Segment> sealed = new ArrayList<>(segments.subList(0, segments.size() - 1));
+        if (sealed.isEmpty()) {
+            return false;
+        }
+        long total = 0;
+        long live = 0;
+        for (Segment segment : sealed) {
+            total += segment.writePosition;
+            live += segment.liveBytes.get();
+        }
+        if (total == 0 || (double) (total - live) / total < minGarbageRatio) {
+            return false;
+        }
+
+        // Reuse the newest sealed id so the compacted records still replay before
+        // anything written to the active segment
+        long targetId = sealed.get(sealed.size() - 1).id;
+        Path targetPath = segmentPath(targetId);
+        Path tempPath = directory.resolve(String.format("%010d%s", targetId, COMPACT_SUFFIX));
+        Set<Segment> sealedSet = Set.copyOf(sealed);
+
+        List<Path> replaced = new ArrayList<>();
+        for (Segment segment : sealed) {
+            if (segment.id != targetId || live == 0) {
+                replaced.add(segment.path);
+            }
+        }
+
+        Segment compacted = null;
+        Map<String, Location> relocated = new HashMap<>();
+        if (live > 0) {
+            Segment temp = Segment.create(targetId, tempPath, (int) live);
+            for (Map.Entry<String, Location> entry : index.entrySet()) {
+                Location location = entry.getValue();
+                if (!sealedSet.contains(location.segment)) {
+                    continue;
+                }
+                byte[] keyBytes = entry.getKey().getBytes(StandardCharsets.UTF_8);
+                int offset = temp.append(keyBytes, get(entry.getKey()));
+                relocated.put(entry.getKey(), new Location(null, offset + HEADER_BYTES + keyBytes.length,
+                        location.valueLength, location.recordLength));
+            }
+            temp.buffer.force();
+            temp.close();
+        }
+        // From here on the replaced segments must go: the compacted file dropped their
+        // tombstones, so replaying an old record next to it would bring back removed keys
+        Path marker = writeCompactionMarker(replaced);
+        if (live > 0) {
+            Files.move(tempPath, targetPath, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            compacted = Segment.open(targetId, targetPath);
+            compacted.writePosition = (int) live;
+        }
+
+        for (Map.Entry<String, Location> entry : relocated.entrySet()) {
+            Location moved = entry.getValue();
+            Location location = new Location(compacted, moved.valueOffset, moved.valueLength, moved.recordLength);
+            compacted.liveBytes.addAndGet(location.recordLength);
+            index.put(entry.getKey(), location);
+        }
+        for (Segment segment : sealed) {
+            segment.close();
+        }
+        boolean deleted = true;
+        for (Path path : replaced) {
+            deleted &= deleteQuietly(path);
+        }
+        if (deleted) {
+            // Otherwise the marker stays, and the next recovery retries the deletes
+            deleteQuietly(marker);
+        }
+        segments.removeAll(sealed);
+        if (compacted != null) {
+            segments.add(0, compacted);
+        }
+        logger.info("Compacted {} segments: {} -> {} bytes", sealed.size(), total, live);
+        return true;
+    }
+
+    @Override
+    public synchronized void close() {
+        for (Segment segment : segments) {
+            segment.buffer.force();
+            segment.close();
+        }
+    }
+
+    private void recover() throws IOException {
+        finishCompaction();
+        List<Path> paths;
+        try (Stream<Path> files = Files.list(directory)) {
+            paths = files.sorted().toList();
+        }
+        for (Path path : paths) {
+            String name = path.getFileName().toString();
+            if (name.endsWith(COMPACT_SUFFIX)) {
+                // A compaction that never reached its rename; the inputs are still intact
+                deleteQuietly(path);
+            } else if (name.endsWith(SEGMENT_SUFFIX)) {
+                long id = Long.parseLong(name.substring(0, name.length() - SEGMENT_SUFFIX.length()));
+                Segment segment = Segment.open(id, path);
+                replay(segment);
+                segments.add(segment);
+            }
+        }
+        if (segments.isEmpty()) {
+            active = createSegment(1);
+        } else {
+            Segment last = segments.get(segments.size() - 1);
+            if (last.capacity() < segmentBytes) {
+                // Compacted segments are sized exactly; never append to one
+                active = createSegment(last.id + 1);
+            } else {
+                active = last;
+                active.clearTail();
+            }
+        }
+        logger.info("Recovered segment log at {}: {} keys in {} segments", directory, index.size(),
+                segments.size());
+    }
+
+    private Path writeCompactionMarker(List<Path> replaced) throws IOException {
+        Path marker = directory.resolve(COMPACTION_MARKER);
+        Path temp = directory.resolve(COMPACTION_MARKER + ".tmp");
+        List<String> names = replaced.stream().map(path -> path.getFileName().toString()).toList();
+        Files.write(temp, names, StandardCharsets.UTF_8, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE, StandardOpenOption.SYNC);
+        Files.move(temp, marker, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        return marker;
+    }
+
+    /**
+     * Completes a compaction that was interrupted after its marker was written. If the
+     * compacted file was never renamed into place, the replaced segments are still the
+     * only copy of their records and are kept.
+     */
+    private void finishCompaction() throws IOException {
+        Path marker = directory.resolve(COMPACTION_MARKER);
+        deleteQuietly(directory.resolve(COMPACTION_MARKER + ".tmp"));
+        if (!Files.exists(marker)) {
+            return;
+        }
+        boolean renamed;
+        try (Stream<Path> files = Files.list(directory)) {
+            renamed = files.noneMatch(path -> path.getFileName().toString().endsWith(COMPACT_SUFFIX));
+        }
+        if (renamed) {
+            for (String name : Files.readAllLines(marker, StandardCharsets.UTF_8)) {
+                if (!name.isBlank()) {
+                    logger.info("Deleting segment {} left by an interrupted compaction", name);
+                    Files.deleteIfExists(directory.resolve(name.trim()));
+                }
+            }
+        }
+        Files.delete(marker);
+    }
+
+    private void replay(Segment segment) {
+        ByteBuffer buffer = segment.buffer;
+        int position = 0;
+        int capacity = segment.capacity();
+        while (position + HEADER_BYTES <= capacity) {
+            if (buffer.getInt(position) != MAGIC) {
+                break;
+            }
+            int crc = buffer.getInt(position + 4);
+            int keyLength = buffer.getInt(position + 8);
+            int valueLength = buffer.getInt(position + 12);
+            int payload = keyLength + Math.max(valueLength, 0);
+            if (keyLength < 0 || valueLength < TOMBSTONE || payload > capacity - position - HEADER_BYTES
+                    || crc != checksum(buffer, position + 8, 8 + payload)) {
+                logger.warn("Discarding torn record at {}:{}", segment.path.getFileName(), position);
+                break;
+            }
+            byte[] keyBytes = new byte[keyLength];
+            buffer.get(position + HEADER_BYTES, keyBytes);
+            String key = new String(keyBytes, StandardCharsets.UTF_8);
+            int recordLength = HEADER_BYTES + payload;
+            if (valueLength == TOMBSTONE) {
+                release(index.remove(key));
+            } else {
+                segment.liveBytes.addAndGet(recordLength);
+                release(index.put(key, new Location(segment, position + HEADER_BYTES + keyLength, valueLength,
+                        recordLength)));
+            }
+            position += recordLength;
+        }
+        segment.writePosition = position;
+    }
+
+    private Segment segmentWithRoom(int recordLength) throws IOException {
+        if (active.writePosition + recordLength > active.capacity()) {
+            active = createSegment(active.id + 1);
+        }
+        return active;
+    }
+
+    private Segment createSegment(long id) throws IOException {
+        Segment segment = Segment.create(id, segmentPath(id), segmentBytes);
+        segments.add(segment);
+        return segment;
+    }
+
+    private Path segmentPath(long id) {
+        return directory.resolve(String.format("%010d%s", id, SEGMENT_SUFFIX));
+    }
+
+    private static void release(Location previous) {
+        if (previous != null && previous.segment != null) {
+            previous.segment.liveBytes.addAndGet(-previous.recordLength);
+        }
+    }
+
+    private static int checksum(ByteBuffer buffer, int offset, int length) {
+        CRC32 crc = new CRC32();
+        crc.update(buffer.slice(offset, length));
+        return (int) crc.getValue();
+    }
+
+    private static boolean deleteQuietly(Path path) {
+        try {
+            Files.deleteIfExists(path);
+            return true;
+        } catch (IOException e) {
+            logger.warn("Could not delete {}: {}", path, e.getMessage());
+            path.toFile().deleteOnExit();
+            return false;
+        }
+    }
+
+    private static final class Location {
+        final Segment segment;
+        final int valueOffset;
+        final int valueLength;
+        final int recordLength;
+
+        Location(Segment segment, int valueOffset, int valueLength, int recordLength) {
+            this.segment = segment;
+            this.valueOffset = valueOffset;
+            this.valueLength = valueLength;
+            this.recordLength = recordLength;
+        }
+    }
+
+    private static final class Segment {
+        final long id;
+        final Path path;
+        final FileChannel channel;
+        final MappedByteBuffer buffer;
+        final AtomicLong liveBytes = new AtomicLong();
+        volatile int writePosition;
+
+        private Segment(long id, Path path, FileChannel channel, MappedByteBuffer buffer) {
+            this.id = id;
+            this.path = path;
+            this.channel = channel;
+            this.buffer = buffer;
+        }
+
+        static Segment create(long id, Path path, int size) throws IOException {
+            FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE_NEW, StandardOpenOption.READ,
+                    StandardOpenOption.WRITE);
+            return new Segment(id, path, channel, channel.map(FileChannel.MapMode.READ_WRITE, 0, size));
+        }
+
+        static Segment open(long id, Path path) throws IOException {
+            FileChannel channel = FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            return new Segment(id, path, channel, channel.map(FileChannel.MapMode.READ_WRITE, 0, channel.size()));
+        }
+
+        int capacity() {
+            return buffer.capacity();
+        }
+
+        /**
+         * Writes one record at the end of the segment and returns its offset
+         */
+        int append(byte[] key, byte[] value) {
+            int offset = writePosition;
+            int valueLength = value == null ? TOMBSTONE : value.length;
+            buffer.putInt(offset + 8, key.length);
+            buffer.putInt(offset + 12, valueLength);
+            buffer.put(offset + HEADER_BYTES, key);
+            if (value != null) {
+                buffer.put(offset + HEADER_BYTES + key.length, value);
+            }
+            int payload = key.length + (value == null ? 0 : value.length);
+            buffer.putInt(offset + 4, checksum(buffer, offset + 8, 8 + payload));
+            // The magic goes in last so a half-written record is never mistaken for a
+            // complete one
+            buffer.putInt(offset, MAGIC);
+            writePosition = offset + HEADER_BYTES + payload;
+            return offset;
+        }
+
+        /**
+         * Zeroes the header after the last intact record so stale bytes from a torn
+         * write cannot be replayed later
+         */
+        void clearTail() {
+            if (writePosition + HEADER_BYTES <= capacity()) {
+                buffer.putInt(writePosition, 0);
+            }
+        }
+
+        void close() {
+            try {
+                channel.close();
+            } catch (IOException e) {
+                logger.warn("Could not close segment {}: {}", path, e.getMessage());
+            }
+        }
+    }
+}
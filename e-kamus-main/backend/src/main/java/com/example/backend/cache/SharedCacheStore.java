@@ -0,0 +1,70 @@
+package com.example.backend.cache;
+
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.Map;
+
+/**
+ * A cache tier shared by every backend instance, such as Redis, sitting between each
+ * instance's local caches and the upstream services. Values are opaque bytes; callers
+ * choose the encoding.
+ *
+ * Implementations must not block the calling thread. Errors are reported through the
+ * returned Mono; {@link SharedCacheTier} decides how to degrade when the store is
+ * unreachable.
+ */
+public interface SharedCacheStore {
+
+    /**
+     * A store that holds nothing, used when no shared tier is configured
+     */
+    SharedCacheStore NONE = new SharedCacheStore() {
+        @Override
+        public String name() {
+            return "none";
+        }
+
+        @Override
+        public Mono<byte[]> get(String key) {
+            return Mono.empty();
+        }
+
+        @Override
+        public Mono<Void> put(String key, byte[] value, Duration ttl) {
+            return Mono.empty();
+        }
+
+        @Override
+        public Mono<Void> remove(String key) {
+            return Mono.empty();
+        }
+    };
+
+    String name();
+
+    /**
+     * Emits the value, or completes empty if the key is absent or expired
+     */
+    Mono<byte[]> get(String key);
+
+    /**
+     * Stores the value; a null or non-positive ttl means no expiry
+     */
+    Mono<Void> put(String key, byte[] value, Duration ttl);
+
+    Mono<Void> remove(String key);
+
+    /**
+     * Releases connections or other resources held by the store
+     */
+    default void close() {
+    }
+
+    /**
+     * Returns implementation-specific details for the stats endpoint
+     */
+    default Map<String, Object> statistics() {
+        return Map.of();
+    }
+}
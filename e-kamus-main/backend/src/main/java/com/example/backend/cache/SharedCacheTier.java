@@ -0,0 +1,150 @@
+package com.example.backend.cache;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Fronts the configured {@link SharedCacheStore} for the services, making it safe to
+ * put on the request path:
+ * - reads are bounded by a timeout and any failure is treated as a miss
+ * - writes are fire-and-forget, and dropped once too many are outstanding
+ * - after a failure the tier is skipped for a back-off period, so an unreachable
+ *   server costs one timeout per period instead of one per request
+ *
+ * Keys are namespaced as prefix + namespace + ":" + key, so several applications or
+ * caches can share one server.
+ */
+@Component
+public class SharedCacheTier {
+
+    private static final Logger logger = LoggerFactory.getLogger(SharedCacheTier.class);
+    private static final int MAX_PENDING_WRITES = 1000;
+
+    private final SharedCacheStore store;
+    private final String keyPrefix;
+    private final Duration timeout;
+    private final long failureBackoffMillis;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder errors = new LongAdder();
+    private final LongAdder writes = new LongAdder();
+    private final LongAdder droppedWrites = new LongAdder();
+    private final AtomicInteger pendingWrites = new AtomicInteger();
+    private volatile long unavailableUntil;
+
+    public SharedCacheTier(SharedCacheStore store,
+            @Value("${app.shared-cache.key-prefix:ekamus:}") String keyPrefix,
+            @Value("${app.shared-cache.timeout-ms:250}") long timeoutMillis,
+            @Value("${app.shared-cache.failure-backoff-seconds:30}") long failureBackoffSeconds) {
+        this.store = store;
+        this.keyPrefix = keyPrefix;
+        this.timeout = Duration.ofMillis(Math.max(1, timeoutMillis));
+        this.failureBackoffMillis = Duration.ofSeconds(Math.max(0, failureBackoffSeconds)).toMillis();
+        logger.info("Shared cache tier: {}", store.name());
+    }
+
+    public boolean isEnabled() {
+        return store != SharedCacheStore.NONE;
+    }
+
+    /**
+     * Emits the shared value, or completes empty on a miss, timeout or error
+     */
+    public Mono<byte[]> get(String namespace, String key) {
+        if (!isAvailable()) {
+            return Mono.empty();
+        }
+        return store.get(qualify(namespace, key))
+                .timeout(timeout)
+                .doOnNext(value -> hits.increment())
+                .switchIfEmpty(Mono.fromRunnable(misses::increment))
+                .onErrorResume(e -> {
+                    recordFailure("read", key, e);
+                    return Mono.empty();
+                });
+    }
+
+    /**
+     * Writes the value in the background; the caller never waits for the shared tier
+     */
+    public void putAsync(String namespace, String key, byte[] value, Duration ttl) {
+        if (!isAvailable()) {
+            return;
+        }
+        if (pendingWrites.incrementAndGet() > MAX_PENDING_WRITES) {
+            pendingWrites.decrementAndGet();
+            droppedWrites.increment();
+            return;
+        }
+        store.put(qualify(namespace, key), value, ttl)
+                .timeout(timeout)
+                .doFinally(signal -> pendingWrites.decrementAndGet())
+                .subscribe(
+                        ignored -> {
+                        },
+                        e -> recordFailure("write", key, e),
+                        writes::increment);
+    }
+
+    /**
+     * Removes the value in the background
+     */
+    public void removeAsync(String namespace, String key) {
+        if (!isAvailable()) {
+            return;
+        }
+        store.remove(qualify(namespace, key))
+                .timeout(timeout)
+                .subscribe(ignored -> {
+                }, e -> recordFailure("remove", key, e));
+    }
+
+    /**
+     * Returns hit/miss/error counts and the store's own details for the stats endpoint
+     */
+    public Map<String, Object> statistics() {
+        Map<String, Object> stats = new HashMap<>();
+        long hitCount = hits.sum();
+        long missCount = misses.sum();
+        stats.put("type", store.name());
+        stats.put("enabled", isEnabled());
+        stats.put("available", isAvailable());
+        stats.put("hits", hitCount);
+        stats.put("misses", missCount);
+        stats.put("hitRatio", hitCount + missCount == 0 ? 0.0 : (double) hitCount / (hitCount + missCount));
+        stats.put("errors", errors.sum());
+        stats.put("writes", writes.sum());
+        stats.put("droppedWrites", droppedWrites.sum());
+        stats.put("pendingWrites", pendingWrites.get());
+        stats.putAll(store.statistics());
+        return stats;
+    }
+
+    private boolean isAvailable() {
+        return isEnabled() && System.currentTimeMillis() >= unavailableUntil;
+    }
+
+    private String qualify(String namespace, String key) {
+        return keyPrefix + namespace + ":" + key;
+    }
+
+    private void recordFailure(String operation, String key, Throwable e) {
+        errors.increment();
+        boolean wasAvailable = System.currentTimeMillis() >= unavailableUntil;
+        unavailableUntil = System.currentTimeMillis() + failureBackoffMillis;
+        if (wasAvailable) {
+            logger.warn("Shared cache {} of '{}' failed, skipping the shared tier for {}s: {}", operation, key,
+                    failureBackoffMillis / 1000, e.toString());
+        }
+    }
+}
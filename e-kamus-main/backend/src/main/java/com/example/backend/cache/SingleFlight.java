@@ -0,0 +1,80 @@
+package com.example.backend.cache;
+
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Coalesces concurrent loads of the same key onto one upstream call.
+ *
+ * The first caller for a key starts the load; callers arriving while it is still
+ * running join it and receive the same value or error. Semantics:
+ * - The upstream call is subscribed independently of any caller, so a caller that
+ *   cancels (e.g. a browser closing the connection) only detaches itself. The call
+ *   runs to completion for the remaining callers, and its result can still be
+ *   cached by the loader.
+ * - Errors are delivered to every waiting caller and are not remembered: the key is
+ *   released as soon as the call terminates, so the next caller retries.
+ */
+public class SingleFlight<K, V> {
+
+    private final Map<K, Sinks.One<V>> inFlight = new ConcurrentHashMap<>();
+    private final LongAdder started = new LongAdder();
+    private final LongAdder joined = new LongAdder();
+
+    /**
+     * Returns the result of the in-flight load for the key, starting one with the
+     * loader if none is running
+     */
+    public Mono<V> execute(K key, Supplier<Mono<V>> loader) {
+        return Mono.defer(() -> {
+            Sinks.One<V> sink = Sinks.one();
+            Sinks.One<V> existing = inFlight.putIfAbsent(key, sink);
+            if (existing != null) {
+                joined.increment();
+                return existing.asMono();
+            }
+            started.increment();
+
+            Mono<V> source;
+            try {
+                source = loader.get();
+            } catch (RuntimeException e) {
+                inFlight.remove(key, sink);
+                return Mono.error(e);
+            }
+            source.doFinally(signal -> inFlight.remove(key, sink))
+                    .subscribe(sink::tryEmitValue, sink::tryEmitError, sink::tryEmitEmpty);
+            return sink.asMono();
+        });
+    }
+
+    /**
+     * Returns true if a load for the key is currently running
+     */
+    public boolean isInFlight(K key) {
+        return inFlight.containsKey(key);
+    }
+
+    public int inFlightCount() {
+        return inFlight.size();
+    }
+
+    /**
+     * Returns how many upstream loads have been started
+     */
+    public long startedCount() {
+        return started.sum();
+    }
+
+    /**
+     * Returns how many callers were served by joining a load already in flight
+     */
+    public long joinedCount() {
+        return joined.sum();
+    }
+}
@@ -0,0 +1,283 @@
+package com.example.backend.cluster;
+
+import com.example.backend.limit.LimitExceededException;
+import com.example.backend.model.AiResponse;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import org.springframework.web.util.UriComponentsBuilder;
+import reactor.core.publisher.Mono;
+
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * ClusterRouter gives every AI cache key one owner instance when several backends run
+ * side by side, so each word is generated and cached once cluster-wide instead of once
+ * per replica.
+ *
+ * Owners are chosen by a {@link ConsistentHashRing} over the live members of
+ * app.cluster.peers. Peers are pinged every app.cluster.health-interval-seconds; one
+ * that stops answering, or fails a forwarded request, leaves the ring until it answers
+ * again, and its keys move to the remaining members. The peer list can also be
+ * replaced at runtime through {@link #setPeers}.
+ *
+ * Cluster mode is off unless app.cluster.enabled is set, in which case every key is
+ * owned locally. In cluster mode every call between instances carries the shared
+ * app.cluster.secret in the {@value #SECRET_HEADER} header, and the cluster endpoints
+ * reject calls without it.
+ */
+@Component
+public class ClusterRouter {
+
+    private static final Logger logger = LoggerFactory.getLogger(ClusterRouter.class);
+    public static final String SECRET_HEADER = "X-Cluster-Secret";
+
+    private final WebClient webClient;
+    private final boolean enabled;
+    private final String self;
+    private final int virtualNodes;
+    private final Duration forwardTimeout;
+    private final Duration healthTimeout;
+    private final byte[] secret;
+
+    private volatile Set<String> peers;
+    private final Set<String> down = ConcurrentHashMap.newKeySet();
+    private volatile ConsistentHashRing ring;
+    private final ScheduledExecutorService healthChecks;
+
+    private final LongAdder forwarded = new LongAdder();
+    private final LongAdder forwardFailures = new LongAdder();
+    private final LongAdder servedForPeers = new LongAdder();
+    private final LongAdder ringRebuilds = new LongAdder();
+
+    public ClusterRouter(WebClient webClient,
+            @Value("${app.cluster.enabled:false}") boolean enabled,
+            @Value("${app.cluster.self:http://localhost:8080}") String self,
+            @Value("${app.cluster.peers:}") String peers,
+            @Value("${app.cluster.virtual-nodes:128}") int virtualNodes,
+            @Value("${app.cluster.forward-timeout-seconds:120}") long forwardTimeoutSeconds,
+            @Value("${app.cluster.health-interval-seconds:5}") long healthIntervalSeconds,
+            @Value("${app.cluster.secret:}") String secret) {
+        if (enabled && secret.isBlank()) {
+            throw new IllegalStateException("app.cluster.secret must be set when cluster mode is enabled");
+        }
+        this.webClient = webClient;
+        this.secret = secret.getBytes(StandardCharsets.UTF_8);
+        this.enabled = enabled;
+        this.self = normalizeUrl(self);
+        this.virtualNodes = Math.max(1, virtualNodes);
+        this.forwardTimeout = Duration.ofSeconds(forwardTimeoutSeconds);
+        this.healthTimeout = Duration.ofSeconds(Math.max(1, healthIntervalSeconds));
+        this.peers = parsePeers(Arrays.asList(peers.split(",")));
+        rebuildRing();
+
+        if (enabled) {
+            this.healthChecks = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "cluster-health");
+                thread.setDaemon(true);
+                return thread;
+            });
+            healthChecks.scheduleWithFixedDelay(this::checkPeers, healthIntervalSeconds, healthIntervalSeconds,
+                    TimeUnit.SECONDS);
+            logger.info("Cluster mode enabled: self={}, peers={}", this.self, this.peers);
+        } else {
+            this.healthChecks = null;
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Returns the base URL of the instance owning the key, or null if it is this one
+     */
+    public String remoteOwner(String key) {
+        if (!enabled) {
+            return null;
+        }
+        String owner = ring.owner(key);
+        return owner == null || owner.equals(self) ? null : owner;
+    }
+
+    /**
+     * Asks the owner for the explanation. On failure the owner is taken out of the ring
+     * until its next successful health check, and the error is passed on so the caller
+     * can fall back to generating locally. An owner that answers 429 or 503 is healthy
+     * but overloaded: it stays in the ring and its rejection is passed on as a
+     * {@link LimitExceededException}.
+     */
+    public Mono<AiResponse> forwardExplanation(String owner, String word, String language) {
+        String uri = UriComponentsBuilder.fromHttpUrl(owner)
+                .path("/api/cluster/explanation")
+                .queryParam("word", word)
+                .queryParam("language", language)
+                .encode()
+                .toUriString();
+        return webClient.get()
+                .uri(URI.create(uri))
+                .header(SECRET_HEADER, secretValue())
+                .retrieve()
+                .bodyToMono(AiResponse.class)
+                .timeout(forwardTimeout)
+                .doOnSubscribe(subscription -> forwarded.increment())
+                .onErrorMap(ClusterRouter::isOverloaded, e -> overloaded(owner, (WebClientResponseException) e))
+                .doOnError(e -> !(e instanceof LimitExceededException), e -> {
+                    forwardFailures.increment();
+                    logger.warn("Forwarding '{}' to {} failed, using it locally: {}", word, owner, e.getMessage());
+                    markDown(owner);
+                });
+    }
+
+    private static boolean isOverloaded(Throwable e) {
+        return e instanceof WebClientResponseException response
+                && (response.getStatusCode().value() == HttpStatus.TOO_MANY_REQUESTS.value()
+                        || response.getStatusCode().value() == HttpStatus.SERVICE_UNAVAILABLE.value());
+    }
+
+    private static LimitExceededException overloaded(String owner, WebClientResponseException e) {
+        String retryAfter = e.getHeaders().getFirst(HttpHeaders.RETRY_AFTER);
+        LimitExceededException.Reason reason = e.getStatusCode().value() == HttpStatus.TOO_MANY_REQUESTS.value()
+                ? LimitExceededException.Reason.QUEUE_FULL
+                : LimitExceededException.Reason.QUEUE_TIMEOUT;
+        long retryAfterSeconds;
+        try {
+            retryAfterSeconds = retryAfter != null ? Long.parseLong(retryAfter.trim()) : 1;
+        } catch (NumberFormatException ignored) {
+            retryAfterSeconds = 1;
+        }
+        return new LimitExceededException(reason, owner + " is busy", retryAfterSeconds);
+    }
+
+    /**
+     * Returns whether a call presented the cluster secret; always false outside
+     * cluster mode
+     */
+    public boolean isAuthorized(String presentedSecret) {
+        return enabled && presentedSecret != null
+                && MessageDigest.isEqual(secret, presentedSecret.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private String secretValue() {
+        return new String(secret, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Counts a lookup answered on behalf of another instance
+     */
+    public void recordServedForPeer() {
+        servedForPeers.increment();
+    }
+
+    /**
+     * Replaces the configured peers; this instance is always a member
+     */
+    public void setPeers(Collection<String> newPeers) {
+        peers = parsePeers(newPeers);
+        down.retainAll(peers);
+        rebuildRing();
+        logger.info("Cluster peers set to {}", peers);
+    }
+
+    /**
+     * Returns membership and forwarding counters
+     */
+    public Map<String, Object> getStatus() {
+        Map<String, Object> status = new HashMap<>();
+        status.put("enabled", enabled);
+        status.put("self", self);
+        status.put("peers", new ArrayList<>(peers));
+        status.put("members", new ArrayList<>(ring.members()));
+        status.put("down", new ArrayList<>(down));
+        status.put("forwarded", forwarded.sum());
+        status.put("forwardFailures", forwardFailures.sum());
+        status.put("servedForPeers", servedForPeers.sum());
+        status.put("ringRebuilds", ringRebuilds.sum());
+        return status;
+    }
+
+    private void checkPeers() {
+        for (String peer : peers) {
+            if (peer.equals(self)) {
+                continue;
+            }
+            webClient.get()
+                    .uri(peer + "/api/cluster/ping")
+                    .header(SECRET_HEADER, secretValue())
+                    .retrieve()
+                    .toBodilessEntity()
+                    .timeout(healthTimeout)
+                    .subscribe(response -> markUp(peer), e -> markDown(peer));
+        }
+    }
+
+    private void markUp(String peer) {
+        if (down.remove(peer)) {
+            logger.info("Cluster peer {} is back, adding it to the ring", peer);
+            rebuildRing();
+        }
+    }
+
+    private void markDown(String peer) {
+        if (peers.contains(peer) && down.add(peer)) {
+            logger.warn("Cluster peer {} is unreachable, removing it from the ring", peer);
+            rebuildRing();
+        }
+    }
+
+    private synchronized void rebuildRing() {
+        List<String> live = new ArrayList<>();
+        for (String peer : peers) {
+            if (!down.contains(peer)) {
+                live.add(peer);
+            }
+        }
+        ring = new ConsistentHashRing(live, virtualNodes);
+        ringRebuilds.increment();
+    }
+
+    private Set<String> parsePeers(Collection<String> configured) {
+        Set<String> parsed = new LinkedHashSet<>();
+        parsed.add(self);
+        for (String peer : configured) {
+            if (peer != null && !peer.isBlank()) {
+                parsed.add(normalizeUrl(peer));
+            }
+        }
+        return Set.copyOf(parsed);
+    }
+
+    private static String normalizeUrl(String url) {
+        String trimmed = url.trim();
+        return trimmed.endsWith("/") ? trimmed.substring(0, trimmed.length() - 1) : trimmed;
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (healthChecks != null) {
+            healthChecks.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package com.example.backend.config;
+
+import com.example.backend.cache.LocalSharedCacheStore;
+import com.example.backend.cache.RedisSharedCacheStore;
+import com.example.backend.cache.SharedCacheStore;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+@Configuration
+public class SharedCacheConfig {
+
+    /**
+     * Selects the cache tier shared between backend instances:
+     * none (default), local (in-process stand-in) or redis
+     */
+    @Bean(destroyMethod = "close")
+    public SharedCacheStore sharedCacheStore(
+            @Value("${app.shared-cache.type:none}") String type,
+            @Value("${app.shared-cache.redis.host:localhost}") String host,
+            @Value("${app.shared-cache.redis.port:6379}") int port,
+            @Value("${app.shared-cache.redis.password:}") String password,
+            @Value("${app.shared-cache.redis.database:0}") int database,
+            @Value("${app.shared-cache.redis.pool-size:8}") int poolSize,
+            @Value("${app.shared-cache.timeout-ms:250}") long timeoutMillis) {
+        switch (type.trim().toLowerCase()) {
+            case "redis":
+                return new RedisSharedCacheStore(host, port, password, database, poolSize,
+                        Duration.ofMillis(timeoutMillis));
+            case "local":
+                return new LocalSharedCacheStore();
+            case "none":
+            case "":
+                return SharedCacheStore.NONE;
+            default:
+                throw new IllegalArgumentException("Unknown app.shared-cache.type: " + type);
+        }
+    }
+}
@@ -3,6 +3,7 @@ package com.example.backend.config;
 import io.netty.channel.ChannelOption;
 import io.netty.handler.timeout.ReadTimeoutHandler;
 import io.netty.handler.timeout.WriteTimeoutHandler;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.http.client.reactive.ReactorClientHttpConnector;
@@ -16,14 +17,19 @@ import java.util.concurrent.TimeUnit;
 @Configuration
 public class WebClientConfig {
 
+    /**
+     * The timeouts here are only a ceiling for every connection; each upstream call is
+     * also bounded by a timeout that follows its observed latency (see HedgedUpstream)
+     */
     @Bean
-    public WebClient webClient() {
-        // Set up HTTP client with very long timeouts for LLM inference
+    public WebClient webClient(@Value("${app.upstream.connect-timeout-ms:10000}") int connectTimeoutMillis,
+            @Value("${app.upstream.max-timeout-seconds:300}") long maxTimeoutSeconds) {
+        // Set up HTTP client with long enough timeouts for LLM inference
         HttpClient httpClient = HttpClient.create()
-                .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, 60000) // 60 seconds connection timeout
-                .responseTimeout(Duration.ofMinutes(5)) // 5 minutes response timeout for LLM
-                .doOnConnected(conn -> conn.addHandlerLast(new ReadTimeoutHandler(5, TimeUnit.MINUTES))
-                        .addHandlerLast(new WriteTimeoutHandler(5, TimeUnit.MINUTES)));
+                .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, connectTimeoutMillis)
+                .responseTimeout(Duration.ofSeconds(maxTimeoutSeconds))
+                .doOnConnected(conn -> conn.addHandlerLast(new ReadTimeoutHandler(maxTimeoutSeconds, TimeUnit.SECONDS))
+                        .addHandlerLast(new WriteTimeoutHandler(maxTimeoutSeconds, TimeUnit.SECONDS)));
 
         // Set up exchange strategies with large buffer size
         ExchangeStrategies strategies = ExchangeStrategies.builder()
@@ -1,23 +1,56 @@
 package com.example.backend.controller;
 
+import com.example.backend.model.CacheContainsRequest;
+import com.example.backend.service.CacheSnapshotService;
+import com.example.backend.service.CacheWarmupService;
 import com.example.backend.service.DeepseekAiService;
+import com.example.backend.service.DictionaryService;
+import com.example.backend.service.PopularWordService;
+import com.example.backend.service.PrefetchService;
+import com.example.backend.service.TranslationService;
 
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 
 @RestController
 @RequestMapping("/api/cache")
-@CrossOrigin(origins = "*") // For development; restrict in production
 public class CacheController {
     private static final Logger logger = LoggerFactory.getLogger(CacheController.class);
+    // Upper bound on words per batch contains check
+    private static final int MAX_CONTAINS_WORDS = 1000;
     private final DeepseekAiService deepseekAiService;
+    private final TranslationService translationService;
+    private final DictionaryService dictionaryService;
+    private final CacheWarmupService cacheWarmupService;
+    private final CacheSnapshotService cacheSnapshotService;
+    private final PrefetchService prefetchService;
+    private final PopularWordService popularWordService;
+    private final EncodedResponseCache encodedResponseCache;
 
-    public CacheController(DeepseekAiService deepseekAiService) {
+    public CacheController(DeepseekAiService deepseekAiService, TranslationService translationService,
+            DictionaryService dictionaryService, CacheWarmupService cacheWarmupService,
+            CacheSnapshotService cacheSnapshotService, PrefetchService prefetchService,
+            PopularWordService popularWordService, EncodedResponseCache encodedResponseCache) {
         this.deepseekAiService = deepseekAiService;
+        this.translationService = translationService;
+        this.dictionaryService = dictionaryService;
+        this.cacheWarmupService = cacheWarmupService;
+        this.cacheSnapshotService = cacheSnapshotService;
+        this.prefetchService = prefetchService;
+        this.popularWordService = popularWordService;
+        this.encodedResponseCache = encodedResponseCache;
     }
 
     /**
@@ -25,9 +58,15 @@ public class CacheController {
      */
     @GetMapping("/stats")
     public ResponseEntity<Map<String, Object>> getCacheStats() {
-        Map<String, Object> stats = new HashMap<>();
+        Map<String, Object> stats = new HashMap<>(deepseekAiService.getCacheStatistics());
         stats.put("size", deepseekAiService.getCacheSize());
         stats.put("enabled", deepseekAiService.isCacheEnabled());
+        stats.put("translation", translationService.getCacheStatistics());
+        stats.put("dictionary", dictionaryService.getCacheStatistics());
+        stats.put("encoded", encodedResponseCache.getStatistics());
+        stats.put("warmup", cacheWarmupService.getProgress());
+        stats.put("prefetch", prefetchService.getStatistics());
+        stats.put("popular", popularWordService.getStatistics());
         stats.put("timestamp", System.currentTimeMillis());
         logger.debug("Cache stats requested: {}", stats);
         return ResponseEntity.ok(stats);
@@ -40,6 +79,9 @@ public class CacheController {
     public ResponseEntity<Map<String, Object>> clearCache() {
         int sizeBefore = deepseekAiService.getCacheSize();
         deepseekAiService.clearCache();
+        translationService.clearCache();
+        dictionaryService.clearCache();
+        encodedResponseCache.clear();
 
         Map<String, Object> response = new HashMap<>();
         response.put("status", "success");
@@ -50,6 +92,20 @@ public class CacheController {
         return ResponseEntity.ok(response);
     }
 
+    /**
+     * Lists the most looked-up words, by recent (decayed) lookup count
+     *
+     * @param limit Maximum number of words, capped at app.popular.top-k
+     */
+    @GetMapping("/popular")
+    public ResponseEntity<Map<String, Object>> getPopularWords(@RequestParam(defaultValue = "20") int limit) {
+        Map<String, Object> response = new LinkedHashMap<>();
+        response.put("words", popularWordService.getTopWords(Math.max(1, limit)));
+        response.put("statistics", popularWordService.getStatistics());
+        response.put("timestamp", System.currentTimeMillis());
+        return ResponseEntity.ok(response);
+    }
+
     /**
      * Check if a specific word is in the cache
      */
@@ -68,4 +124,71 @@ public class CacheController {
         logger.debug("Cache check for '{}' in {}: {}", word, language, inCache);
         return ResponseEntity.ok(response);
     }
+
+    /**
+     * Check which of several words are in the cache
+     * Expected request body: { "words": ["makan", "tidur"], "language": "Mandarin" }
+     */
+    @PostMapping("/contains")
+    public ResponseEntity<Map<String, Object>> checkCacheBatch(@RequestBody CacheContainsRequest request) {
+        List<String> words = request.getWords();
+        if (words == null || words.isEmpty() || words.size() > MAX_CONTAINS_WORDS) {
+            return ResponseEntity.badRequest().build();
+        }
+        String language = request.getLanguage() != null ? request.getLanguage() : "Mandarin";
+
+        Map<String, Boolean> results = new LinkedHashMap<>();
+        int cached = 0;
+        for (String word : words) {
+            boolean inCache = word != null && deepseekAiService.isInCache(word, language);
+            results.put(word, inCache);
+            if (inCache) {
+                cached++;
+            }
+        }
+
+        Map<String, Object> response = new HashMap<>();
+        response.put("language", language);
+        response.put("results", results);
+        response.put("cached", cached);
+        response.put("missing", results.size() - cached);
+
+        logger.debug("Batch cache check for {} words in {}: {} cached", results.size(), language, cached);
+        return ResponseEntity.ok(response);
+    }
+
+    /**
+     * Stream every cached entry as gzipped NDJSON, for seeding another instance
+     */
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportCache() {
+        String filename = "ekamus-cache-" + System.currentTimeMillis() + ".ndjson.gz";
+        StreamingResponseBody body = out -> cacheSnapshotService.export(out);
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType("application/gzip"))
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + filename + "\"")
+                .body(body);
+    }
+
+    /**
+     * Load a snapshot produced by /export (gzipped or plain NDJSON). Only available
+     * when app.cache.import.enabled is set, with app.cache.import.token in the
+     * X-Import-Token header.
+     */
+    @PostMapping("/import")
+    public ResponseEntity<Map<String, Object>> importCache(InputStream body,
+            @RequestParam(defaultValue = "false") boolean overwrite,
+            @RequestHeader(value = "X-Import-Token", required = false) String token) throws IOException {
+        if (!cacheSnapshotService.isImportEnabled()) {
+            return ResponseEntity.notFound().build();
+        }
+        if (!cacheSnapshotService.isImportAuthorized(token)) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+        }
+        Map<String, Object> response = new HashMap<>(cacheSnapshotService.importSnapshot(body, overwrite));
+        response.put("status", "success");
+        response.put("overwrite", overwrite);
+        response.put("timestamp", System.currentTimeMillis());
+        return ResponseEntity.ok(response);
+    }
 }
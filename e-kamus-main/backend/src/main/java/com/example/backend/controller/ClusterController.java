@@ -0,0 +1,83 @@
+package com.example.backend.controller;
+
+import com.example.backend.cluster.ClusterRouter;
+import com.example.backend.model.AiResponse;
+import com.example.backend.service.DeepseekAiService;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Endpoints used between instances in cluster mode, plus membership status. They only
+ * exist when app.cluster.enabled is set, and answer 403 unless the request carries the
+ * cluster secret, since peers returned by them are pinged and trusted with lookups.
+ * Browsers never call them, so there is no CORS mapping.
+ */
+@RestController
+@RequestMapping("/api/cluster")
+@ConditionalOnProperty(name = "app.cluster.enabled", havingValue = "true")
+public class ClusterController {
+
+    private final ClusterRouter clusterRouter;
+    private final DeepseekAiService deepseekAiService;
+
+    public ClusterController(ClusterRouter clusterRouter, DeepseekAiService deepseekAiService) {
+        this.clusterRouter = clusterRouter;
+        this.deepseekAiService = deepseekAiService;
+    }
+
+    @GetMapping
+    public ResponseEntity<Map<String, Object>> getStatus(
+            @RequestHeader(value = ClusterRouter.SECRET_HEADER, required = false) String secret) {
+        if (!clusterRouter.isAuthorized(secret)) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+        }
+        return ResponseEntity.ok(clusterRouter.getStatus());
+    }
+
+    /**
+     * Health check used by the other instances
+     */
+    @GetMapping("/ping")
+    public ResponseEntity<Void> ping(
+            @RequestHeader(value = ClusterRouter.SECRET_HEADER, required = false) String secret) {
+        if (!clusterRouter.isAuthorized(secret)) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+        }
+        return ResponseEntity.ok().build();
+    }
+
+    /**
+     * Explanation lookup forwarded by another instance; always answered locally so a
+     * request is never forwarded twice
+     */
+    @GetMapping("/explanation")
+    public Mono<ResponseEntity<AiResponse>> explanation(@RequestParam String word, @RequestParam String language,
+            @RequestHeader(value = ClusterRouter.SECRET_HEADER, required = false) String secret) {
+        if (!clusterRouter.isAuthorized(secret)) {
+            return Mono.just(ResponseEntity.status(HttpStatus.FORBIDDEN).build());
+        }
+        clusterRouter.recordServedForPeer();
+        return deepseekAiService.generateLocalExplanation(word, language)
+                .map(ResponseEntity::ok);
+    }
+
+    /**
+     * Replace the peer list, e.g. when an instance is added or retired
+     */
+    @PutMapping("/peers")
+    public ResponseEntity<Map<String, Object>> setPeers(@RequestBody List<String> peers,
+            @RequestHeader(value = ClusterRouter.SECRET_HEADER, required = false) String secret) {
+        if (!clusterRouter.isAuthorized(secret)) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+        }
+        clusterRouter.setPeers(peers);
+        return ResponseEntity.ok(clusterRouter.getStatus());
+    }
+}
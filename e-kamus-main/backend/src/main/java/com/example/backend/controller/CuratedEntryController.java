@@ -0,0 +1,102 @@
+package com.example.backend.controller;
+
+import com.example.backend.model.CuratedEntryRequest;
+import com.example.backend.service.DictionaryEntryService;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Edits curated entries and pronunciation/adjective overrides. Every change evicts the
+ * memoized responses for the word, so the next lookup reflects it. Only available when
+ * app.curated.admin.enabled is set, with app.curated.admin.token in the X-Admin-Token
+ * header.
+ */
+@RestController
+@RequestMapping("/api/curated")
+public class CuratedEntryController {
+
+    private static final String TOKEN_HEADER = "X-Admin-Token";
+
+    private final DictionaryEntryService dictionaryEntryService;
+
+    public CuratedEntryController(DictionaryEntryService dictionaryEntryService) {
+        this.dictionaryEntryService = dictionaryEntryService;
+    }
+
+    /**
+     * Add or replace the curated entry for a Malay word
+     */
+    @PutMapping("/{word}")
+    public ResponseEntity<Map<String, Object>> putEntry(@PathVariable String word,
+            @RequestBody CuratedEntryRequest request,
+            @RequestHeader(value = TOKEN_HEADER, required = false) String token) {
+        ResponseEntity<Map<String, Object>> denied = checkAccess(token);
+        if (denied != null) {
+            return denied;
+        }
+        if (isBlank(request.getMandarinWord()) || isBlank(request.getExplanation())) {
+            return ResponseEntity.badRequest().build();
+        }
+        List<String> examples = request.getExamples() != null ? request.getExamples() : List.of();
+        dictionaryEntryService.addEntry(new DictionaryEntryService.DictionaryEntry(word, request.getMandarinWord(),
+                request.getPronunciation(), request.getExplanation(), examples.toArray(String[]::new),
+                Boolean.TRUE.equals(request.getAdjective())));
+        return updated(word);
+    }
+
+    /**
+     * Override the pronunciation and/or adjective flag of an AI-generated word; fields
+     * left out keep the AI value
+     */
+    @PutMapping("/{word}/override")
+    public ResponseEntity<Map<String, Object>> putOverride(@PathVariable String word,
+            @RequestBody CuratedEntryRequest request,
+            @RequestHeader(value = TOKEN_HEADER, required = false) String token) {
+        ResponseEntity<Map<String, Object>> denied = checkAccess(token);
+        if (denied != null) {
+            return denied;
+        }
+        dictionaryEntryService.setOverride(word, request.getPronunciation(), request.getAdjective());
+        return updated(word);
+    }
+
+    /**
+     * Remove the curated entry and overrides of a word
+     */
+    @DeleteMapping("/{word}")
+    public ResponseEntity<Map<String, Object>> deleteWord(@PathVariable String word,
+            @RequestHeader(value = TOKEN_HEADER, required = false) String token) {
+        ResponseEntity<Map<String, Object>> denied = checkAccess(token);
+        if (denied != null) {
+            return denied;
+        }
+        dictionaryEntryService.removeWord(word);
+        return updated(word);
+    }
+
+    private ResponseEntity<Map<String, Object>> checkAccess(String token) {
+        if (!dictionaryEntryService.isAdminEnabled()) {
+            return ResponseEntity.notFound().build();
+        }
+        if (!dictionaryEntryService.isAdminAuthorized(token)) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+        }
+        return null;
+    }
+
+    private ResponseEntity<Map<String, Object>> updated(String word) {
+        return ResponseEntity.ok(Map.of(
+                "status", "success",
+                "word", word,
+                "version", dictionaryEntryService.getVersion()));
+    }
+
+    private static boolean isBlank(String value) {
+        return value == null || value.isBlank();
+    }
+}
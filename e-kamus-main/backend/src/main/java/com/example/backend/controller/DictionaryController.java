@@ -1,11 +1,21 @@
 package com.example.backend.controller;
 
+import com.example.backend.limit.LimitExceededException;
 import com.example.backend.model.DictionaryResponse;
+import com.example.backend.model.ExplanationSection;
 import com.example.backend.service.DictionaryService;
 
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.codec.ServerSentEvent;
 import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.time.Duration;
+import java.util.Map;
 
 @RestController
 @RequestMapping("/api")
@@ -13,22 +23,84 @@ import reactor.core.publisher.Mono;
 public class DictionaryController {
 
     private final DictionaryService dictionaryService;
+    private final HttpCacheSupport httpCache;
+    private final EncodedResponseCache encodedResponses;
 
-    public DictionaryController(DictionaryService dictionaryService) {
+    public DictionaryController(DictionaryService dictionaryService, HttpCacheSupport httpCache,
+            EncodedResponseCache encodedResponses) {
         this.dictionaryService = dictionaryService;
+        this.httpCache = httpCache;
+        this.encodedResponses = encodedResponses;
     }
 
     @GetMapping("/translate")
-    public Mono<ResponseEntity<DictionaryResponse>> translate(@RequestParam String word) {
-        return dictionaryService.processWord(word)
-                .map(ResponseEntity::ok)
-                .defaultIfEmpty(ResponseEntity.notFound().build());
+    public Mono<ResponseEntity<DictionaryResponse>> translate(@RequestParam String word,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        return lookup(word, ifNoneMatch, httpCache.translateMaxAge());
     }
 
     @GetMapping("/dictionary/{word}")
-    public Mono<ResponseEntity<DictionaryResponse>> lookupDictionary(@PathVariable String word) {
+    public Mono<? extends ResponseEntity<?>> lookupDictionary(@PathVariable String word,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+            @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        // Memoized words are sent as bytes encoded on an earlier hit, skipping Jackson
+        if (encodedResponses.isEnabled() && EncodedResponseCache.acceptsJson(accept)) {
+            DictionaryResponse memoized = dictionaryService.lookupMemoized(word);
+            if (memoized != null) {
+                boolean gzip = EncodedResponseCache.acceptsGzip(acceptEncoding);
+                ResponseEntity<byte[]> response = httpCache.respondEncoded(
+                        encodedResponses.get(word, memoized), gzip, ifNoneMatch, httpCache.dictionaryMaxAge());
+                if (gzip && response.getHeaders().containsKey(HttpHeaders.CONTENT_ENCODING)) {
+                    encodedResponses.recordGzipServed();
+                }
+                return Mono.just(response);
+            }
+        }
+        return lookup(word, ifNoneMatch, httpCache.dictionaryMaxAge());
+    }
+
+    /**
+     * Streams a lookup as Server-Sent Events: the Mandarin word, then explanation,
+     * pinyin, examples and adjective events as soon as each is generated, and finally
+     * a "complete" event with the full response ("error" if the lookup failed, or
+     * "rejected" with a status and retryAfter if Ollama is too busy). Cached and curated
+     * words go straight to the final event.
+     */
+    @GetMapping(value = "/dictionary/{word}/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public Flux<ServerSentEvent<Object>> streamDictionary(@PathVariable String word) {
+        return Flux.defer(() -> {
+            Sinks.Many<ExplanationSection> sections = Sinks.many().unicast().onBackpressureBuffer();
+            // Runs to the end even if the client goes away, so the result is still cached
+            Mono<DictionaryResponse> result = dictionaryService.streamWord(word, sections::tryEmitNext)
+                    .doFinally(signal -> sections.tryEmitComplete())
+                    .cache();
+            result.subscribe(response -> { }, error -> { });
+            return Flux.concat(
+                    sections.asFlux().map(section -> ServerSentEvent.<Object>builder(section.getContent())
+                            .event(section.getName()).build()),
+                    result.map(response -> ServerSentEvent.<Object>builder(response)
+                            .event(DictionaryService.isSuccessful(response) ? "complete" : "error").build())
+                            // The stream has already started, so the status cannot be 429/503
+                            .onErrorResume(LimitExceededException.class, e -> Mono.just(
+                                    ServerSentEvent.<Object>builder(Map.of(
+                                            "status", LimitExceededHandler.status(e).value(),
+                                            "message", e.getMessage(),
+                                            "retryAfter", e.getRetryAfterSeconds()))
+                                            .event("rejected").build())));
+        });
+    }
+
+    private Mono<ResponseEntity<DictionaryResponse>> lookup(String word, String ifNoneMatch, Duration maxAge) {
+        // Revalidation of a memoized word is answered without running the lookup
+        ResponseEntity<DictionaryResponse> notModified = httpCache.notModifiedOrNull(
+                dictionaryService.peekMemoized(word), ifNoneMatch, maxAge);
+        if (notModified != null) {
+            return Mono.just(notModified);
+        }
         return dictionaryService.processWord(word)
-                .map(ResponseEntity::ok)
+                .map(response -> httpCache.respond(response, DictionaryService.isSuccessful(response),
+                        ifNoneMatch, maxAge))
                 .defaultIfEmpty(ResponseEntity.notFound().build());
     }
 }
@@ -0,0 +1,208 @@
+package com.example.backend.controller;
+
+import com.example.backend.cache.BoundedCache;
+import com.example.backend.model.DictionaryResponse;
+import com.example.backend.service.PipelineMetrics;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Keeps memoized dictionary responses as ready-to-send UTF-8 JSON, and a gzipped copy
+ * when that is smaller, so a hit is written straight to the socket without object
+ * mapping or Jackson serialization. The ETag is computed once from the same bytes.
+ *
+ * An entry remembers which memoized {@link DictionaryResponse} it was encoded from and
+ * is only used while that is still the memoized response, so invalidation of the
+ * dictionary cache also invalidates the encoded form.
+ */
+@Component
+public class EncodedResponseCache {
+
+    private final ObjectMapper objectMapper;
+    private final boolean enabled;
+    private final boolean gzipEnabled;
+    private final int gzipMinBytes;
+    private final BoundedCache<String, EncodedResponse> cache;
+
+    private final LongAdder encoded = new LongAdder();
+    private final LongAdder gzipServed = new LongAdder();
+
+    public EncodedResponseCache(ObjectMapper objectMapper, PipelineMetrics pipelineMetrics,
+            @Value("${app.encoded-cache.enabled:true}") boolean enabled,
+            @Value("${app.encoded-cache.max-entries:2000}") long maxEntries,
+            @Value("${app.encoded-cache.max-weight-mb:16}") long maxWeightMb,
+            @Value("${app.encoded-cache.gzip:true}") boolean gzipEnabled,
+            @Value("${app.encoded-cache.gzip-min-bytes:512}") int gzipMinBytes) {
+        this.objectMapper = objectMapper;
+        this.enabled = enabled;
+        this.gzipEnabled = gzipEnabled;
+        this.gzipMinBytes = gzipMinBytes;
+        this.cache = new BoundedCache<>(maxEntries, maxWeightMb * 1024 * 1024, null,
+                (word, entry) -> 96 + 2L * word.length() + entry.json.length
+                        + (entry.gzip != null ? entry.gzip.length : 0));
+        pipelineMetrics.monitorCache("encoded-response", cache);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Returns the encoded form of a memoized response, encoding it on first use
+     */
+    public EncodedResponse get(String word, DictionaryResponse response) {
+        EncodedResponse entry = cache.getIfPresent(word);
+        if (entry != null && entry.source == response) {
+            return entry;
+        }
+        entry = encode(response);
+        cache.put(word, entry);
+        encoded.increment();
+        return entry;
+    }
+
+    /**
+     * Counts a response sent gzipped, for the stats endpoint
+     */
+    void recordGzipServed() {
+        gzipServed.increment();
+    }
+
+    public void clear() {
+        cache.invalidateAll();
+    }
+
+    public Map<String, Object> getStatistics() {
+        Map<String, Object> stats = new HashMap<>();
+        long hits = cache.hitCount();
+        long misses = cache.missCount();
+        stats.put("enabled", enabled);
+        stats.put("size", cache.size());
+        stats.put("weightBytes", cache.weightedSize());
+        stats.put("hits", hits);
+        stats.put("misses", misses);
+        stats.put("encoded", encoded.sum());
+        stats.put("gzipServed", gzipServed.sum());
+        return stats;
+    }
+
+    EncodedResponse encode(DictionaryResponse response) {
+        try {
+            byte[] json = objectMapper.writeValueAsBytes(response);
+            byte[] gzip = gzipEnabled && json.length >= gzipMinBytes ? gzip(json) : null;
+            if (gzip != null && gzip.length >= json.length) {
+                gzip = null;
+            }
+            return new EncodedResponse(response, json, gzip, HttpCacheSupport.etagOf(json));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not encode response", e);
+        }
+    }
+
+    private static byte[] gzip(byte[] json) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(json.length / 2);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(json);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return out.toByteArray();
+    }
+
+    /**
+     * Whether the Accept header allows a JSON body; a missing header allows anything
+     */
+    static boolean acceptsJson(String accept) {
+        if (accept == null || accept.isBlank()) {
+            return true;
+        }
+        try {
+            for (MediaType type : MediaType.parseMediaTypes(accept)) {
+                if (type.isCompatibleWith(MediaType.APPLICATION_JSON)) {
+                    return true;
+                }
+            }
+            return false;
+        } catch (InvalidMediaTypeException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Whether the Accept-Encoding header lists gzip (or *) without q=0
+     */
+    static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        for (String candidate : acceptEncoding.split(",")) {
+            String[] parts = candidate.trim().split(";");
+            String coding = parts[0].trim();
+            if (!coding.equalsIgnoreCase("gzip") && !coding.equals("*")) {
+                continue;
+            }
+            if (!hasZeroQuality(parts)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean hasZeroQuality(String[] parts) {
+        for (int i = 1; i < parts.length; i++) {
+            String param = parts[i].trim();
+            if (param.startsWith("q=")) {
+                try {
+                    return Double.parseDouble(param.substring(2).trim()) == 0;
+                } catch (NumberFormatException e) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * A response encoded once: JSON bytes, optional gzip bytes and the ETag of the JSON
+     */
+    public static final class EncodedResponse {
+        private final DictionaryResponse source;
+        private final byte[] json;
+        private final byte[] gzip;
+        private final String etag;
+
+        EncodedResponse(DictionaryResponse source, byte[] json, byte[] gzip, String etag) {
+            this.source = source;
+            this.json = json;
+            this.gzip = gzip;
+            this.etag = etag;
+        }
+
+        public byte[] json() {
+            return json;
+        }
+
+        /**
+         * Returns the gzipped JSON, or null if it is not worth compressing
+         */
+        public byte[] gzip() {
+            return gzip;
+        }
+
+        public String etag() {
+            return etag;
+        }
+    }
+}
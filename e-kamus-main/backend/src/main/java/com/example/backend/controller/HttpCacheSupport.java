@@ -0,0 +1,175 @@
+package com.example.backend.controller;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.HexFormat;
+
+/**
+ * Adds HTTP validators to GET lookups so browsers and the reverse proxy can cache them.
+ *
+ * Successful responses get a strong ETag (a hash of the JSON body) and a
+ * Cache-Control max-age configured per endpoint; failures get no-store so an outage
+ * is never cached. When the client's If-None-Match matches, a 304 without a body is
+ * returned. Controllers first try that against an already cached result, which avoids
+ * running the lookup at all.
+ */
+@Component
+public class HttpCacheSupport {
+
+    private static final String GZIP_SUFFIX = "-gzip";
+
+    private final ObjectMapper objectMapper;
+    private final boolean enabled;
+    private final Duration dictionaryMaxAge;
+    private final Duration translateMaxAge;
+    private final Duration sentenceMaxAge;
+
+    public HttpCacheSupport(ObjectMapper objectMapper,
+            @Value("${app.http-cache.enabled:true}") boolean enabled,
+            @Value("${app.http-cache.dictionary-max-age-seconds:3600}") long dictionaryMaxAgeSeconds,
+            @Value("${app.http-cache.translate-max-age-seconds:3600}") long translateMaxAgeSeconds,
+            @Value("${app.http-cache.translate-sentence-max-age-seconds:86400}") long sentenceMaxAgeSeconds) {
+        this.objectMapper = objectMapper;
+        this.enabled = enabled;
+        this.dictionaryMaxAge = Duration.ofSeconds(dictionaryMaxAgeSeconds);
+        this.translateMaxAge = Duration.ofSeconds(translateMaxAgeSeconds);
+        this.sentenceMaxAge = Duration.ofSeconds(sentenceMaxAgeSeconds);
+    }
+
+    public Duration dictionaryMaxAge() {
+        return dictionaryMaxAge;
+    }
+
+    public Duration translateMaxAge() {
+        return translateMaxAge;
+    }
+
+    public Duration sentenceMaxAge() {
+        return sentenceMaxAge;
+    }
+
+    /**
+     * Returns a 304 if the client already holds this body, or null if it must be sent
+     *
+     * @param cachedBody  A body available without running the lookup, or null
+     * @param ifNoneMatch The request's If-None-Match header, or null
+     */
+    public <T> ResponseEntity<T> notModifiedOrNull(Object cachedBody, String ifNoneMatch, Duration maxAge) {
+        if (!enabled || cachedBody == null || ifNoneMatch == null) {
+            return null;
+        }
+        String etag = etag(cachedBody);
+        return matches(ifNoneMatch, etag) ? notModified(etag, maxAge) : null;
+    }
+
+    /**
+     * Wraps a freshly computed body, answering 304 if it matches the client's copy
+     *
+     * @param cacheable False for error responses, which are marked no-store
+     */
+    public <T> ResponseEntity<T> respond(T body, boolean cacheable, String ifNoneMatch, Duration maxAge) {
+        if (!enabled) {
+            return ResponseEntity.ok(body);
+        }
+        if (!cacheable) {
+            return ResponseEntity.ok().cacheControl(CacheControl.noStore()).body(body);
+        }
+        String etag = etag(body);
+        if (ifNoneMatch != null && matches(ifNoneMatch, etag)) {
+            return notModified(etag, maxAge);
+        }
+        return ResponseEntity.ok()
+                .eTag(etag)
+                .cacheControl(CacheControl.maxAge(maxAge).cachePublic())
+                .body(body);
+    }
+
+    private <T> ResponseEntity<T> notModified(String etag, Duration maxAge) {
+        return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                .eTag(etag)
+                .cacheControl(CacheControl.maxAge(maxAge).cachePublic())
+                .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING)
+                .build();
+    }
+
+    /**
+     * Sends a body that is already encoded as JSON, gzipped if the client accepts it,
+     * with the same validators {@link #respond} would give the object
+     */
+    public ResponseEntity<byte[]> respondEncoded(EncodedResponseCache.EncodedResponse encoded, boolean gzip,
+            String ifNoneMatch, Duration maxAge) {
+        boolean sendGzip = gzip && encoded.gzip() != null;
+        // The gzipped bytes are a different representation, so they get their own strong tag
+        String etag = sendGzip ? gzipEtag(encoded.etag()) : encoded.etag();
+        ResponseEntity.BodyBuilder builder = ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON);
+        if (enabled) {
+            if (ifNoneMatch != null && matches(ifNoneMatch, encoded.etag())) {
+                return notModified(etag, maxAge);
+            }
+            builder.eTag(etag).cacheControl(CacheControl.maxAge(maxAge).cachePublic());
+        }
+        if (encoded.gzip() != null) {
+            // Caches must keep the plain and the gzipped copy apart
+            builder.header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+            if (sendGzip) {
+                return builder.header(HttpHeaders.CONTENT_ENCODING, "gzip").body(encoded.gzip());
+            }
+        }
+        return builder.body(encoded.json());
+    }
+
+    String etag(Object body) {
+        try {
+            return etagOf(objectMapper.writeValueAsBytes(body));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not compute ETag", e);
+        }
+    }
+
+    static String etagOf(byte[] json) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(json);
+            return "\"" + HexFormat.of().formatHex(digest, 0, 16) + "\"";
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("Could not compute ETag", e);
+        }
+    }
+
+    /**
+     * Returns the tag of the gzipped representation of the body tagged etag
+     */
+    static String gzipEtag(String etag) {
+        return etag.substring(0, etag.length() - 1) + GZIP_SUFFIX + "\"";
+    }
+
+    /**
+     * If-None-Match uses weak comparison, so W/ prefixes are ignored. The plain and the
+     * gzipped tag of a body both match it: they hold the same JSON once decoded.
+     */
+    static boolean matches(String ifNoneMatch, String etag) {
+        for (String candidate : ifNoneMatch.split(",")) {
+            String tag = candidate.trim();
+            if (tag.startsWith("W/")) {
+                tag = tag.substring(2);
+            }
+            if (tag.endsWith(GZIP_SUFFIX + "\"")) {
+                tag = tag.substring(0, tag.length() - GZIP_SUFFIX.length() - 1) + "\"";
+            }
+            if (tag.equals("*") || tag.equals(etag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
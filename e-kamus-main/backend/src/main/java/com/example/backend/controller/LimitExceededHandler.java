@@ -0,0 +1,38 @@
+package com.example.backend.controller;
+
+import com.example.backend.limit.LimitExceededException;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Answers lookups turned away by the Ollama concurrency limiter: 429 when its wait
+ * queue was full, 503 when the lookup waited too long, both with Retry-After
+ */
+@RestControllerAdvice
+public class LimitExceededHandler {
+
+    @ExceptionHandler(LimitExceededException.class)
+    public ResponseEntity<Map<String, Object>> handleLimitExceeded(LimitExceededException e) {
+        HttpStatus status = status(e);
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("status", status.value());
+        body.put("error", status.getReasonPhrase());
+        body.put("message", e.getMessage());
+        return ResponseEntity.status(status)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(e.getRetryAfterSeconds()))
+                .body(body);
+    }
+
+    static HttpStatus status(LimitExceededException e) {
+        return e.getReason() == LimitExceededException.Reason.QUEUE_FULL
+                ? HttpStatus.TOO_MANY_REQUESTS
+                : HttpStatus.SERVICE_UNAVAILABLE;
+    }
+}
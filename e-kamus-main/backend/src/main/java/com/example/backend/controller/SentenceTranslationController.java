@@ -3,6 +3,7 @@ package com.example.backend.controller;
 import com.example.backend.model.SentenceTranslationRequest;
 import com.example.backend.model.SentenceTranslationResponse;
 import com.example.backend.service.TranslationService;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import reactor.core.publisher.Mono;
@@ -13,9 +14,11 @@ import reactor.core.publisher.Mono;
 public class SentenceTranslationController {
 
     private final TranslationService translationService;
+    private final HttpCacheSupport httpCache;
 
-    public SentenceTranslationController(TranslationService translationService) {
+    public SentenceTranslationController(TranslationService translationService, HttpCacheSupport httpCache) {
         this.translationService = translationService;
+        this.httpCache = httpCache;
     }
 
     @PostMapping("/translate-sentence")
@@ -36,15 +39,8 @@ public class SentenceTranslationController {
         String targetLanguage = request.getTargetLanguage() != null ? request.getTargetLanguage() : "zh";
 
         return translationService.translateText(request.getSentence(), sourceLanguage, targetLanguage)
-                .map(translatedText -> {
-                    SentenceTranslationResponse response = new SentenceTranslationResponse();
-                    response.setOriginalSentence(request.getSentence());
-                    response.setTranslatedSentence(translatedText);
-                    response.setSourceLanguage(sourceLanguage);
-                    response.setTargetLanguage(targetLanguage);
-                    response.setSuccess(true);
-                    return ResponseEntity.ok(response);
-                })
+                .map(translatedText -> ResponseEntity.ok(
+                        successResponse(request, sourceLanguage, targetLanguage, translatedText)))
                 .onErrorResume(e -> {
                     SentenceTranslationResponse errorResponse = new SentenceTranslationResponse();
                     errorResponse.setOriginalSentence(request.getSentence());
@@ -60,13 +56,40 @@ public class SentenceTranslationController {
     public Mono<ResponseEntity<SentenceTranslationResponse>> translateSentenceGet(
             @RequestParam String sentence,
             @RequestParam(required = false, defaultValue = "ms") String from,
-            @RequestParam(required = false, defaultValue = "zh") String to) {
+            @RequestParam(required = false, defaultValue = "zh") String to,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
 
         SentenceTranslationRequest request = new SentenceTranslationRequest();
         request.setSentence(sentence);
         request.setSourceLanguage(from);
         request.setTargetLanguage(to);
 
-        return translateSentence(request);
+        // Revalidation of a curated or cached translation is answered without translating
+        if (!sentence.trim().isEmpty()) {
+            String known = translationService.peekTranslation(sentence, from, to);
+            ResponseEntity<SentenceTranslationResponse> notModified = httpCache.notModifiedOrNull(
+                    known != null ? successResponse(request, from, to, known) : null,
+                    ifNoneMatch, httpCache.sentenceMaxAge());
+            if (notModified != null) {
+                return Mono.just(notModified);
+            }
+        }
+
+        return translateSentence(request)
+                .map(entity -> entity.getStatusCode().is2xxSuccessful() && entity.getBody() != null
+                        ? httpCache.respond(entity.getBody(), entity.getBody().isSuccess(), ifNoneMatch,
+                                httpCache.sentenceMaxAge())
+                        : entity);
+    }
+
+    private static SentenceTranslationResponse successResponse(SentenceTranslationRequest request,
+            String sourceLanguage, String targetLanguage, String translatedText) {
+        SentenceTranslationResponse response = new SentenceTranslationResponse();
+        response.setOriginalSentence(request.getSentence());
+        response.setTranslatedSentence(translatedText);
+        response.setSourceLanguage(sourceLanguage);
+        response.setTargetLanguage(targetLanguage);
+        response.setSuccess(true);
+        return response;
     }
 }
@@ -0,0 +1,277 @@
+package com.example.backend.limit;
+
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Limits how many calls run against a slow upstream at once, with a limit that follows
+ * the upstream's observed latency, and a bounded wait queue in front of it.
+ *
+ * The limit is adjusted after every call, gradient style: the ratio between the
+ * long-term average latency (times a tolerance) and the latest sample shrinks the
+ * limit when calls slow down because the upstream is saturated, and a small headroom
+ * term grows it while latency holds. Failed and timed-out calls cut it
+ * multiplicatively. It never grows while fewer than half the permits are in use,
+ * since latency then says nothing about capacity.
+ *
+ * Calls beyond the limit wait in FIFO order. A call arriving to a full queue fails at
+ * once with {@link LimitExceededException.Reason#QUEUE_FULL}; one that waits longer
+ * than the maximum queue time fails with {@link LimitExceededException.Reason#QUEUE_TIMEOUT}.
+ */
+public class AdaptiveLimiter {
+
+    // Weight of each sample in the long-term latency average
+    private static final double LONG_RTT_ALPHA = 0.05;
+    // Share of each computed limit blended into the current one
+    private static final double SMOOTHING = 0.2;
+    private static final double DROP_BACKOFF = 0.75;
+
+    private final String name;
+    private final int minLimit;
+    private final int maxLimit;
+    private final int maxQueue;
+    private final Duration maxQueueWait;
+    private final double tolerance;
+
+    private final Object lock = new Object();
+    private final Deque<Waiter> waiters = new ArrayDeque<>();
+    private double limit;
+    private int inFlight;
+    private double longRttNanos;
+
+    private final LongAdder accepted = new LongAdder();
+    private final LongAdder queuedTotal = new LongAdder();
+    private final LongAdder rejectedQueueFull = new LongAdder();
+    private final LongAdder rejectedQueueTimeout = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+
+    /**
+     * @param initialLimit Concurrent calls allowed before any latency is observed
+     * @param maxQueue     Calls allowed to wait for a permit
+     * @param maxQueueWait Longest a call may wait for a permit
+     * @param tolerance    How much slower than the long-term average a call may be
+     *                     before the limit shrinks, e.g. 2.0
+     */
+    public AdaptiveLimiter(String name, int initialLimit, int minLimit, int maxLimit, int maxQueue,
+            Duration maxQueueWait, double tolerance) {
+        if (minLimit < 1 || maxLimit < minLimit || maxQueue < 0 || tolerance < 1.0) {
+            throw new IllegalArgumentException("Invalid limits for " + name);
+        }
+        this.name = name;
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.maxQueue = maxQueue;
+        this.maxQueueWait = maxQueueWait;
+        this.tolerance = tolerance;
+        this.limit = Math.max(minLimit, Math.min(maxLimit, initialLimit));
+    }
+
+    /**
+     * Runs the call once a permit is free. The call is not subscribed at all if it is
+     * rejected, and its permit is returned when it completes, fails or is cancelled.
+     */
+    public <T> Mono<T> run(Supplier<Mono<T>> call) {
+        return acquire().then(Mono.defer(() -> {
+            long start = System.nanoTime();
+            AtomicInteger released = new AtomicInteger();
+            Mono<T> source;
+            try {
+                source = call.get();
+            } catch (RuntimeException e) {
+                source = Mono.error(e);
+            }
+            return source
+                    .doOnSuccess(value -> {
+                        if (released.compareAndSet(0, 1)) {
+                            release(System.nanoTime() - start, Outcome.SUCCESS);
+                        }
+                    })
+                    .doOnError(e -> {
+                        if (released.compareAndSet(0, 1)) {
+                            release(System.nanoTime() - start, Outcome.DROPPED);
+                        }
+                    })
+                    .doOnCancel(() -> {
+                        if (released.compareAndSet(0, 1)) {
+                            release(0, Outcome.IGNORED);
+                        }
+                    });
+        }));
+    }
+
+    public int getLimit() {
+        synchronized (lock) {
+            return (int) limit;
+        }
+    }
+
+    public int getInFlight() {
+        synchronized (lock) {
+            return inFlight;
+        }
+    }
+
+    public int getQueued() {
+        synchronized (lock) {
+            return waiters.size();
+        }
+    }
+
+    public long rejectedCount() {
+        return rejectedQueueFull.sum() + rejectedQueueTimeout.sum();
+    }
+
+    public Map<String, Object> statistics() {
+        Map<String, Object> stats = new HashMap<>();
+        synchronized (lock) {
+            stats.put("limit", (int) limit);
+            stats.put("inFlight", inFlight);
+            stats.put("queued", waiters.size());
+            stats.put("averageLatencyMs", Math.round(longRttNanos / 1_000_000));
+        }
+        stats.put("maxQueue", maxQueue);
+        stats.put("accepted", accepted.sum());
+        stats.put("waited", queuedTotal.sum());
+        stats.put("rejectedQueueFull", rejectedQueueFull.sum());
+        stats.put("rejectedQueueTimeout", rejectedQueueTimeout.sum());
+        stats.put("dropped", dropped.sum());
+        return stats;
+    }
+
+    private Mono<Void> acquire() {
+        return Mono.defer(() -> {
+            Waiter waiter;
+            synchronized (lock) {
+                if (inFlight < (int) limit && waiters.isEmpty()) {
+                    inFlight++;
+                    accepted.increment();
+                    return Mono.empty();
+                }
+                if (waiters.size() >= maxQueue) {
+                    rejectedQueueFull.increment();
+                    return Mono.error(new LimitExceededException(LimitExceededException.Reason.QUEUE_FULL,
+                            name + " is busy: " + inFlight + " running and " + waiters.size() + " waiting",
+                            retryAfterSeconds()));
+                }
+                waiter = new Waiter();
+                waiters.addLast(waiter);
+                queuedTotal.increment();
+            }
+            return waiter.granted.asMono()
+                    .timeout(maxQueueWait)
+                    .onErrorResume(TimeoutException.class, e -> {
+                        if (!waiter.cancel()) {
+                            // Granted just as the wait ran out: take the permit after all
+                            return Mono.empty();
+                        }
+                        rejectedQueueTimeout.increment();
+                        long retryAfter;
+                        synchronized (lock) {
+                            waiters.remove(waiter);
+                            retryAfter = retryAfterSeconds();
+                        }
+                        return Mono.error(new LimitExceededException(LimitExceededException.Reason.QUEUE_TIMEOUT,
+                                name + " did not free up within " + maxQueueWait.toSeconds() + "s", retryAfter));
+                    })
+                    .doOnCancel(() -> {
+                        if (waiter.cancel()) {
+                            synchronized (lock) {
+                                waiters.remove(waiter);
+                            }
+                        } else {
+                            // The permit was granted to a caller that has gone away
+                            release(0, Outcome.IGNORED);
+                        }
+                    });
+        });
+    }
+
+    private void release(long rttNanos, Outcome outcome) {
+        List<Waiter> granted = new ArrayList<>();
+        synchronized (lock) {
+            if (outcome == Outcome.SUCCESS) {
+                adjustLimit(rttNanos);
+            } else if (outcome == Outcome.DROPPED) {
+                dropped.increment();
+                limit = Math.max(minLimit, limit * DROP_BACKOFF);
+            }
+            inFlight--;
+            while (inFlight < (int) limit && !waiters.isEmpty()) {
+                Waiter next = waiters.pollFirst();
+                if (next.grant()) {
+                    inFlight++;
+                    accepted.increment();
+                    granted.add(next);
+                }
+            }
+        }
+        granted.forEach(waiter -> waiter.granted.tryEmitEmpty());
+    }
+
+    // Called with the lock held
+    private void adjustLimit(long rttNanos) {
+        double rtt = Math.max(1, rttNanos);
+        if (longRttNanos == 0) {
+            longRttNanos = rtt;
+            return;
+        }
+        longRttNanos += (rtt - longRttNanos) * LONG_RTT_ALPHA;
+        // Let the average follow quickly when latency has dropped for good
+        if (longRttNanos > 2 * rtt) {
+            longRttNanos = (longRttNanos + rtt) / 2;
+        }
+        double gradient = Math.max(0.5, Math.min(1.0, tolerance * longRttNanos / rtt));
+        boolean appLimited = inFlight < limit / 2 && waiters.isEmpty();
+        if (gradient >= 1.0 && appLimited) {
+            return;
+        }
+        double target = limit * gradient + Math.sqrt(limit);
+        limit = Math.max(minLimit, Math.min(maxLimit, limit * (1 - SMOOTHING) + target * SMOOTHING));
+    }
+
+    // Called with the lock held
+    private long retryAfterSeconds() {
+        if (longRttNanos == 0) {
+            return 1;
+        }
+        // Roughly until the calls ahead of this one have finished
+        double perCall = longRttNanos / Math.max(1, (int) limit);
+        return Math.max(1, Math.round((waiters.size() + 1) * perCall / 1_000_000_000));
+    }
+
+    private enum Outcome {
+        SUCCESS, DROPPED, IGNORED
+    }
+
+    private static final class Waiter {
+        private static final int WAITING = 0;
+        private static final int GRANTED = 1;
+        private static final int CANCELLED = 2;
+
+        final Sinks.Empty<Void> granted = Sinks.empty();
+        final AtomicInteger state = new AtomicInteger(WAITING);
+
+        boolean grant() {
+            return state.compareAndSet(WAITING, GRANTED);
+        }
+
+        /**
+         * Returns false if the permit was already granted
+         */
+        boolean cancel() {
+            return state.compareAndSet(WAITING, CANCELLED) || state.get() == CANCELLED;
+        }
+    }
+}
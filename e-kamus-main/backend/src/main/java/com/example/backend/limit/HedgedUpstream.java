@@ -0,0 +1,246 @@
+package com.example.backend.limit;
+
+import reactor.core.Exceptions;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * Calls one upstream service that may be served by several endpoints, with timeouts
+ * and hedging that follow each endpoint's observed latency.
+ *
+ * - Every endpoint keeps a window of its recent call latencies. Once it holds enough
+ *   samples, a call times out after the window's p99 times the timeout multiplier,
+ *   kept between the minimum and maximum timeout; before that, after the maximum.
+ *   A call that times out is recorded at the time it was given, so the timeout grows
+ *   again if the endpoint becomes slower for good.
+ * - Calls go to the first endpoint. When more endpoints are configured and the call
+ *   has not answered within the first endpoint's p95, the same call is sent to the
+ *   next one in turn, and whichever answers first is used; the other is cancelled.
+ *   A call that fails before then is sent on at once.
+ *
+ * With a single endpoint this only bounds each call by its adaptive timeout.
+ */
+public class HedgedUpstream {
+
+    // Samples needed before percentiles replace the maximum timeout and enable hedging
+    private static final int MIN_SAMPLES = 20;
+
+    private final String name;
+    private final List<Endpoint> endpoints;
+    private final Duration minTimeout;
+    private final Duration maxTimeout;
+    private final double timeoutMultiplier;
+    private final AtomicInteger nextHedge = new AtomicInteger();
+
+    private final LongAdder calls = new LongAdder();
+    private final LongAdder hedged = new LongAdder();
+    private final LongAdder hedgeWins = new LongAdder();
+
+    /**
+     * @param urls              Endpoints serving the same requests; the first one
+     *                          receives every call, the others hedged attempts
+     * @param timeoutMultiplier Factor applied to the p99 latency, e.g. 3.0
+     * @param windowSize        Latency samples kept per endpoint
+     */
+    public HedgedUpstream(String name, List<String> urls, Duration minTimeout, Duration maxTimeout,
+            double timeoutMultiplier, int windowSize) {
+        if (urls.isEmpty() || minTimeout.compareTo(maxTimeout) > 0 || timeoutMultiplier < 1.0
+                || windowSize < MIN_SAMPLES) {
+            throw new IllegalArgumentException("Invalid upstream settings for " + name);
+        }
+        this.name = name;
+        this.endpoints = urls.stream().map(url -> new Endpoint(url, windowSize)).toList();
+        this.minTimeout = minTimeout;
+        this.maxTimeout = maxTimeout;
+        this.timeoutMultiplier = timeoutMultiplier;
+    }
+
+    /**
+     * Parses a comma-separated list of endpoint URLs, skipping blanks and duplicates
+     */
+    public static List<String> urls(String primary, String others) {
+        List<String> urls = new ArrayList<>();
+        urls.add(primary.trim());
+        Arrays.stream(others.split(",")).map(String::trim)
+                .filter(url -> !url.isEmpty() && !urls.contains(url))
+                .forEach(urls::add);
+        return urls;
+    }
+
+    /**
+     * Returns the endpoint that receives every call
+     */
+    public String primaryUrl() {
+        return endpoints.get(0).url;
+    }
+
+    /**
+     * Returns the timeout a call to the endpoint is given now
+     */
+    public Duration timeout(String url) {
+        for (Endpoint endpoint : endpoints) {
+            if (endpoint.url.equals(url)) {
+                return timeout(endpoint);
+            }
+        }
+        return maxTimeout;
+    }
+
+    /**
+     * Runs the request against the first endpoint, hedged on the next one as described
+     * above. A call that times out fails with a {@link TimeoutException}; when every
+     * attempt fails, the first attempt's error is passed on.
+     *
+     * @param request Builds the call for an endpoint URL; built again for a hedge
+     */
+    public <T> Mono<T> call(Function<String, Mono<T>> request) {
+        return Mono.defer(() -> {
+            calls.increment();
+            Endpoint primary = endpoints.get(0);
+            if (endpoints.size() == 1) {
+                return attempt(primary, request, false);
+            }
+            Endpoint backup = endpoints.get(1 + Math.floorMod(nextHedge.getAndIncrement(), endpoints.size() - 1));
+            Sinks.Empty<Void> primaryFailed = Sinks.empty();
+            Mono<T> first = attempt(primary, request, false)
+                    .doOnError(e -> primaryFailed.tryEmitEmpty());
+
+            Duration hedgeDelay = primary.percentile(0.95);
+            Mono<Void> trigger = hedgeDelay == null ? primaryFailed.asMono()
+                    : Mono.firstWithSignal(Mono.delay(hedgeDelay).then(), primaryFailed.asMono());
+            Mono<T> second = trigger.then(Mono.defer(() -> {
+                hedged.increment();
+                return attempt(backup, request, true);
+            }));
+
+            return Mono.firstWithValue(first, second)
+                    // Reactor reports all attempts failing as one error carrying each failure
+                    .onErrorMap(NoSuchElementException.class,
+                            e -> e.getCause() != null ? Exceptions.unwrapMultiple(e.getCause()).get(0) : e);
+        });
+    }
+
+    public Map<String, Object> statistics() {
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("calls", calls.sum());
+        stats.put("hedged", hedged.sum());
+        stats.put("hedgeWins", hedgeWins.sum());
+        stats.put("minTimeoutMs", minTimeout.toMillis());
+        stats.put("maxTimeoutMs", maxTimeout.toMillis());
+        Map<String, Object> perEndpoint = new LinkedHashMap<>();
+        for (Endpoint endpoint : endpoints) {
+            Map<String, Object> endpointStats = new HashMap<>();
+            Duration p50 = endpoint.percentile(0.5);
+            Duration p95 = endpoint.percentile(0.95);
+            Duration p99 = endpoint.percentile(0.99);
+            endpointStats.put("samples", endpoint.sampleCount());
+            endpointStats.put("p50Ms", p50 == null ? -1 : p50.toMillis());
+            endpointStats.put("p95Ms", p95 == null ? -1 : p95.toMillis());
+            endpointStats.put("p99Ms", p99 == null ? -1 : p99.toMillis());
+            endpointStats.put("timeoutMs", timeout(endpoint).toMillis());
+            endpointStats.put("calls", endpoint.calls.sum());
+            endpointStats.put("timeouts", endpoint.timeouts.sum());
+            endpointStats.put("failures", endpoint.failures.sum());
+            perEndpoint.put(endpoint.url, endpointStats);
+        }
+        stats.put("endpoints", perEndpoint);
+        return stats;
+    }
+
+    private <T> Mono<T> attempt(Endpoint endpoint, Function<String, Mono<T>> request, boolean hedge) {
+        return Mono.defer(() -> {
+            Duration timeout = timeout(endpoint);
+            long start = System.nanoTime();
+            endpoint.calls.increment();
+            Mono<T> call;
+            try {
+                call = request.apply(endpoint.url);
+            } catch (RuntimeException e) {
+                call = Mono.error(e);
+            }
+            return call
+                    .switchIfEmpty(Mono.error(() -> new IllegalStateException(
+                            name + " at " + endpoint.url + " returned no reply")))
+                    .timeout(timeout, Mono.error(() -> new TimeoutException(
+                            name + " at " + endpoint.url + " did not answer within " + timeout.toMillis() + " ms")))
+                    .doOnSuccess(value -> {
+                        endpoint.record(System.nanoTime() - start);
+                        if (hedge) {
+                            hedgeWins.increment();
+                        }
+                    })
+                    .doOnError(e -> {
+                        if (e instanceof TimeoutException) {
+                            endpoint.timeouts.increment();
+                            endpoint.record(System.nanoTime() - start);
+                        } else {
+                            endpoint.failures.increment();
+                        }
+                    });
+        });
+    }
+
+    private Duration timeout(Endpoint endpoint) {
+        Duration p99 = endpoint.percentile(0.99);
+        if (p99 == null) {
+            return maxTimeout;
+        }
+        long millis = Math.round(p99.toMillis() * timeoutMultiplier);
+        return Duration.ofMillis(Math.max(minTimeout.toMillis(), Math.min(maxTimeout.toMillis(), millis)));
+    }
+
+    private static final class Endpoint {
+        final String url;
+        final LongAdder calls = new LongAdder();
+        final LongAdder timeouts = new LongAdder();
+        final LongAdder failures = new LongAdder();
+        // Ring buffer of the latest latencies in nanoseconds
+        private final long[] samples;
+        private int count;
+        private int next;
+
+        Endpoint(String url, int windowSize) {
+            this.url = url;
+            this.samples = new long[windowSize];
+        }
+
+        synchronized void record(long nanos) {
+            samples[next] = nanos;
+            next = (next + 1) % samples.length;
+            count = Math.min(count + 1, samples.length);
+        }
+
+        synchronized int sampleCount() {
+            return count;
+        }
+
+        /**
+         * Returns the latency at the quantile, or null while there are too few samples
+         */
+        Duration percentile(double quantile) {
+            long[] sorted;
+            synchronized (this) {
+                if (count < MIN_SAMPLES) {
+                    return null;
+                }
+                sorted = Arrays.copyOf(samples, count);
+            }
+            Arrays.sort(sorted);
+            int index = (int) Math.min(sorted.length - 1, Math.ceil(quantile * sorted.length) - 1);
+            return Duration.ofNanos(sorted[Math.max(0, index)]);
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package com.example.backend.limit;
+
+/**
+ * Thrown when a call is turned away by an {@link AdaptiveLimiter} instead of waiting
+ * indefinitely. Controllers answer it with 429 when the wait queue was full and 503
+ * when the call waited too long.
+ */
+public class LimitExceededException extends RuntimeException {
+
+    public enum Reason {
+        QUEUE_FULL,
+        QUEUE_TIMEOUT
+    }
+
+    private final Reason reason;
+    private final long retryAfterSeconds;
+
+    public LimitExceededException(Reason reason, String message, long retryAfterSeconds) {
+        super(message);
+        this.reason = reason;
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public Reason getReason() {
+        return reason;
+    }
+
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
@@ -0,0 +1,32 @@
+package com.example.backend.model;
+
+import java.util.List;
+
+public class CacheContainsRequest {
+    private List<String> words;
+    private String language;
+
+    public CacheContainsRequest() {
+    }
+
+    public CacheContainsRequest(List<String> words, String language) {
+        this.words = words;
+        this.language = language;
+    }
+
+    public List<String> getWords() {
+        return words;
+    }
+
+    public void setWords(List<String> words) {
+        this.words = words;
+    }
+
+    public String getLanguage() {
+        return language;
+    }
+
+    public void setLanguage(String language) {
+        this.language = language;
+    }
+}
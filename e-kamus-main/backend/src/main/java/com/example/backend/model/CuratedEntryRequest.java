@@ -0,0 +1,54 @@
+package com.example.backend.model;
+
+import java.util.List;
+
+public class CuratedEntryRequest {
+    private String mandarinWord;
+    private String pronunciation;
+    private String explanation;
+    private List<String> examples;
+    private Boolean adjective;
+
+    public CuratedEntryRequest() {
+    }
+
+    public String getMandarinWord() {
+        return mandarinWord;
+    }
+
+    public void setMandarinWord(String mandarinWord) {
+        this.mandarinWord = mandarinWord;
+    }
+
+    public String getPronunciation() {
+        return pronunciation;
+    }
+
+    public void setPronunciation(String pronunciation) {
+        this.pronunciation = pronunciation;
+    }
+
+    public String getExplanation() {
+        return explanation;
+    }
+
+    public void setExplanation(String explanation) {
+        this.explanation = explanation;
+    }
+
+    public List<String> getExamples() {
+        return examples;
+    }
+
+    public void setExamples(List<String> examples) {
+        this.examples = examples;
+    }
+
+    public Boolean getAdjective() {
+        return adjective;
+    }
+
+    public void setAdjective(Boolean adjective) {
+        this.adjective = adjective;
+    }
+}
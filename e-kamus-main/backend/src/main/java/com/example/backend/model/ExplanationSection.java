@@ -0,0 +1,40 @@
+package com.example.backend.model;
+
+/**
+ * One part of a lookup sent ahead of the full response while it is being generated,
+ * e.g. the explanation once Ollama has moved on to the pinyin
+ */
+public class ExplanationSection {
+    public static final String MANDARIN_WORD = "mandarinWord";
+    public static final String EXPLANATION = "explanation";
+    public static final String PINYIN = "pinyin";
+    public static final String EXAMPLES = "examples";
+    public static final String ADJECTIVE = "adjective";
+
+    private String name;
+    private String content;
+
+    public ExplanationSection() {
+    }
+
+    public ExplanationSection(String name, String content) {
+        this.name = name;
+        this.content = content;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public String getContent() {
+        return content;
+    }
+
+    public void setContent(String content) {
+        this.content = content;
+    }
+}
@@ -0,0 +1,206 @@
+package com.example.backend.service;
+
+import com.example.backend.cache.CachedAiResponse;
+import com.example.backend.model.AiResponse;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * CacheSnapshotService exports the AI and translation caches as newline-delimited JSON
+ * and imports such a snapshot, so a new instance can be seeded from a warm one instead
+ * of regenerating every word through Ollama.
+ *
+ * Each line is one entry:
+ * - {"type":"ai","key":"Mandarin:吃","promptVersion":"…","createdAt":…,"response":{…}}
+ * - {"type":"translation","key":"ms>zh:makan","value":"吃"}
+ *
+ * Exports are gzip-compressed and written entry by entry; imports accept the same
+ * format gzipped or plain and are read line by line, so neither side holds the whole
+ * snapshot in memory.
+ *
+ * Importing writes straight into the caches and the persistent store, so it is off
+ * unless app.cache.import.enabled is set, and then needs app.cache.import.token.
+ * Imported explanations keep their creation time (capped at now). One exported under
+ * this instance's current prompt version is served as is; any other is treated as
+ * stale and regenerated in the background on first use.
+ */
+@Service
+public class CacheSnapshotService {
+
+    private static final Logger logger = LoggerFactory.getLogger(CacheSnapshotService.class);
+    private static final String TYPE_AI = "ai";
+    private static final String TYPE_TRANSLATION = "translation";
+
+    private final DeepseekAiService deepseekAiService;
+    private final TranslationService translationService;
+    private final ObjectMapper objectMapper;
+    private final boolean importEnabled;
+    private final byte[] importToken;
+
+    public CacheSnapshotService(DeepseekAiService deepseekAiService, TranslationService translationService,
+            ObjectMapper objectMapper,
+            @Value("${app.cache.import.enabled:false}") boolean importEnabled,
+            @Value("${app.cache.import.token:}") String importToken) {
+        if (importEnabled && importToken.isBlank()) {
+            throw new IllegalStateException("app.cache.import.token must be set when cache import is enabled");
+        }
+        this.deepseekAiService = deepseekAiService;
+        this.translationService = translationService;
+        this.objectMapper = objectMapper;
+        this.importEnabled = importEnabled;
+        this.importToken = importToken.getBytes(StandardCharsets.UTF_8);
+    }
+
+    public boolean isImportEnabled() {
+        return importEnabled;
+    }
+
+    /**
+     * Returns whether a request presented the import token; always false while import
+     * is disabled
+     */
+    public boolean isImportAuthorized(String token) {
+        return importEnabled && token != null
+                && MessageDigest.isEqual(importToken, token.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Writes every cached entry to the stream as gzipped NDJSON
+     *
+     * @return Number of entries written
+     */
+    public int export(OutputStream out) throws IOException {
+        AtomicInteger written = new AtomicInteger();
+        GZIPOutputStream gzip = new GZIPOutputStream(out, 64 * 1024);
+        try {
+            deepseekAiService.forEachCachedExplanation((key, entry) -> {
+                ObjectNode line = objectMapper.createObjectNode();
+                line.put("type", TYPE_AI);
+                line.put("key", key);
+                line.put("promptVersion", entry.getPromptVersion());
+                line.put("createdAt", entry.getCreatedAt());
+                line.set("response", objectMapper.valueToTree(entry.getResponse()));
+                writeLine(gzip, line);
+                written.incrementAndGet();
+            });
+            translationService.forEachCachedTranslation((key, value) -> {
+                ObjectNode line = objectMapper.createObjectNode();
+                line.put("type", TYPE_TRANSLATION);
+                line.put("key", key);
+                line.put("value", value);
+                writeLine(gzip, line);
+                written.incrementAndGet();
+            });
+        } catch (UncheckedIOException e) {
+            // The client went away mid-download
+            throw e.getCause();
+        }
+        gzip.finish();
+        logger.info("Exported {} cache entries", written.get());
+        return written.get();
+    }
+
+    /**
+     * Reads a snapshot produced by {@link #export(OutputStream)}, gzipped or not.
+     * Malformed lines are counted and skipped rather than failing the whole import.
+     *
+     * @param overwrite Whether imported entries replace ones already cached
+     * @return Counts of imported, skipped and invalid entries
+     */
+    public Map<String, Object> importSnapshot(InputStream in, boolean overwrite) throws IOException {
+        int imported = 0;
+        int skipped = 0;
+        int invalid = 0;
+        try (BufferedReader reader = new BufferedReader(
+                new InputStreamReader(decompressIfNeeded(in), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.isBlank()) {
+                    continue;
+                }
+                try {
+                    if (importLine(objectMapper.readTree(line), overwrite)) {
+                        imported++;
+                    } else {
+                        skipped++;
+                    }
+                } catch (JsonProcessingException | IllegalArgumentException e) {
+                    invalid++;
+                    logger.debug("Skipping invalid snapshot line: {}", e.getMessage());
+                }
+            }
+        }
+        logger.info("Imported cache snapshot: {} imported, {} skipped, {} invalid", imported, skipped, invalid);
+
+        Map<String, Object> result = new HashMap<>();
+        result.put("imported", imported);
+        result.put("skipped", skipped);
+        result.put("invalid", invalid);
+        return result;
+    }
+
+    private boolean importLine(JsonNode line, boolean overwrite) throws JsonProcessingException {
+        String type = line.path("type").asText();
+        String key = line.path("key").asText(null);
+        if (key == null) {
+            throw new IllegalArgumentException("Entry has no key");
+        }
+        if (TYPE_AI.equals(type)) {
+            JsonNode response = line.get("response");
+            if (response == null || !response.isObject()) {
+                throw new IllegalArgumentException("AI entry has no response: " + key);
+            }
+            // The prompt version is kept only if it is this instance's current one;
+            // importCachedExplanation drops any other
+            long now = System.currentTimeMillis();
+            CachedAiResponse entry = new CachedAiResponse(objectMapper.treeToValue(response, AiResponse.class),
+                    line.path("promptVersion").asText(CachedAiResponse.UNKNOWN_VERSION),
+                    Math.min(now, line.path("createdAt").asLong(now)));
+            return deepseekAiService.importCachedExplanation(key, entry, overwrite);
+        }
+        if (TYPE_TRANSLATION.equals(type)) {
+            return translationService.importCachedTranslation(key, line.path("value").asText(null), overwrite);
+        }
+        throw new IllegalArgumentException("Unknown entry type: " + type);
+    }
+
+    private void writeLine(OutputStream out, JsonNode line) {
+        try {
+            out.write(objectMapper.writeValueAsBytes(line));
+            out.write('\n');
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static InputStream decompressIfNeeded(InputStream in) throws IOException {
+        BufferedInputStream buffered = new BufferedInputStream(in);
+        buffered.mark(2);
+        int first = buffered.read();
+        int second = buffered.read();
+        buffered.reset();
+        boolean gzipped = first == (GZIPInputStream.GZIP_MAGIC & 0xFF) && second == (GZIPInputStream.GZIP_MAGIC >> 8);
+        return gzipped ? new GZIPInputStream(buffered, 64 * 1024) : buffered;
+    }
+}
@@ -0,0 +1,190 @@
+package com.example.backend.service;
+
+import com.example.backend.model.DictionaryResponse;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * CacheWarmupService precomputes dictionary responses for the vocabularies the
+ * application already knows about (curated translations, pinyin mappings and the
+ * words the AI service special-cases), so the first user to look one up does not
+ * pay for a cold LLM call.
+ *
+ * The job starts after the application reports ready and runs in the background:
+ * - at most app.warmup.concurrency words are generated at once
+ * - it yields to live traffic, waiting while any lookup it did not start is running
+ * - it stops early after repeated failures (e.g. Ollama or LibreTranslate are down)
+ */
+@Service
+public class CacheWarmupService {
+
+    private static final Logger logger = LoggerFactory.getLogger(CacheWarmupService.class);
+    private static final Duration IDLE_POLL_INTERVAL = Duration.ofSeconds(1);
+
+    private final DictionaryService dictionaryService;
+    private final DeepseekAiService deepseekAiService;
+    private final TranslationMappingService translationMappingService;
+    private final PinyinService pinyinService;
+
+    private final boolean enabled;
+    private final int concurrency;
+    private final Duration initialDelay;
+    private final int maxConsecutiveFailures;
+
+    private final AtomicInteger total = new AtomicInteger();
+    private final AtomicInteger completed = new AtomicInteger();
+    private final AtomicInteger failed = new AtomicInteger();
+    private final AtomicInteger consecutiveFailures = new AtomicInteger();
+    // Warm-up lookups currently running, so they are not mistaken for live traffic
+    private final AtomicInteger active = new AtomicInteger();
+    private volatile String state = "pending";
+    private volatile Disposable job;
+    private final Scheduler scheduler = Schedulers.fromExecutorService(
+            Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "cache-warmup");
+                thread.setDaemon(true);
+                thread.setPriority(Thread.MIN_PRIORITY);
+                return thread;
+            }));
+
+    public CacheWarmupService(DictionaryService dictionaryService,
+            DeepseekAiService deepseekAiService,
+            TranslationMappingService translationMappingService,
+            PinyinService pinyinService,
+            MeterRegistry meterRegistry,
+            @Value("${app.warmup.enabled:true}") boolean enabled,
+            @Value("${app.warmup.concurrency:1}") int concurrency,
+            @Value("${app.warmup.initial-delay-seconds:30}") long initialDelaySeconds,
+            @Value("${app.warmup.max-consecutive-failures:5}") int maxConsecutiveFailures) {
+        this.dictionaryService = dictionaryService;
+        this.deepseekAiService = deepseekAiService;
+        this.translationMappingService = translationMappingService;
+        this.pinyinService = pinyinService;
+        this.enabled = enabled;
+        this.concurrency = Math.max(1, concurrency);
+        this.initialDelay = Duration.ofSeconds(Math.max(0, initialDelaySeconds));
+        this.maxConsecutiveFailures = Math.max(1, maxConsecutiveFailures);
+
+        Gauge.builder("ekamus.warmup.words", total, AtomicInteger::get)
+                .description("Words scheduled for cache warm-up").register(meterRegistry);
+        Gauge.builder("ekamus.warmup.completed", completed, AtomicInteger::get)
+                .description("Words warmed successfully").register(meterRegistry);
+        Gauge.builder("ekamus.warmup.failed", failed, AtomicInteger::get)
+                .description("Words whose warm-up failed").register(meterRegistry);
+    }
+
+    /**
+     * Starts the warm-up once the application is ready, so it never delays readiness
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void startWarmup() {
+        if (!enabled || !deepseekAiService.isCacheEnabled()) {
+            logger.info("Cache warm-up is disabled");
+            state = "disabled";
+            return;
+        }
+        List<String> words = collectVocabulary();
+        total.set(words.size());
+        state = "running";
+        logger.info("Starting cache warm-up for {} words in {}s (concurrency {})", words.size(),
+                initialDelay.getSeconds(), concurrency);
+
+        job = Flux.fromIterable(words)
+                .delaySubscription(initialDelay, scheduler)
+                .takeWhile(word -> consecutiveFailures.get() < maxConsecutiveFailures)
+                .flatMap(word -> awaitIdle().then(Mono.defer(() -> warm(word))), concurrency)
+                .subscribeOn(scheduler)
+                .doFinally(signal -> {
+                    state = consecutiveFailures.get() >= maxConsecutiveFailures ? "aborted" : "finished";
+                    logger.info("Cache warm-up {}: {} of {} words warmed, {} failed", state, completed.get(),
+                            total.get(), failed.get());
+                })
+                .subscribe();
+    }
+
+    /**
+     * Returns the warm-up state and how many words have been processed
+     */
+    public Map<String, Object> getProgress() {
+        Map<String, Object> progress = new HashMap<>();
+        progress.put("state", state);
+        progress.put("total", total.get());
+        progress.put("completed", completed.get());
+        progress.put("failed", failed.get());
+        return progress;
+    }
+
+    private List<String> collectVocabulary() {
+        // Canonical form -> original, so spelling variants are only generated once
+        Map<String, String> words = new LinkedHashMap<>();
+        for (String word : translationMappingService.getAllMalayWords()) {
+            words.putIfAbsent(TextNormalizer.normalize(word), word);
+        }
+        for (String word : deepseekAiService.getCuratedWords()) {
+            words.putIfAbsent(TextNormalizer.normalize(word), word);
+        }
+        for (String word : pinyinService.getAllMappings().keySet()) {
+            words.putIfAbsent(TextNormalizer.normalize(word), word);
+        }
+        return new ArrayList<>(words.values());
+    }
+
+    private Mono<Void> awaitIdle() {
+        return Mono.defer(() -> deepseekAiService.getInFlightCount() > active.get()
+                ? Mono.delay(IDLE_POLL_INTERVAL, scheduler).then(awaitIdle())
+                : Mono.empty());
+    }
+
+    private Mono<DictionaryResponse> warm(String word) {
+        active.incrementAndGet();
+        return dictionaryService.warmWord(word)
+                .doOnNext(response -> {
+                    if (deepseekAiService.isInCache(response.getMandarinWord(), "Mandarin")) {
+                        completed.incrementAndGet();
+                        consecutiveFailures.set(0);
+                        logger.debug("Warmed '{}' -> '{}'", word, response.getMandarinWord());
+                    } else {
+                        failed.incrementAndGet();
+                        consecutiveFailures.incrementAndGet();
+                        logger.warn("Warm-up of '{}' did not produce a cacheable result", word);
+                    }
+                })
+                .onErrorResume(e -> {
+                    failed.incrementAndGet();
+                    consecutiveFailures.incrementAndGet();
+                    logger.warn("Warm-up of '{}' failed: {}", word, e.getMessage());
+                    return Mono.empty();
+                })
+                .doFinally(signal -> active.decrementAndGet());
+    }
+
+    @PreDestroy
+    public void stop() {
+        Disposable running = job;
+        if (running != null) {
+            running.dispose();
+        }
+        scheduler.dispose();
+    }
+}
@@ -1,16 +1,46 @@
 package com.example.backend.service;
 
+import com.example.backend.cache.AiResponseCache;
+import com.example.backend.cache.AiResponseCodec;
+import com.example.backend.cache.BackgroundQueue;
+import com.example.backend.cache.CachedAiResponse;
+import com.example.backend.cache.MicroBatcher;
+import com.example.backend.cache.SharedCacheTier;
+import com.example.backend.cache.SingleFlight;
+import com.example.backend.cluster.ClusterRouter;
+import com.example.backend.limit.AdaptiveLimiter;
+import com.example.backend.limit.HedgedUpstream;
+import com.example.backend.limit.LimitExceededException;
 import com.example.backend.model.AiResponse;
+import com.example.backend.model.ExplanationSection;
+import jakarta.annotation.PostConstruct;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Profile;
 import org.springframework.stereotype.Service;
 import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 import java.util.stream.Collectors;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -20,9 +50,68 @@ import org.slf4j.LoggerFactory;
 public class DeepseekAiService {
 
     private static final Logger logger = LoggerFactory.getLogger(DeepseekAiService.class);
+    private static final String SHARED_NAMESPACE = "ai";
+    // Marks the start of each word's answer in a batched generation
+    private static final Pattern BATCH_MARKER = Pattern.compile("(?m)^[ \\t=#*]*WORD\\s+(\\d+)\\b[^\\n]*$");
+
+    private static final String SYSTEM_PROMPT = "You are a language expert with superior fluency in both Malay (Bahasa Malaysia/Melayu) and Mandarin Chinese. Always respond directly with the final answer in the exact format requested. The explanations must always be written in proper Malay language. IMPORTANT: DO NOT USE ANY MARKDOWN FORMATTING IN YOUR RESPONSE. Avoid using any asterisks (*), underscores (_), backticks (`), tildes (~), or any other formatting characters in your text. Provide plain, unformatted text only. Never use <think> tags or show your internal reasoning process. You have extensive knowledge of everyday Malay words like 'makan', 'tidur', 'cantik', 'muram', 'layu', and 'gerun' and their Mandarin Chinese equivalents.";
+
+    private static final String PROMPT_PREAMBLE =
+            "You are a language expert teaching Simplified Mandarin Chinese who teaches Chinese and needs accurate linguistic details for practical use.\n\n" +
+            "DO NOT USE <think> TAGS OR INTERNAL DELIBERATION. RESPOND IMMEDIATELY WITH THE FINAL ANSWER.\n\n" +
+            "IMPORTANT: DO NOT USE ANY FORMATTING such as **, _, ~~, or any other markdown. Plain text only with no asterisks or formatting symbols.\n\n";
+
+    // Format instructions shared by single-word and batched prompts
+    private static final String RESPONSE_FORMAT =
+            "The response must be clear, structured, and follow the exact format below:\n\n" +
+            "1. A simple explanation of the word's meaning written ONLY in Malay language (Bahasa Malaysia/Melayu). Start directly with the Chinese word and its meaning. Do NOT use 'Kalimat Mandarin' or any introductory phrases. THE EXPLANATION MUST BE IN MALAY LANGUAGE, NOT IN CHINESE.\n" +
+            "2. Provide the correct pinyin (Mandarin romanization) for the word.\n" +
+            "3. Three example sentences using this word in real context. Each should include:\n" +
+            "   - The original sentence in Chinese (without any label or number)\n" +
+            "   - Its translation in Malay (without any label or number)\n" +
+            "4. State whether this word is an adjective in Chinese grammar (answer with YES or NO).\n\n" +
+            "Use the following EXACT section headers in your response:\n\n" +
+            "EXPLANATION:\n[in pinyin/latin chinese word] bermaksud [simple explanation written ONLY in Bahasa Malaysia/Melayu, not in Chinese or any other language]\n\n" +
+            "PINYIN:\n[Romanized pinyin]\n\n" +
+            "EXAMPLES:\n" +
+            "[Chinese sentence - no numbers]\n" +
+            "[Malay translation - no numbers]\n" +
+            "\n" +
+            "[Chinese sentence - no numbers]\n" +
+            "[Malay translation - no numbers]\n" +
+            "\n" +
+            "[Chinese sentence - no numbers]\n" +
+            "[Malay translation - no numbers]\n\n" +
+            "IMPORTANT: Do NOT add any numbers, bullets, or labels to the examples. Just the sentences.\n\n" +
+            "IS_ADJECTIVE:\n[YES or NO]";
+
+    // Format instructions when Ollama is constrained to StructuredExplanationParser.SCHEMA
+    private static final String STRUCTURED_FORMAT =
+            "Reply with a JSON object with the following fields:\n\n" +
+            "explanation: A simple explanation of the word's meaning written ONLY in Malay language (Bahasa Malaysia/Melayu), as '[in pinyin/latin chinese word] bermaksud [simple explanation]'. Do NOT use 'Kalimat Mandarin' or any introductory phrases. THE EXPLANATION MUST BE IN MALAY LANGUAGE, NOT IN CHINESE.\n" +
+            "pinyin: The correct pinyin (Mandarin romanization) for the word.\n" +
+            "examples: Three example sentences using this word in real context, each an object with 'chinese' (the original sentence in Chinese) and 'malay' (its translation in Malay). Do NOT add any numbers, bullets, or labels to the sentences.\n" +
+            "isAdjective: true if this word is an adjective in Chinese grammar, otherwise false.";
+
     private final WebClient webClient;
     private final PinyinService pinyinService;
-    private final Map<String, AiResponse> cache = new ConcurrentHashMap<>();
+    private final AiResponseCache cache;
+    private final SharedCacheTier sharedCache;
+    private final PipelineMetrics pipelineMetrics;
+    private final ClusterRouter clusterRouter;
+    private final SingleFlight<String, AiResponse> inFlight;
+    private final List<Consumer<String>> updateListeners = new CopyOnWriteArrayList<>();
+    private final LongAdder staleHits = new LongAdder();
+    private final BackgroundQueue refreshQueue;
+    private final AdaptiveLimiter ollamaLimiter;
+    private final HedgedUpstream ollamaUpstream;
+    private final HedgedUpstream ollamaBatchUpstream;
+    private final MicroBatcher<String, AiResponse> explanationBatcher;
+    private final OllamaKeepAlive keepAlive;
+    private final LongAdder batchFallbacks = new LongAdder();
+    private final LongAdder structuredFallbacks = new LongAdder();
+    // Hash of everything that shapes a generation except per-word context
+    private String basePromptVersion;
 
     @Value("${deepseek.api.url}")
     private String deepseekApiUrl;
@@ -39,43 +128,194 @@ public class DeepseekAiService {
     @Value("${app.cache.enabled:true}")
     private boolean cacheEnabled;
 
-    public DeepseekAiService(WebClient webClient, PinyinService pinyinService) {
+    @Value("${app.cache.ttl-hours:168}")
+    private long cacheTtlHours;
+
+    @Value("${app.cache.stale-while-revalidate:true}")
+    private boolean staleWhileRevalidate;
+
+    // Constrain replies to JSON with Ollama's format option instead of parsing section headers
+    @Value("${app.ollama.structured-output:false}")
+    private boolean structuredOutput;
+
+    // Bump to regenerate every cached entry after a change the prompt hash cannot see,
+    // such as a parser fix
+    @Value("${app.cache.prompt-version-salt:}")
+    private String promptVersionSalt;
+
+    public DeepseekAiService(WebClient webClient, PinyinService pinyinService, AiResponseCache cache,
+            SharedCacheTier sharedCache, PipelineMetrics pipelineMetrics, ClusterRouter clusterRouter,
+            OllamaKeepAlive keepAlive, OllamaPipeline pipeline) {
         this.webClient = webClient;
         this.pinyinService = pinyinService;
-        logger.info("DeepseekAiService initialized with WebClient and PinyinService");
+        this.cache = cache;
+        this.sharedCache = sharedCache;
+        this.pipelineMetrics = pipelineMetrics;
+        this.clusterRouter = clusterRouter;
+        this.keepAlive = keepAlive;
+        this.inFlight = pipeline.inFlight();
+        this.refreshQueue = pipeline.refreshQueue();
+        this.ollamaLimiter = pipeline.limiter();
+        this.ollamaUpstream = pipeline.upstream();
+        this.ollamaBatchUpstream = pipeline.batchUpstream();
+        this.explanationBatcher = pipeline.batcher();
+        pipeline.handleBatches(this::requestBatch);
+        logger.info("DeepseekAiService initialized with WebClient, PinyinService and AiResponseCache");
+    }
+
+    @PostConstruct
+    void initPromptVersioning() {
+        basePromptVersion = hash(String.join("\u0000", SYSTEM_PROMPT, modelName(), String.valueOf(temperature),
+                String.valueOf(maxTokens), promptVersionSalt, formatPrompt("{language}", "{word}", "",
+                structuredOutput ? STRUCTURED_FORMAT : RESPONSE_FORMAT)));
+        logger.info("Prompt version {} (stale-while-revalidate {})", basePromptVersion,
+                staleWhileRevalidate ? "enabled" : "disabled");
     }
 
     public Mono<AiResponse> generateExplanation(String word, String language) {
-        String cacheKey = language + ":" + word;
-        logger.debug("Generating explanation for: {} in {}", word, language);
+        // In cluster mode the instance owning the word generates and caches it
+        String owner = clusterRouter.remoteOwner(cacheKey(word, language));
+        if (owner != null) {
+            // A busy owner is not bypassed; its rejection is passed on to the caller
+            return clusterRouter.forwardExplanation(owner, word, language)
+                    .onErrorResume(e -> !(e instanceof LimitExceededException),
+                            e -> generateLocalExplanation(word, language));
+        }
+        return generateLocalExplanation(word, language);
+    }
+
+    /**
+     * Like {@link #generateExplanation} but always uses this instance's cache and
+     * Ollama, as the owner of a word does for lookups forwarded by other instances
+     */
+    public Mono<AiResponse> generateLocalExplanation(String word, String language) {
+        // Spelling variants (case, spacing, full-width, traditional characters) share
+        // one cache entry and one generation
+        String canonicalWord = TextNormalizer.normalize(word);
+        String cacheKey = cacheKey(canonicalWord, language);
+        logger.debug("Generating explanation for: {} in {}", canonicalWord, language);
 
         // Check if cache is enabled and if we have this word in our cache
-        if (cacheEnabled && cache.containsKey(cacheKey)) {
-            logger.info("Cache hit for word '{}' in {}", word, language);
-            return Mono.just(cache.get(cacheKey));
+        CachedAiResponse cached = cacheEnabled ? cache.getEntry(cacheKey) : null;
+        if (cached != null) {
+            if (cached.isCurrent(promptVersion(canonicalWord))) {
+                logger.info("Cache hit for word '{}' in {}", word, language);
+                return Mono.just(cached.getResponse());
+            }
+            if (staleWhileRevalidate) {
+                // Generated by an older prompt or model: still useful, so answer now
+                // and regenerate in the background
+                logger.info("Serving stale entry for word '{}' in {} while it is refreshed", word, language);
+                staleHits.increment();
+                scheduleRefresh(canonicalWord, language, cacheKey);
+                return Mono.just(cached.getResponse());
+            }
+        }
+
+        // Identical lookups that arrive while a generation is running share its result
+        // instead of sending the same prompt to Ollama again
+        if (inFlight.isInFlight(cacheKey)) {
+            logger.info("Joining in-flight request for word '{}' in {}", word, language);
+        } else {
+            logger.info("Cache miss for word '{}' in {} - calling DeepSeek API", word, language);
         }
+        return inFlight.execute(cacheKey, () -> {
+            // A flight for this key may have finished between our cache check and now
+            if (cacheEnabled && cache.contains(cacheKey)) {
+                CachedAiResponse completed = cache.getEntry(cacheKey);
+                if (completed != null && completed.isCurrent(promptVersion(canonicalWord))) {
+                    return Mono.just(completed.getResponse());
+                }
+            }
+            // Another instance may already have generated it
+            return sharedExplanation(canonicalWord, cacheKey)
+                    .switchIfEmpty(Mono.defer(() -> pipelineMetrics.timeLoad("ai",
+                            loadExplanation(canonicalWord, language, cacheKey))));
+        });
+    }
 
-        logger.info("Cache miss for word '{}' in {} - calling DeepSeek API", word, language);
-        String prompt = generatePrompt(word, language);
+    /**
+     * Looks the word up in the tier shared with other instances and keeps a local copy
+     * of anything found. Entries from another prompt version are only used when stale
+     * entries may be served anyway.
+     */
+    private Mono<AiResponse> sharedExplanation(String word, String cacheKey) {
+        if (!cacheEnabled) {
+            return Mono.empty();
+        }
+        return sharedCache.get(SHARED_NAMESPACE, cacheKey).flatMap(bytes -> {
+            CachedAiResponse entry;
+            try {
+                entry = AiResponseCodec.decodeEntry(bytes);
+            } catch (RuntimeException e) {
+                logger.warn("Ignoring unreadable shared cache entry for '{}': {}", cacheKey, e.getMessage());
+                return Mono.empty();
+            }
+            if (!entry.isCurrent(promptVersion(word)) && !staleWhileRevalidate) {
+                return Mono.empty();
+            }
+            logger.info("Shared cache hit for '{}'", cacheKey);
+            cache.put(cacheKey, entry);
+            return Mono.just(entry.getResponse());
+        });
+    }
 
-        logger.debug("Sending request to DeepSeek API for word: {}", word);
-        logger.debug("API URL: {}", deepseekApiUrl);
+    static String cacheKey(String word, String language) {
+        return language + ":" + TextNormalizer.normalize(word);
+    }
+
+    /**
+     * Queues a low-priority regeneration of a stale entry. The stale entry is only
+     * replaced if the new generation succeeds; fallbacks are never cached.
+     */
+    private void scheduleRefresh(String word, String language, String cacheKey) {
+        if (inFlight.isInFlight(cacheKey)) {
+            return;
+        }
+        refreshQueue.submit(cacheKey,
+                () -> inFlight.execute(cacheKey, () -> loadExplanation(word, language, cacheKey)));
+    }
+
+    /**
+     * Returns the version of the prompt, system prompt and model settings that would be
+     * used to generate the word now. Entries stamped with another version are stale.
+     */
+    String promptVersion(String canonicalWord) {
+        String context = additionalContext(canonicalWord);
+        return context.isEmpty() ? basePromptVersion : hash(basePromptVersion + context);
+    }
+
+    private static String hash(String text) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(text.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest, 0, 8);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    private String modelName() {
+        return modelName(deepseekApiKey);
+    }
 
+    static String modelName(String deepseekApiKey) {
         // Use the model name from application.properties via deepseekApiKey
         // This allows us to easily change the model without changing the code
-        String modelName = deepseekApiKey.equals("not-needed-for-ollama") ? "gpt-oss:20b" : deepseekApiKey;
+        return deepseekApiKey.equals("not-needed-for-ollama") ? "gpt-oss:20b" : deepseekApiKey;
+    }
+
+    /**
+     * Sends the prompt for a word to Ollama and parses the reply, caching successful
+     * results. Failures are mapped to a fallback response that is not cached.
+     */
+    private Mono<AiResponse> requestExplanation(String word, String language, String cacheKey) {
+        logger.debug("Sending request to DeepSeek API for word: {}", word);
+        logger.debug("API URL: {}", deepseekApiUrl);
+
+        String modelName = modelName();
         logger.debug("Using model: {}", modelName);
 
-        // For Ollama completions API - using the direct completion endpoint format with
-        // optimized parameters
-        Map<String, Object> requestBody = new HashMap<>();
-        requestBody.put("model", modelName);
-        requestBody.put("prompt", prompt);
-        requestBody.put("stream", false);
-        requestBody.put("temperature", temperature);
-        requestBody.put("max_tokens", maxTokens);
-        requestBody.put("system",
-                "You are a language expert with superior fluency in both Malay (Bahasa Malaysia/Melayu) and Mandarin Chinese. Always respond directly with the final answer in the exact format requested. The explanations must always be written in proper Malay language. IMPORTANT: DO NOT USE ANY MARKDOWN FORMATTING IN YOUR RESPONSE. Avoid using any asterisks (*), underscores (_), backticks (`), tildes (~), or any other formatting characters in your text. Provide plain, unformatted text only. Never use <think> tags or show your internal reasoning process. You have extensive knowledge of everyday Malay words like 'makan', 'tidur', 'cantik', 'muram', 'layu', and 'gerun' and their Mandarin Chinese equivalents.");
+        Map<String, Object> requestBody = requestBody(word, language, false);
 
         // Using the API URL as specified in properties
         String apiUrl = deepseekApiUrl;
@@ -84,19 +324,18 @@ public class DeepseekAiService {
         logger.debug("Sending request to: {}", apiUrl);
         logger.debug("Request body: {}", requestBody);
 
-        return webClient.post()
-                .uri(apiUrl)
+        // Waits for a permit, or is rejected, before anything is sent to Ollama; the
+        // call times out after its adaptive timeout and may be hedged on another endpoint
+        return ollamaLimiter.run(() -> ollamaUpstream.call(url -> webClient.post()
+                .uri(url)
                 // No authorization header needed for local Ollama
                 .bodyValue(requestBody)
                 .retrieve()
-                .bodyToMono(Map.class)
-                // Add a timeout specifically for this request
-                .timeout(java.time.Duration.ofMinutes(5), Mono.fromCallable(() -> {
-                    logger.error("Request to Ollama API timed out after 5 minutes");
-                    throw new RuntimeException("Request to Ollama API timed out. LLM inference may require more time.");
-                }))
+                .bodyToMono(Map.class))
+                .transform(call -> pipelineMetrics.timeStage("ollama", language, call))
                 .doOnNext(response -> {
                     logger.debug("Received DeepSeek API response: {}", response);
+                    ollamaReplied(language, response);
                 })
                 .doOnError(error -> {
                     logger.error("Error during API call to {}: {}", apiUrl, error.getMessage());
@@ -104,93 +343,459 @@ public class DeepseekAiService {
                         logger.error("Caused by: {}", error.getCause().getMessage());
                     }
                     logger.error("Stack trace:", error);
-                })
+                }))
                 .map(response -> {
                     try {
-                        // Log the full response structure for debugging
-                        logger.debug("Full API response structure: {}", response.keySet());
+                        return storeGeneratedText(generatedText(response), structuredOutput, word, language, cacheKey);
+                    } catch (Exception e) {
+                        return parseFailure(word, e);
+                    }
+                })
+                .onErrorResume(e -> !(e instanceof LimitExceededException),
+                        e -> Mono.just(connectionFailure(word, apiUrl, e)));
+    }
 
-                        String generatedText = null;
+    /**
+     * Notes a finished generation: it restarts Ollama's keep-alive timer, and the
+     * reply carries Ollama's prompt-eval and generation timings
+     */
+    private void ollamaReplied(String language, Map<?, ?> reply) {
+        keepAlive.recordUse();
+        pipelineMetrics.recordOllamaTimings(language, reply);
+    }
 
-                        // Check for response format: Ollama v0.1.x format
-                        if (response.containsKey("response")) {
-                            generatedText = (String) response.get("response");
-                        }
-                        // Check for response format: Ollama chat completion format
-                        else if (response.containsKey("message")) {
-                            @SuppressWarnings("unchecked")
-                            Map<String, Object> responseMessage = (Map<String, Object>) response.get("message");
-                            if (responseMessage != null) {
-                                generatedText = (String) responseMessage.get("content");
-                            }
-                        }
-                        // Check for response format: Older Ollama completion format
-                        else if (response.containsKey("content")) {
-                            generatedText = (String) response.get("content");
-                        }
+    /**
+     * Returns the generated text of a non-streamed Ollama reply
+     *
+     * @throws RuntimeException if the reply carries no text, e.g. while the model loads
+     */
+    private String generatedText(Map<?, ?> response) {
+        String modelName = modelName();
+        // Log the full response structure for debugging
+        logger.debug("Full API response structure: {}", response.keySet());
 
-                        // Check if response is empty
-                        if ((generatedText == null || generatedText.isEmpty()) && response.containsKey("done_reason")) {
-                            String doneReason = (String) response.get("done_reason");
-                            if ("load".equals(doneReason)) {
-                                // The model is still loading
-                                throw new RuntimeException("The model '" + modelName
-                                        + "' is still loading. Please try again in a few moments.");
-                            } else {
-                                throw new RuntimeException("No content returned from API. Reason: " + doneReason
-                                        + ". Response: " + response);
-                            }
-                        }
+        String generatedText = null;
 
-                        if (generatedText == null || generatedText.isEmpty()) {
-                            throw new RuntimeException("No content found in API response: " + response);
-                        }
+        // Check for response format: Ollama v0.1.x format
+        if (response.containsKey("response")) {
+            generatedText = (String) response.get("response");
+        }
+        // Check for response format: Ollama chat completion format
+        else if (response.containsKey("message")) {
+            @SuppressWarnings("unchecked")
+            Map<String, Object> responseMessage = (Map<String, Object>) response.get("message");
+            if (responseMessage != null) {
+                generatedText = (String) responseMessage.get("content");
+            }
+        }
+        // Check for response format: Older Ollama completion format
+        else if (response.containsKey("content")) {
+            generatedText = (String) response.get("content");
+        }
 
-                        logger.debug("Generated text from DeepSeek: {}", generatedText);
+        // Check if response is empty
+        if ((generatedText == null || generatedText.isEmpty()) && response.containsKey("done_reason")) {
+            String doneReason = (String) response.get("done_reason");
+            if ("load".equals(doneReason)) {
+                // The model is still loading, e.g. after Ollama unloaded it
+                keepAlive.modelLoading();
+                throw new RuntimeException("The model '" + modelName
+                        + "' is still loading. Please try again in a few moments.");
+            } else {
+                throw new RuntimeException("No content returned from API. Reason: " + doneReason
+                        + ". Response: " + response);
+            }
+        }
 
-                        // Parse the generated text to extract explanation and examples
-                        AiResponse aiResponse = parseGeneratedText(generatedText, word);
+        if (generatedText == null || generatedText.isEmpty()) {
+            throw new RuntimeException("No content found in API response: " + response);
+        }
+
+        logger.debug("Generated text from DeepSeek: {}", generatedText);
+        return generatedText;
+    }
+
+    /**
+     * Generates the word, packed into a batched generation with other cache misses of
+     * the same language when batching is enabled
+     */
+    private Mono<AiResponse> loadExplanation(String word, String language, String cacheKey) {
+        if (explanationBatcher == null) {
+            return requestExplanation(word, language, cacheKey);
+        }
+        return explanationBatcher.submit(language, word);
+    }
 
-                        // Store in cache for future requests if caching is enabled
-                        if (cacheEnabled) {
-                            cache.put(language + ":" + word, aiResponse);
-                            logger.info("Cached response for '{}' in {}", word, language);
+    /**
+     * Asks Ollama to explain several words in one generation, so the system prompt and
+     * format instructions are processed once for all of them. Words whose answer is
+     * missing or incomplete in the reply (e.g. cut off by the token limit) are
+     * generated again one at a time; a rejection by the limiter fails the whole batch.
+     */
+    Mono<Map<String, AiResponse>> requestBatch(String language, List<String> words) {
+        if (words.size() == 1) {
+            String word = words.get(0);
+            return requestExplanation(word, language, cacheKey(word, language)).map(response -> Map.of(word, response));
+        }
+        logger.info("Requesting batched explanations for {} words in {}: {}", words.size(), language, words);
+        String apiUrl = deepseekApiUrl;
+        Map<String, Object> requestBody = requestBody(words, language, false);
+
+        return ollamaLimiter.run(() -> ollamaBatchUpstream.call(url -> webClient.post()
+                .uri(url)
+                .bodyValue(requestBody)
+                .retrieve()
+                .bodyToMono(Map.class))
+                .doOnNext(response -> ollamaReplied(language, response))
+                .transform(call -> pipelineMetrics.timeStage("ollama", language, call)))
+                .flatMap(response -> {
+                    Map<String, AiResponse> results = new LinkedHashMap<>();
+                    Map<Integer, ?> answers;
+                    long parseStart = System.nanoTime();
+                    try {
+                        String text = generatedText(response);
+                        answers = structuredOutput ? StructuredExplanationParser.parseBatch(text) : splitBatch(text);
+                    } catch (RuntimeException e) {
+                        logger.warn("Unusable batched reply for {}: {}", words, e.getMessage());
+                        answers = Map.of();
+                    }
+                    if (structuredOutput) {
+                        pipelineMetrics.recordStage("parse-json", language,
+                                answers.isEmpty() ? PipelineMetrics.ERROR : PipelineMetrics.SUCCESS,
+                                System.nanoTime() - parseStart);
+                    }
+                    List<String> retry = new ArrayList<>();
+                    for (int i = 0; i < words.size(); i++) {
+                        String word = words.get(i);
+                        Object answer = answers.get(i + 1);
+                        if (answer == null) {
+                            retry.add(word);
+                        } else if (answer instanceof AiResponse decoded) {
+                            results.put(word, cacheResponse(withPronunciation(decoded, word), word, language,
+                                    cacheKey(word, language)));
+                        } else {
+                            results.put(word, storeGeneratedText((String) answer, false, word, language,
+                                    cacheKey(word, language)));
                         }
+                    }
+                    if (retry.isEmpty()) {
+                        return Mono.just(results);
+                    }
+                    logger.warn("Batched reply had no complete answer for {}; generating them one at a time", retry);
+                    batchFallbacks.add(retry.size());
+                    return Flux.fromIterable(retry)
+                            .flatMap(word -> requestExplanation(word, language, cacheKey(word, language))
+                                    .doOnNext(single -> results.put(word, single)))
+                            .then(Mono.fromCallable(() -> results));
+                })
+                .onErrorResume(e -> !(e instanceof LimitExceededException), e -> {
+                    Map<String, AiResponse> failures = new LinkedHashMap<>();
+                    words.forEach(word -> failures.put(word, connectionFailure(word, apiUrl, e)));
+                    return Mono.just(failures);
+                });
+    }
+
+    /**
+     * Splits a batched generation into the answer for each word by its 1-based
+     * position. Answers without all four section headers are left out, since a
+     * truncated or merged answer would otherwise be cached as if it were complete.
+     */
+    static Map<Integer, String> splitBatch(String text) {
+        text = text.replaceAll("(?s)<think>.*?</think>", "");
+        Map<Integer, String> answers = new HashMap<>();
+        Matcher marker = BATCH_MARKER.matcher(text);
+        int index = -1;
+        int start = 0;
+        while (true) {
+            boolean found = marker.find();
+            if (index > 0) {
+                String answer = text.substring(start, found ? marker.start() : text.length()).trim();
+                if (answer.contains("EXPLANATION:") && answer.contains("PINYIN:") && answer.contains("EXAMPLES:")
+                        && answer.contains("IS_ADJECTIVE:")) {
+                    answers.putIfAbsent(index, answer);
+                }
+            }
+            if (!found) {
+                return answers;
+            }
+            index = Integer.parseInt(marker.group(1));
+            start = marker.end();
+        }
+    }
+
+    /**
+     * Like {@link #generateExplanation}, but on a cache miss asks Ollama to stream its
+     * reply and passes each section to the callback as soon as the next one starts,
+     * instead of after the whole generation. Every section is passed exactly once;
+     * whatever was not streamed (cache and shared tier hits, the last section, lookups
+     * that joined another generation) is passed from the final result before it is
+     * returned.
+     *
+     * @param onSection Receives sections in order; called from the streaming thread
+     * @return The final explanation, as {@link #generateExplanation} would return it
+     */
+    public Mono<AiResponse> streamExplanation(String word, String language, Consumer<ExplanationSection> onSection) {
+        Set<String> passed = ConcurrentHashMap.newKeySet();
+        Consumer<ExplanationSection> once = section -> {
+            if (passed.add(section.getName())) {
+                onSection.accept(section);
+            }
+        };
+
+        String canonicalWord = TextNormalizer.normalize(word);
+        String cacheKey = cacheKey(canonicalWord, language);
+        Mono<AiResponse> result;
+        if (clusterRouter.remoteOwner(cacheKey) != null || (cacheEnabled && cache.contains(cacheKey))
+                || inFlight.isInFlight(cacheKey)) {
+            // Nothing new to stream: answered by the owner, the cache or a running generation
+            result = generateExplanation(word, language);
+        } else {
+            // A generation that starts later joins this one through the in-flight map; the
+            // stream is only opened if no other instance has generated the word either
+            result = inFlight.execute(cacheKey, () -> sharedExplanation(canonicalWord, cacheKey)
+                    .switchIfEmpty(Mono.defer(() -> pipelineMetrics.timeLoad("ai",
+                            streamRequest(canonicalWord, language, cacheKey, once)))));
+        }
+        return result.doOnNext(response -> sections(response).forEach(once));
+    }
 
-                        return aiResponse;
+    /**
+     * Returns the sections of a finished explanation in the order they are generated
+     */
+    static List<ExplanationSection> sections(AiResponse response) {
+        return List.of(
+                new ExplanationSection(ExplanationSection.EXPLANATION, response.getExplanation()),
+                new ExplanationSection(ExplanationSection.PINYIN, response.getPronunciation()),
+                new ExplanationSection(ExplanationSection.EXAMPLES, response.getExamples()),
+                new ExplanationSection(ExplanationSection.ADJECTIVE, String.valueOf(response.isAdjective())));
+    }
+
+    private Mono<AiResponse> streamRequest(String word, String language, String cacheKey,
+            Consumer<ExplanationSection> onSection) {
+        // Sections are passed on as they arrive, so a stream is not hedged
+        String apiUrl = ollamaUpstream.primaryUrl();
+        SectionStreamParser parser = new SectionStreamParser();
+        long start = System.nanoTime();
+        AtomicBoolean firstSection = new AtomicBoolean(true);
+
+        return ollamaLimiter.run(() -> webClient.post()
+                .uri(apiUrl)
+                .bodyValue(requestBody(word, language, true))
+                .retrieve()
+                // Ollama streams one JSON object per line, each carrying the next tokens
+                .bodyToFlux(Map.class)
+                // Measured between chunks, so a long generation is fine while it makes progress;
+                // no gap should exceed what a whole generation is allowed
+                .timeout(ollamaUpstream.timeout(apiUrl))
+                .takeUntil(chunk -> Boolean.TRUE.equals(chunk.get("done")))
+                .doOnNext(chunk -> {
+                    if (Boolean.TRUE.equals(chunk.get("done"))) {
+                        ollamaReplied(language, chunk);
+                    }
+                    Object token = chunk.get("response");
+                    if (!(token instanceof String tokenText) || tokenText.isEmpty()) {
+                        return;
+                    }
+                    parser.append(tokenText).forEach((name, content) -> {
+                        ExplanationSection section = streamedSection(name, content);
+                        if (section == null) {
+                            return;
+                        }
+                        if (firstSection.compareAndSet(true, false)) {
+                            pipelineMetrics.recordStage("first-section", language, PipelineMetrics.SUCCESS,
+                                    System.nanoTime() - start);
+                        }
+                        onSection.accept(section);
+                    });
+                })
+                .then(Mono.fromCallable(parser::text))
+                .transform(call -> pipelineMetrics.timeStage("ollama", language, call)))
+                .map(generatedText -> {
+                    try {
+                        if (generatedText.isEmpty()) {
+                            throw new RuntimeException("No content returned from API");
+                        }
+                        return storeGeneratedText(generatedText, false, word, language, cacheKey);
                     } catch (Exception e) {
-                        logger.error("Error parsing DeepSeek response: {}", e.getMessage(), e);
-
-                        // Create a fallback response with error information
-                        AiResponse fallback = new AiResponse();
-                        fallback.setExplanation(
-                                "Unable to generate explanation at this time. Error: " + e.getMessage());
-                        fallback.setExamples("No examples available due to API error.");
-                        fallback.setPronunciation(getPinyinFallback(word));
-                        fallback.setAdjective(false);
-                        return fallback;
+                        return parseFailure(word, e);
                     }
                 })
-                .onErrorResume(e -> {
-                    logger.error("DeepSeek API error: {} ({})", e.getMessage(), e.getClass().getName(), e);
+                .onErrorResume(e -> !(e instanceof LimitExceededException),
+                        e -> Mono.just(connectionFailure(word, apiUrl, e)));
+    }
 
-                    // Check for connection issues
-                    if (e.getMessage().contains("Connection refused") || e.getMessage().contains("Failed to connect")) {
-                        logger.error("Connection refused: Make sure Ollama container is running at {}", apiUrl);
-                    }
+    /**
+     * Cleans a streamed section the way {@link #parseGeneratedText} cleans it, or
+     * returns null for sections that are only final once generation ends
+     */
+    private ExplanationSection streamedSection(String header, String content) {
+        switch (header) {
+            case "EXPLANATION":
+                return new ExplanationSection(ExplanationSection.EXPLANATION, cleanUpFormatting(content));
+            case "PINYIN":
+                // An empty pinyin is filled in from PinyinService at the end
+                String pinyin = cleanUpFormatting(content);
+                return pinyin.isEmpty() ? null : new ExplanationSection(ExplanationSection.PINYIN, pinyin);
+            case "EXAMPLES":
+                return new ExplanationSection(ExplanationSection.EXAMPLES,
+                        removeNumberingFromExamples(cleanUpFormatting(content)));
+            default:
+                return null;
+        }
+    }
 
-                    AiResponse fallback = new AiResponse();
-                    fallback.setExplanation(
-                            "Could not connect to DeepSeek AI service at " + apiUrl + ". Error: " + e.getMessage());
-                    fallback.setExamples(
-                            "No examples available due to connection error. Check if Ollama is running with the model loaded.");
-                    fallback.setPronunciation(getPinyinFallback(word));
-                    fallback.setAdjective(false);
-                    return Mono.just(fallback);
-                });
+    private Map<String, Object> requestBody(String word, String language, boolean stream) {
+        // Streamed replies are cut into sections as they arrive, so they stay in the text format
+        if (structuredOutput && !stream) {
+            return requestBody(generatePrompt(word, language, STRUCTURED_FORMAT), maxTokens, false,
+                    StructuredExplanationParser.SCHEMA);
+        }
+        return requestBody(generatePrompt(word, language, RESPONSE_FORMAT), maxTokens, stream, null);
+    }
+
+    private Map<String, Object> requestBody(List<String> words, String language, boolean stream) {
+        Map<String, String> contexts = new LinkedHashMap<>();
+        words.forEach(word -> contexts.put(word, additionalContext(word)));
+        return requestBody(formatBatchPrompt(language, contexts, structuredOutput), maxTokens * words.size(), stream,
+                structuredOutput ? StructuredExplanationParser.BATCH_SCHEMA : null);
+    }
+
+    private Map<String, Object> requestBody(String prompt, int tokens, boolean stream, Map<String, Object> format) {
+        // For Ollama completions API - using the direct completion endpoint format with
+        // optimized parameters
+        Map<String, Object> requestBody = new HashMap<>();
+        requestBody.put("model", modelName());
+        requestBody.put("prompt", prompt);
+        requestBody.put("stream", stream);
+        requestBody.put("temperature", temperature);
+        requestBody.put("max_tokens", tokens);
+        requestBody.put("system", SYSTEM_PROMPT);
+        keepAlive.apply(requestBody);
+        if (format != null) {
+            requestBody.put("format", format);
+        }
+        return requestBody;
+    }
+
+    /**
+     * Parses a complete generation and caches it if caching is enabled
+     *
+     * @param structured Whether the text is JSON requested with the format option; it
+     *                   goes through the text parser if it cannot be decoded
+     */
+    private AiResponse storeGeneratedText(String generatedText, boolean structured, String word, String language,
+            String cacheKey) {
+        // Parse the generated text to extract explanation and examples
+        long parseStart = System.nanoTime();
+        AiResponse aiResponse = null;
+        if (structured) {
+            try {
+                aiResponse = withPronunciation(StructuredExplanationParser.parse(generatedText), word);
+                pipelineMetrics.recordStage("parse-json", language, PipelineMetrics.SUCCESS,
+                        System.nanoTime() - parseStart);
+            } catch (IllegalArgumentException e) {
+                structuredFallbacks.increment();
+                pipelineMetrics.recordStage("parse-json", language, PipelineMetrics.ERROR,
+                        System.nanoTime() - parseStart);
+                logger.warn("Could not decode structured reply for '{}', using the text parser: {}", word,
+                        e.getMessage());
+                parseStart = System.nanoTime();
+            }
+        }
+        if (aiResponse == null) {
+            aiResponse = parseGeneratedText(generatedText, word);
+            pipelineMetrics.recordStage("parse", language, PipelineMetrics.SUCCESS, System.nanoTime() - parseStart);
+        }
+        return cacheResponse(aiResponse, word, language, cacheKey);
+    }
+
+    /**
+     * Fills in the pronunciation from PinyinService when the model gave none
+     */
+    private AiResponse withPronunciation(AiResponse response, String word) {
+        if (response.getPronunciation() == null || response.getPronunciation().isEmpty()) {
+            response.setPronunciation(pinyinService.getPinyin(word));
+        }
+        return response;
+    }
+
+    private AiResponse cacheResponse(AiResponse aiResponse, String word, String language, String cacheKey) {
+        // Store in cache for future requests if caching is enabled
+        if (cacheEnabled) {
+            CachedAiResponse entry = cache.put(cacheKey, aiResponse, promptVersion(word));
+            sharedCache.putAsync(SHARED_NAMESPACE, cacheKey, AiResponseCodec.encodeEntry(entry),
+                    cacheTtlHours > 0 ? Duration.ofHours(cacheTtlHours) : null);
+            logger.info("Cached response for '{}' in {}", word, language);
+            updateListeners.forEach(listener -> listener.accept(word));
+        }
+        return aiResponse;
+    }
+
+    private AiResponse parseFailure(String word, Exception e) {
+        logger.error("Error parsing DeepSeek response: {}", e.getMessage(), e);
+
+        // Create a fallback response with error information
+        AiResponse fallback = new AiResponse();
+        fallback.setExplanation("Unable to generate explanation at this time. Error: " + e.getMessage());
+        fallback.setExamples("No examples available due to API error.");
+        fallback.setPronunciation(getPinyinFallback(word));
+        fallback.setAdjective(false);
+        return fallback;
+    }
+
+    private AiResponse connectionFailure(String word, String apiUrl, Throwable e) {
+        logger.error("DeepSeek API error: {} ({})", e.getMessage(), e.getClass().getName(), e);
+
+        // Check for connection issues
+        if (e.getMessage() != null
+                && (e.getMessage().contains("Connection refused") || e.getMessage().contains("Failed to connect"))) {
+            logger.error("Connection refused: Make sure Ollama container is running at {}", apiUrl);
+        }
+
+        AiResponse fallback = new AiResponse();
+        fallback.setExplanation("Could not connect to DeepSeek AI service at " + apiUrl + ". Error: " + e.getMessage());
+        fallback.setExamples(
+                "No examples available due to connection error. Check if Ollama is running with the model loaded.");
+        fallback.setPronunciation(getPinyinFallback(word));
+        fallback.setAdjective(false);
+        return fallback;
+    }
+
+    /**
+     * Returns the words this service gives extra prompt context for. They are known to
+     * be looked up often, so they are good candidates for warming the cache.
+     * 
+     * @return Words with special handling, in Malay or Chinese
+     */
+    public Set<String> getCuratedWords() {
+        return new LinkedHashSet<>(List.of("makan", "tidur", "cantik", "muram", "layu", "gerun",
+                "勇敢", "融化", "残酷", "残忍", "美味"));
+    }
+
+    /**
+     * Returns the number of Ollama generations currently running
+     * 
+     * @return Count of distinct words being generated
+     */
+    public int getInFlightCount() {
+        return inFlight.inFlightCount();
+    }
+
+    /**
+     * Registers a callback invoked with the canonical word whenever a newly generated
+     * explanation is cached, including background refreshes of stale entries
+     * 
+     * @param listener Receives the canonical (normalized) word
+     */
+    public void addUpdateListener(Consumer<String> listener) {
+        updateListeners.add(listener);
+    }
+
+    private String generatePrompt(String word, String language, String responseFormat) {
+        return formatPrompt(language, word, additionalContext(word), responseFormat);
     }
 
-    private String generatePrompt(String word, String language) {
+    private String additionalContext(String word) {
         // For common Malaysian words, we can provide additional context to help the
         // model
         String additionalContext = "";
@@ -220,50 +825,57 @@ public class DeepseekAiService {
         } else if (lowercaseWord.equals("美味")) {
             additionalContext = "This means 'delicious/tasty'. It is an adjective. Pronunciation: měiwèi. Provide Malay explanation and examples showing delicious food or taste. Make examples natural and relatable.";
         }
+        return additionalContext;
+    }
 
-        return String.format(
-                "You are a language expert teaching Simplified Mandarin Chinese who teaches Chinese and needs accurate linguistic details for practical use.\n\n"
-                        +
-                        "DO NOT USE <think> TAGS OR INTERNAL DELIBERATION. RESPOND IMMEDIATELY WITH THE FINAL ANSWER.\n\n"
-                        +
-                        "IMPORTANT: DO NOT USE ANY FORMATTING such as **, _, ~~, or any other markdown. Plain text only with no asterisks or formatting symbols.\n\n"
-                        +
-                        "Please provide a comprehensive explanation of the %s word '%s'. %s\n" +
-                        "The response must be clear, structured, and follow the exact format below:\n\n" +
-                        "1. A simple explanation of the word's meaning written ONLY in Malay language (Bahasa Malaysia/Melayu). Start directly with the Chinese word and its meaning. Do NOT use 'Kalimat Mandarin' or any introductory phrases. THE EXPLANATION MUST BE IN MALAY LANGUAGE, NOT IN CHINESE.\n"
-                        +
-                        "2. Provide the correct pinyin (Mandarin romanization) for the word.\n"
-                        +
-                        "3. Three example sentences using this word in real context. Each should include:\n" +
-                        "   - The original sentence in Chinese (without any label or number)\n" +
-                        "   - Its translation in Malay (without any label or number)\n"
-                        +
-                        "4. State whether this word is an adjective in Chinese grammar (answer with YES or NO).\n\n" +
-                        "Use the following EXACT section headers in your response:\n\n" +
-                        "EXPLANATION:\n[in pinyin/latin chinese word] bermaksud [simple explanation written ONLY in Bahasa Malaysia/Melayu, not in Chinese or any other language]\n\n"
-                        +
-                        "PINYIN:\n[Romanized pinyin]\n\n"
-                        +
-                        "EXAMPLES:\n" +
-                        "[Chinese sentence - no numbers]\n" +
-                        "[Malay translation - no numbers]\n" +
-                        "\n" +
-                        "[Chinese sentence - no numbers]\n" +
-                        "[Malay translation - no numbers]\n" +
-                        "\n" +
-                        "[Chinese sentence - no numbers]\n" +
-                        "[Malay translation - no numbers]\n\n" +
-                        "IMPORTANT: Do NOT add any numbers, bullets, or labels to the examples. Just the sentences.\n\n"
-                        +
-                        "IS_ADJECTIVE:\n[YES or NO]",
-                language, word, additionalContext);
+    /**
+     * Builds the prompt for one word. Everything that is the same for every word comes
+     * first and the word last, so Ollama can reuse the evaluated prefix from its
+     * previous request instead of evaluating the whole template again.
+     */
+    private static String formatPrompt(String language, String word, String additionalContext,
+            String responseFormat) {
+        return PROMPT_PREAMBLE + responseFormat + "\n\n"
+                + String.format("Please provide a comprehensive explanation of the %s word '%s'. %s", language, word,
+                        additionalContext).trim();
+    }
+
+    /**
+     * Builds one prompt asking for each word's explanation in the single-word format,
+     * each answer preceded by a numbered WORD marker that {@link #splitBatch} splits on,
+     * or as a numbered entry of a JSON answers array. As in {@link #formatPrompt}, the
+     * words come last.
+     *
+     * @param contexts Words in answer order, each with its additional context
+     */
+    private static String formatBatchPrompt(String language, Map<String, String> contexts, boolean structured) {
+        StringBuilder prompt = new StringBuilder(PROMPT_PREAMBLE);
+        prompt.append("You will be given several words. Answer for every word, in the order listed, ")
+                .append("and keep each answer about its own word only. ");
+        if (structured) {
+            prompt.append("Reply with a JSON object whose 'answers' array holds one object per word, ")
+                    .append("each with the word's 'number' and the fields below.\n")
+                    .append(STRUCTURED_FORMAT);
+        } else {
+            prompt.append("Start each answer with a line containing only WORD and its number, e.g. WORD 1, ")
+                    .append("followed by the complete answer for that word.\n")
+                    .append(RESPONSE_FORMAT);
+        }
+        prompt.append(String.format("\n\nPlease provide a comprehensive explanation of each of these %d %s words:",
+                contexts.size(), language));
+        int number = 1;
+        for (Map.Entry<String, String> entry : contexts.entrySet()) {
+            prompt.append('\n').append(number++).append(". '").append(entry.getKey()).append("'. ")
+                    .append(entry.getValue());
+        }
+        return prompt.toString();
     }
 
     private String getPinyinFallback(String word) {
         return "Pinyin unavailable for '" + word + "'";
     }
 
-    private AiResponse parseGeneratedText(String text, String word) {
+    AiResponse parseGeneratedText(String text, String word) {
         AiResponse response = new AiResponse();
         logger.debug("Parsing generated text of length: {}", text.length());
 
@@ -549,21 +1161,24 @@ public class DeepseekAiService {
     } // Cache management methods
 
     /**
-     * Clears the translation cache
+     * Clears the tiered AI response cache: L1, the off-heap tier and the persistent
+     * store on disk, so cleared explanations do not come back after a restart. The
+     * shared tier is left alone, since other instances still rely on it.
      */
     public void clearCache() {
         if (!cacheEnabled) {
             logger.info("Cache is disabled, nothing to clear");
             return;
         }
-        logger.info("Clearing translation cache. Removed {} entries.", cache.size());
+        logger.info("Clearing AI response cache. Removed {} L1 entries.", cache.size());
         cache.clear();
     }
 
     /**
-     * Returns the current size of the translation cache
+     * Returns the current size of the AI response cache's L1 tier
      * 
-     * @return The number of entries in the cache
+     * @return The number of entries held on-heap; the off-heap tier and the
+     *         persistent store are not counted
      */
     public int getCacheSize() {
         if (!cacheEnabled) {
@@ -572,6 +1187,40 @@ public class DeepseekAiService {
         return cache.size();
     }
 
+    /**
+     * Returns size, weight and hit/miss/eviction counters of the translation cache
+     * 
+     * @return Map of statistic name to value
+     */
+    public Map<String, Object> getCacheStatistics() {
+        Map<String, Object> stats = new HashMap<>(cache.statistics());
+        stats.put("inFlight", inFlight.inFlightCount());
+        stats.put("upstreamCalls", inFlight.startedCount());
+        stats.put("coalescedRequests", inFlight.joinedCount());
+        stats.put("promptVersion", basePromptVersion);
+        stats.put("staleServed", staleHits.sum());
+        stats.put("refreshQueued", refreshQueue.queuedCount());
+        stats.put("refreshRunning", refreshQueue.runningCount());
+        stats.put("refreshCompleted", refreshQueue.completedCount());
+        stats.put("refreshRejected", refreshQueue.droppedCount());
+        stats.put("shared", sharedCache.statistics());
+        stats.put("ollamaLimiter", ollamaLimiter.statistics());
+        stats.put("ollamaUpstream", ollamaUpstream.statistics());
+        stats.put("ollamaBatchUpstream", ollamaBatchUpstream.statistics());
+        Map<String, Object> batching = new HashMap<>();
+        batching.put("enabled", explanationBatcher != null);
+        if (explanationBatcher != null) {
+            batching.putAll(explanationBatcher.statistics());
+            batching.put("singleWordFallbacks", batchFallbacks.sum());
+        }
+        stats.put("batching", batching);
+        stats.put("structuredOutput", structuredOutput);
+        stats.put("structuredFallbacks", structuredFallbacks.sum());
+        stats.put("ollamaModel", keepAlive.statistics());
+        stats.put("ollamaTimings", pipelineMetrics.ollamaTimingStatistics());
+        return stats;
+    }
+
     /**
      * Checks if a word is in the cache
      * 
@@ -583,7 +1232,67 @@ public class DeepseekAiService {
         if (!cacheEnabled) {
             return false;
         }
-        return cache.containsKey(language + ":" + word);
+        return cache.contains(cacheKey(word, language));
+    }
+
+    /**
+     * Visits every cached explanation, keyed as "language:word", with its prompt version
+     * 
+     * @param action Receives each key and entry
+     */
+    public void forEachCachedExplanation(BiConsumer<String, CachedAiResponse> action) {
+        if (cacheEnabled) {
+            cache.forEachEntry(action);
+        }
+    }
+
+    /**
+     * Seeds the cache with an entry exported from another instance. An entry keeps its
+     * prompt version only when it matches this instance's current one; any other
+     * version is replaced by none, so the entry is served and refreshed like any other
+     * stale entry instead of being pinned to a version this instance never produced.
+     * 
+     * @param key       Key in the "language:word" form
+     * @param entry     The exported entry
+     * @param overwrite Whether to replace an entry that is already cached
+     * @return true if stored, false if skipped
+     * @throws IllegalArgumentException if the key is not in the "language:word" form
+     */
+    public boolean importCachedExplanation(String key, CachedAiResponse entry, boolean overwrite) {
+        int colon = key.indexOf(':');
+        if (colon <= 0 || colon == key.length() - 1) {
+            throw new IllegalArgumentException("Malformed AI cache entry: " + key);
+        }
+        if (!cacheEnabled) {
+            return false;
+        }
+        String canonicalWord = TextNormalizer.normalize(key.substring(colon + 1));
+        String cacheKey = cacheKey(canonicalWord, key.substring(0, colon));
+        if (!overwrite && cache.contains(cacheKey)) {
+            return false;
+        }
+        if (!entry.isCurrent(promptVersion(canonicalWord))) {
+            entry = new CachedAiResponse(entry.getResponse(), CachedAiResponse.UNKNOWN_VERSION, entry.getCreatedAt());
+        }
+        cache.put(cacheKey, entry);
+        updateListeners.forEach(listener -> listener.accept(canonicalWord));
+        return true;
+    }
+
+    /**
+     * Checks if a word is cached with an explanation from the current prompt version
+     * 
+     * @param word     The word to check
+     * @param language The language of the word
+     * @return true if the cached entry is present and not stale
+     */
+    public boolean isCurrentInCache(String word, String language) {
+        if (!cacheEnabled) {
+            return false;
+        }
+        String canonicalWord = TextNormalizer.normalize(word);
+        CachedAiResponse entry = cache.peekEntry(cacheKey(canonicalWord, language));
+        return entry != null && entry.isCurrent(promptVersion(canonicalWord));
     }
 
     /**
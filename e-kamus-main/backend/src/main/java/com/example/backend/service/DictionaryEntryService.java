@@ -1,21 +1,48 @@
 package com.example.backend.service;
 
 import com.example.backend.model.DictionaryResponse;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
 
 /**
  * DictionaryEntryService provides curated dictionary entries with explanations and pronunciations.
  * This service stores verified dictionary entries for specific Malay-Mandarin word pairs.
+ * Entries and overrides are edited through /api/curated, which is off unless
+ * app.curated.admin.enabled is set and requires app.curated.admin.token.
  */
 @Service
 public class DictionaryEntryService {
     
     // Stores curated dictionary entries with full details
-    private static final Map<String, DictionaryEntry> DICTIONARY_ENTRIES = new HashMap<>();
+    private static final Map<String, DictionaryEntry> DICTIONARY_ENTRIES = new ConcurrentHashMap<>();
     
     // Stores pronunciation and adjective overrides for specific words
-    private static final Map<String, Map<String, Object>> WORD_OVERRIDES = new HashMap<>();
+    private static final Map<String, Map<String, Object>> WORD_OVERRIDES = new ConcurrentHashMap<>();
+    
+    // Bumped on every change to curated entries or overrides
+    private final AtomicLong version = new AtomicLong();
+    
+    // Notified with the lowercased word whenever its curated data changes
+    private final List<Consumer<String>> changeListeners = new CopyOnWriteArrayList<>();
+    
+    private final boolean adminEnabled;
+    private final byte[] adminToken;
+    
+    public DictionaryEntryService(@Value("${app.curated.admin.enabled:false}") boolean adminEnabled,
+            @Value("${app.curated.admin.token:}") String adminToken) {
+        if (adminEnabled && adminToken.isBlank()) {
+            throw new IllegalStateException("app.curated.admin.token must be set when curation is enabled");
+        }
+        this.adminEnabled = adminEnabled;
+        this.adminToken = adminToken.getBytes(StandardCharsets.UTF_8);
+    }
     
     public static class DictionaryEntry {
         private String malayWord;
@@ -58,7 +85,7 @@ public class DictionaryEntryService {
      */
     public DictionaryEntry getEntryByMalayWord(String malayWord) {
         if (malayWord == null) return null;
-        return DICTIONARY_ENTRIES.get(malayWord.toLowerCase());
+        return DICTIONARY_ENTRIES.get(malayWord.toLowerCase(Locale.ROOT));
     }
     
     /**
@@ -78,7 +105,7 @@ public class DictionaryEntryService {
      * Check if a curated entry exists for a Malay word
      */
     public boolean hasEntry(String malayWord) {
-        return malayWord != null && DICTIONARY_ENTRIES.containsKey(malayWord.toLowerCase());
+        return malayWord != null && DICTIONARY_ENTRIES.containsKey(malayWord.toLowerCase(Locale.ROOT));
     }
     
     /**
@@ -114,7 +141,7 @@ public class DictionaryEntryService {
      */
     public String getPronunciationOverride(String malayWord) {
         if (malayWord == null) return null;
-        Map<String, Object> override = WORD_OVERRIDES.get(malayWord.toLowerCase());
+        Map<String, Object> override = WORD_OVERRIDES.get(malayWord.toLowerCase(Locale.ROOT));
         if (override != null) {
             return (String) override.get("pronunciation");
         }
@@ -126,10 +153,75 @@ public class DictionaryEntryService {
      */
     public Boolean getAdjectiveOverride(String malayWord) {
         if (malayWord == null) return null;
-        Map<String, Object> override = WORD_OVERRIDES.get(malayWord.toLowerCase());
+        Map<String, Object> override = WORD_OVERRIDES.get(malayWord.toLowerCase(Locale.ROOT));
         if (override != null) {
             return (Boolean) override.get("isAdjective");
         }
         return null;
     }
+    
+    /**
+     * Add or replace a curated dictionary entry
+     */
+    public void addEntry(DictionaryEntry entry) {
+        String key = entry.getMalayWord().toLowerCase(Locale.ROOT);
+        DICTIONARY_ENTRIES.put(key, entry);
+        fireChanged(key);
+    }
+    
+    /**
+     * Set pronunciation and/or adjective overrides for a word (null leaves the AI value)
+     */
+    public void setOverride(String malayWord, String pronunciation, Boolean isAdjective) {
+        String key = malayWord.toLowerCase(Locale.ROOT);
+        Map<String, Object> override = new HashMap<>();
+        override.put("pronunciation", pronunciation);
+        override.put("isAdjective", isAdjective);
+        WORD_OVERRIDES.put(key, override);
+        fireChanged(key);
+    }
+    
+    /**
+     * Remove the curated entry and overrides for a word
+     */
+    public void removeWord(String malayWord) {
+        String key = malayWord.toLowerCase(Locale.ROOT);
+        DICTIONARY_ENTRIES.remove(key);
+        WORD_OVERRIDES.remove(key);
+        fireChanged(key);
+    }
+    
+    public boolean isAdminEnabled() {
+        return adminEnabled;
+    }
+    
+    /**
+     * Returns whether a request presented the curation token; always false while
+     * curation is disabled
+     */
+    public boolean isAdminAuthorized(String token) {
+        return adminEnabled && token != null
+                && MessageDigest.isEqual(adminToken, token.getBytes(StandardCharsets.UTF_8));
+    }
+    
+    /**
+     * Get the current version of the curated data; it changes on every update
+     */
+    public long getVersion() {
+        return version.get();
+    }
+    
+    /**
+     * Register a callback invoked with the lowercased word after its curated data changes
+     */
+    public void addChangeListener(Consumer<String> listener) {
+        changeListeners.add(listener);
+    }
+    
+    private void fireChanged(String word) {
+        version.incrementAndGet();
+        for (Consumer<String> listener : changeListeners) {
+            listener.accept(word);
+        }
+    }
 }
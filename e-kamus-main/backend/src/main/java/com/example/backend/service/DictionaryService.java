@@ -1,26 +1,243 @@
 package com.example.backend.service;
 
+import com.example.backend.cache.BoundedCache;
+import com.example.backend.cache.SingleFlight;
+import com.example.backend.limit.LimitExceededException;
+import com.example.backend.model.AiResponse;
 import com.example.backend.model.DictionaryResponse;
+import com.example.backend.model.ExplanationSection;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import reactor.core.publisher.Mono;
 
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.BiFunction;
+import java.util.function.Consumer;
+
 @Service
 public class DictionaryService {
 
+    private static final String TRANSLATION_FAILED = "Translation failed";
+
     private final TranslationService translationService;
     private final DeepseekAiService deepseekAiService;
     private final DictionaryEntryService dictionaryEntryService;
+    private final PipelineMetrics pipelineMetrics;
+    private final PrefetchService prefetchService;
+    private final PopularWordService popularWordService;
+    // Finished responses keyed by the word exactly as requested
+    private final BoundedCache<String, DictionaryResponse> responseCache;
+    private final SingleFlight<String, DictionaryResponse> inFlight = new SingleFlight<>();
 
     public DictionaryService(TranslationService translationService,
             DeepseekAiService deepseekAiService,
-            DictionaryEntryService dictionaryEntryService) {
+            DictionaryEntryService dictionaryEntryService,
+            PipelineMetrics pipelineMetrics,
+            PrefetchService prefetchService,
+            PopularWordService popularWordService,
+            @Value("${app.dictionary-cache.max-entries:5000}") long maxEntries,
+            @Value("${app.dictionary-cache.max-weight-mb:32}") long maxWeightMb,
+            @Value("${app.dictionary-cache.ttl-hours:24}") long ttlHours) {
         this.translationService = translationService;
         this.deepseekAiService = deepseekAiService;
         this.dictionaryEntryService = dictionaryEntryService;
+        this.pipelineMetrics = pipelineMetrics;
+        this.prefetchService = prefetchService;
+        this.popularWordService = popularWordService;
+        this.responseCache = new BoundedCache<>(maxEntries, maxWeightMb * 1024 * 1024,
+                ttlHours > 0 ? Duration.ofHours(ttlHours) : null, DictionaryService::estimateBytes);
+        pipelineMetrics.monitorCache("dictionary", responseCache);
+        // Popular words stay memoized even when the cache is full of one-off lookups
+        responseCache.setPinningPolicy(word -> popularWordService.isPinned(TextNormalizer.normalize(word)));
+
+        // Drop memoized responses for a word as soon as its curated data changes
+        dictionaryEntryService.addChangeListener(this::invalidateWord);
+        // ...and when a fresh AI explanation replaces the one they were built from
+        deepseekAiService.addUpdateListener(this::invalidateMandarinWord);
     }
 
     public Mono<DictionaryResponse> processWord(String malayWord) {
+        return processWord(malayWord, deepseekAiService::generateExplanation, true);
+    }
+
+    /**
+     * Like {@link #processWord}, but not counted as a lookup: the word does not feed
+     * popular-word ranking and does not trigger prefetching. Used by the cache warm-up,
+     * whose sweep over every known word is not user traffic.
+     */
+    Mono<DictionaryResponse> warmWord(String malayWord) {
+        return processWord(malayWord, deepseekAiService::generateExplanation, false);
+    }
+
+    /**
+     * Like {@link #processWord}, but if an explanation has to be generated its sections
+     * are passed to the callback as they are generated, after the Mandarin word.
+     * Curated and memoized words only produce the final response.
+     *
+     * @param onSection Receives sections in order, with pronunciation and adjective
+     *                  overrides already applied
+     */
+    public Mono<DictionaryResponse> streamWord(String malayWord, Consumer<ExplanationSection> onSection) {
+        return processWord(malayWord, (mandarinWord, language) -> {
+            String pronunciationOverride = dictionaryEntryService.getPronunciationOverride(malayWord);
+            Boolean adjectiveOverride = dictionaryEntryService.getAdjectiveOverride(malayWord);
+            onSection.accept(new ExplanationSection(ExplanationSection.MANDARIN_WORD, mandarinWord));
+            return deepseekAiService.streamExplanation(mandarinWord, language, section -> {
+                if (pronunciationOverride != null && ExplanationSection.PINYIN.equals(section.getName())) {
+                    section = new ExplanationSection(ExplanationSection.PINYIN, pronunciationOverride);
+                } else if (adjectiveOverride != null && ExplanationSection.ADJECTIVE.equals(section.getName())) {
+                    section = new ExplanationSection(ExplanationSection.ADJECTIVE, adjectiveOverride.toString());
+                }
+                onSection.accept(section);
+            });
+        }, true);
+    }
+
+    private Mono<DictionaryResponse> processWord(String malayWord,
+            BiFunction<String, String, Mono<AiResponse>> explain, boolean recordTraffic) {
         System.out.println("Processing word: " + malayWord);
+        final long start = System.nanoTime();
+        final String language = inputLanguage(malayWord);
+        if (recordTraffic) {
+            popularWordService.recordLookup(malayWord);
+        }
+
+        DictionaryResponse memoized = responseCache.getIfPresent(malayWord);
+        if (memoized != null) {
+            if (recordTraffic) {
+                servedMemoized(malayWord, memoized, start);
+            }
+            return Mono.just(memoized);
+        }
+
+        // Repeated lookups of a word that is still being built share one pipeline run
+        return inFlight.execute(malayWord, () -> buildResponse(malayWord, explain))
+                .doOnNext(response -> {
+                    pipelineMetrics.recordRequest(language,
+                            isSuccessful(response) ? PipelineMetrics.SUCCESS : PipelineMetrics.ERROR,
+                            System.nanoTime() - start);
+                    if (recordTraffic) {
+                        popularWordService.recordResult(malayWord, response);
+                        // Warm the words likely to be looked up next, in the background
+                        prefetchService.afterLookup(malayWord, response);
+                    }
+                })
+                .doOnError(LimitExceededException.class, e -> pipelineMetrics.recordRequest(language,
+                        "rejected", System.nanoTime() - start));
+    }
+
+    /**
+     * Returns the memoized response for the word, counted as a lookup like
+     * {@link #processWord}, or null without counting anything if there is none
+     */
+    public DictionaryResponse lookupMemoized(String malayWord) {
+        if (responseCache.peek(malayWord) == null) {
+            return null;
+        }
+        final long start = System.nanoTime();
+        DictionaryResponse memoized = responseCache.getIfPresent(malayWord);
+        if (memoized != null) {
+            popularWordService.recordLookup(malayWord);
+            servedMemoized(malayWord, memoized, start);
+        }
+        return memoized;
+    }
+
+    private void servedMemoized(String malayWord, DictionaryResponse memoized, long start) {
+        System.out.println("Returning memoized response for: " + malayWord);
+        pipelineMetrics.recordRequest(inputLanguage(malayWord), "memoized", System.nanoTime() - start);
+        popularWordService.recordResult(malayWord, memoized);
+        prefetchService.afterLookup(malayWord, memoized);
+    }
+
+    private static String inputLanguage(String word) {
+        // Chinese characters mean the user typed Mandarin, anything else is Malay
+        return word.matches(".*[\\u4E00-\\u9FFF].*") ? "zh" : "ms";
+    }
+
+    /**
+     * Returns the memoized response for the word without running the pipeline or
+     * counting a cache hit, or null if there is none
+     */
+    public DictionaryResponse peekMemoized(String malayWord) {
+        return responseCache.peek(malayWord);
+    }
+
+    /**
+     * Whether a response is a real result rather than the error placeholder
+     */
+    public static boolean isSuccessful(DictionaryResponse response) {
+        return !TRANSLATION_FAILED.equals(response.getMandarinWord());
+    }
+
+    /**
+     * Returns size and hit/miss counts of the memoized response cache
+     */
+    public Map<String, Object> getCacheStatistics() {
+        Map<String, Object> stats = new HashMap<>();
+        long hits = responseCache.hitCount();
+        long misses = responseCache.missCount();
+        stats.put("size", responseCache.size());
+        stats.put("hits", hits);
+        stats.put("misses", misses);
+        stats.put("hitRatio", hits + misses == 0 ? 0.0 : (double) hits / (hits + misses));
+        stats.put("coalescedRequests", inFlight.joinedCount());
+        return stats;
+    }
+
+    /**
+     * Clears all memoized responses
+     */
+    public void clearCache() {
+        responseCache.invalidateAll();
+    }
+
+    private void invalidateWord(String lowercaseWord) {
+        // Keys keep the caller's casing, so drop every variant of the word
+        List<String> stale = new ArrayList<>();
+        responseCache.forEach((word, response) -> {
+            if (word.toLowerCase(Locale.ROOT).equals(lowercaseWord)) {
+                stale.add(word);
+            }
+        });
+        stale.forEach(responseCache::invalidate);
+        System.out.println("Invalidated " + stale.size() + " memoized responses for: " + lowercaseWord);
+    }
+
+    private void invalidateMandarinWord(String canonicalMandarinWord) {
+        List<String> stale = new ArrayList<>();
+        responseCache.forEach((word, response) -> {
+            if (canonicalMandarinWord.equals(TextNormalizer.normalize(response.getMandarinWord()))) {
+                stale.add(word);
+            }
+        });
+        stale.forEach(responseCache::invalidate);
+    }
+
+    private static long estimateBytes(String word, DictionaryResponse response) {
+        return 128 + 2L * (word.length()
+                + length(response.getMalayWord())
+                + length(response.getMandarinWord())
+                + length(response.getExplanation())
+                + length(response.getExamples())
+                + length(response.getPinyin()));
+    }
+
+    private static int length(String s) {
+        return s == null ? 0 : s.length();
+    }
+
+    private Mono<DictionaryResponse> buildResponse(String malayWord,
+            BiFunction<String, String, Mono<AiResponse>> explain) {
+        // Curated data that changes while this runs must not be overwritten by our result
+        final long curatedVersion = dictionaryEntryService.getVersion();
+        final String language = inputLanguage(malayWord);
+        final long curatedStart = System.nanoTime();
 
         // First check if we have a complete curated entry
         if (dictionaryEntryService.hasEntry(malayWord)) {
@@ -28,18 +245,20 @@ public class DictionaryService {
             DictionaryEntryService.DictionaryEntry curatedEntry = dictionaryEntryService.getEntryByMalayWord(malayWord);
             DictionaryResponse response = dictionaryEntryService.convertToDictionaryResponse(curatedEntry, true);
             System.out.println("Returning complete curated response for: " + malayWord);
+            pipelineMetrics.recordStage("curated", language, "hit", System.nanoTime() - curatedStart);
             return Mono.just(response);
         }
 
         // Check for pronunciation and adjective overrides (for AI-generated content)
         final String pronunciationOverride = dictionaryEntryService.getPronunciationOverride(malayWord);
         final Boolean adjectiveOverride = dictionaryEntryService.getAdjectiveOverride(malayWord);
+        pipelineMetrics.recordStage("curated", language, "miss", System.nanoTime() - curatedStart);
 
         System.out.println("Pronunciation override: " + pronunciationOverride);
         System.out.println("Adjective override: " + adjectiveOverride);
 
-        // Detect if input is Chinese (Mandarin) using regex for Chinese characters
-        boolean isChinese = malayWord.matches(".*[\\u4E00-\\u9FFF].*");
+        // Detect if input is Chinese (Mandarin) from its Chinese characters
+        boolean isChinese = "zh".equals(language);
         System.out.println("Is Chinese: " + isChinese);
 
         Mono<DictionaryResponse> result;
@@ -47,7 +266,7 @@ public class DictionaryService {
         if (isChinese) {
             // If it's already Chinese, use it directly as the Mandarin word
             System.out.println("Input is Chinese, using directly for explanation: " + malayWord);
-            result = deepseekAiService.generateExplanation(malayWord, "Mandarin")
+            result = explain.apply(malayWord, "Mandarin")
                     .doOnNext(aiResponse -> {
                         System.out.println("DeepseekAi response received:");
                         System.out.println("- Explanation: " + aiResponse.getExplanation());
@@ -56,6 +275,7 @@ public class DictionaryService {
                         System.out.println("- Is Adjective: " + aiResponse.isAdjective());
                     })
                     .map(aiResponse -> {
+                        long assembleStart = System.nanoTime();
                         DictionaryResponse response = new DictionaryResponse();
                         response.setMalayWord("(meaning)");
                         response.setMandarinWord(malayWord);
@@ -83,18 +303,21 @@ public class DictionaryService {
                             response.setAdjective(aiResponse.isAdjective());
                         }
 
+                        pipelineMetrics.recordStage("assemble", language, PipelineMetrics.SUCCESS,
+                                System.nanoTime() - assembleStart);
                         return response;
                     });
         } else {
             // If it's Malay, translate to Chinese first
             System.out.println("Input is Malay, translating: " + malayWord);
-            result = translationService.translateText(malayWord, "ms", "zh")
+            result = pipelineMetrics.timeStage("translate", language,
+                    translationService.translateText(malayWord, "ms", "zh"))
                     .flatMap(mandarinWord -> {
                         System.out.println("Translation successful: '" + malayWord + "' → '" + mandarinWord + "'");
                         System.out.println("Calling DeepseekAiService for '" + mandarinWord + "'");
 
                         // Now use DeepseekAi to get detailed information about the word
-                        return deepseekAiService.generateExplanation(mandarinWord, "Mandarin")
+                        return explain.apply(mandarinWord, "Mandarin")
                                 .doOnNext(aiResponse -> {
                                     System.out.println("DeepseekAi response received:");
                                     System.out.println("- Explanation: " + aiResponse.getExplanation());
@@ -103,6 +326,7 @@ public class DictionaryService {
                                     System.out.println("- Is Adjective: " + aiResponse.isAdjective());
                                 })
                                 .map(aiResponse -> {
+                                    long assembleStart = System.nanoTime();
                                     DictionaryResponse response = new DictionaryResponse();
                                     response.setMalayWord(malayWord);
                                     response.setMandarinWord(mandarinWord);
@@ -130,25 +354,37 @@ public class DictionaryService {
                                         response.setAdjective(aiResponse.isAdjective());
                                     }
 
+                                    pipelineMetrics.recordStage("assemble", language, PipelineMetrics.SUCCESS,
+                                            System.nanoTime() - assembleStart);
                                     return response;
                                 });
                     });
         }
 
-        return result.onErrorResume(e -> {
-            System.err.println("Error processing word: " + malayWord + ", error: " + e.getMessage());
+        return result
+                .doOnNext(response -> {
+                    // Only memoize responses backed by a current cached AI result, never
+                    // fallbacks or stale entries that are about to be refreshed
+                    if (curatedVersion == dictionaryEntryService.getVersion()
+                            && deepseekAiService.isCurrentInCache(response.getMandarinWord(), "Mandarin")) {
+                        responseCache.put(malayWord, response);
+                    }
+                })
+                // An overloaded Ollama is reported as such (429/503) rather than as a failed lookup
+                .onErrorResume(e -> !(e instanceof LimitExceededException), e -> {
+                    System.err.println("Error processing word: " + malayWord + ", error: " + e.getMessage());
 
-            // Create an error response instead of throwing an exception
-            DictionaryResponse errorResponse = new DictionaryResponse();
-            errorResponse.setMalayWord(malayWord);
-            errorResponse.setMandarinWord("Translation failed");
-            errorResponse.setExplanation(
-                    "Unable to translate this word. LibreTranslate API error: " + e.getMessage());
-            errorResponse.setExamples("No examples available");
-            errorResponse.setPinyin("No pronunciation available");
-            errorResponse.setAdjective(false);
+                    // Create an error response instead of throwing an exception
+                    DictionaryResponse errorResponse = new DictionaryResponse();
+                    errorResponse.setMalayWord(malayWord);
+                    errorResponse.setMandarinWord(TRANSLATION_FAILED);
+                    errorResponse.setExplanation(
+                            "Unable to translate this word. LibreTranslate API error: " + e.getMessage());
+                    errorResponse.setExamples("No examples available");
+                    errorResponse.setPinyin("No pronunciation available");
+                    errorResponse.setAdjective(false);
 
-            return Mono.just(errorResponse);
-        });
+                    return Mono.just(errorResponse);
+                });
     }
 }
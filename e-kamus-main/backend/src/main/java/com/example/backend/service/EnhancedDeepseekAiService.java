@@ -1,6 +1,10 @@
 package com.example.backend.service;
 
+import com.example.backend.cache.AiResponseCache;
+import com.example.backend.cache.SharedCacheTier;
+import com.example.backend.cluster.ClusterRouter;
 import com.example.backend.model.AiResponse;
+import com.example.backend.model.ExplanationSection;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -10,6 +14,11 @@ import org.springframework.stereotype.Service;
 import org.springframework.web.reactive.function.client.WebClient;
 import reactor.core.publisher.Mono;
 
+import java.util.List;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.UnaryOperator;
+
 /**
  * Enhanced DeepSeekAiService that overrides specific word translations
  * for better handling of common Malay words.
@@ -23,83 +32,94 @@ public class EnhancedDeepseekAiService extends DeepseekAiService {
 
     private static final Logger logger = LoggerFactory.getLogger(EnhancedDeepseekAiService.class);
 
-    public EnhancedDeepseekAiService(WebClient webClient, PinyinService pinyinService) {
-        super(webClient, pinyinService);
+    public EnhancedDeepseekAiService(WebClient webClient, PinyinService pinyinService, AiResponseCache cache,
+            SharedCacheTier sharedCache, PipelineMetrics pipelineMetrics, ClusterRouter clusterRouter,
+            OllamaKeepAlive keepAlive, OllamaPipeline pipeline) {
+        super(webClient, pinyinService, cache, sharedCache, pipelineMetrics, clusterRouter, keepAlive, pipeline);
         logger.info("EnhancedDeepseekAiService initialized - providing enhanced translations for common Malay words");
     }
 
     @Override
     public Mono<AiResponse> generateExplanation(String word, String language) {
-        String lowercaseWord = word.toLowerCase();
-
-        // Enhanced prompt for specific Malay words
+        // Post-process the response based on specific words
+        UnaryOperator<AiResponse> enhancement = enhancement(TextNormalizer.normalize(word));
         Mono<AiResponse> response = super.generateExplanation(word, language);
+        return enhancement != null ? response.map(enhancement) : response;
+    }
 
-        // Post-process the response based on specific words
-        switch (lowercaseWord) {
+    @Override
+    public Mono<AiResponse> streamExplanation(String word, String language, Consumer<ExplanationSection> onSection) {
+        if (enhancement(TextNormalizer.normalize(word)) == null) {
+            return super.streamExplanation(word, language, onSection);
+        }
+        // Streamed sections of these words would be replaced at the end, so send the
+        // enhanced ones only
+        return generateExplanation(word, language)
+                .doOnNext(response -> sections(response).forEach(onSection));
+    }
+
+    /**
+     * Returns the post-processing for a word with an enhanced translation, or null
+     */
+    private UnaryOperator<AiResponse> enhancement(String canonicalWord) {
+        switch (canonicalWord) {
             case "layu":
             case "枯萎":  // Chinese equivalent
-                response = response.map(this::enhanceLayu);
-                break;
+                return this::enhanceLayu;
             case "gerun":
             case "害怕":  // Chinese equivalent
-                response = response.map(this::enhanceGerun);
-                break;
+                return this::enhanceGerun;
             case "cantik":
             case "美丽":  // Chinese equivalent
-                response = response.map(this::enhanceCantik);
-                break;
+                return this::enhanceCantik;
             case "pintar":
             case "聪明":  // Chinese equivalent
-                response = response.map(this::enhancePintar);
-                break;
+                return this::enhancePintar;
             case "cepat":
             case "快":  // Chinese equivalent
-                response = response.map(this::enhanceCepat);
-                break;
+                return this::enhanceCepat;
             case "lambat":
             case "慢":  // Chinese equivalent
-                response = response.map(this::enhanceLambat);
-                break;
+                return this::enhanceLambat;
             case "tinggi":
             case "高":  // Chinese equivalent
-                response = response.map(this::enhanceTinggi);
-                break;
+                return this::enhanceTinggi;
             case "pendek":
             case "矮":  // Chinese equivalent
-                response = response.map(this::enhancePendek);
-                break;
+                return this::enhancePendek;
             case "baik":
             case "好":  // Chinese equivalent
-                response = response.map(this::enhanceBaik);
-                break;
+                return this::enhanceBaik;
             case "marah":
             case "生气":  // Chinese equivalent
-                response = response.map(this::enhanceMarah);
-                break;
+                return this::enhanceMarah;
             case "gembira":
             case "快乐":  // Chinese equivalent
-                response = response.map(this::enhanceGembira);
-                break;
+                return this::enhanceGembira;
             case "sedih":
             case "伤心":  // Chinese equivalent
             case "悲伤":  // Alternative Chinese
-                response = response.map(this::enhanceSedih);
-                break;
+                return this::enhanceSedih;
             case "bulat":
             case "圆形":  // Chinese equivalent
-                response = response.map(this::enhanceBulat);
-                break;
+                return this::enhanceBulat;
             case "bujur":
             case "椭圆形":  // Chinese equivalent
-                response = response.map(this::enhanceBujur);
-                break;
+                return this::enhanceBujur;
             case "浪费":  // Chinese word
-                response = response.map(this::enhanceLangfei);
-                break;
+                return this::enhanceLangfei;
+            default:
+                return null;
         }
+    }
 
-        return response;
+    @Override
+    public Set<String> getCuratedWords() {
+        Set<String> words = super.getCuratedWords();
+        words.addAll(List.of("layu", "枯萎", "gerun", "害怕", "cantik", "美丽", "pintar", "聪明", "cepat", "快",
+                "lambat", "慢", "tinggi", "高", "pendek", "矮", "baik", "好", "marah", "生气", "gembira", "快乐",
+                "sedih", "伤心", "悲伤", "bulat", "圆形", "bujur", "椭圆形", "浪费"));
+        return words;
     }
 
     /**
@@ -0,0 +1,28 @@
+package com.example.backend.service;
+
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.stereotype.Component;
+
+/**
+ * Reports the Ollama model as the "ollama" health component: DOWN until the model has
+ * been preloaded and answers a warm-up within app.ollama.readiness.max-latency-ms, and
+ * again whenever it is found unloaded or slow. It is part of the readiness group, so
+ * an instance only receives traffic once its model is warm; liveness ignores it, so a
+ * loading model never gets the instance restarted.
+ */
+@Component
+public class OllamaHealthIndicator implements HealthIndicator {
+
+    private final OllamaKeepAlive ollamaKeepAlive;
+
+    public OllamaHealthIndicator(OllamaKeepAlive ollamaKeepAlive) {
+        this.ollamaKeepAlive = ollamaKeepAlive;
+    }
+
+    @Override
+    public Health health() {
+        Health.Builder health = ollamaKeepAlive.isReady() ? Health.up() : Health.down();
+        return health.withDetails(ollamaKeepAlive.statistics()).build();
+    }
+}
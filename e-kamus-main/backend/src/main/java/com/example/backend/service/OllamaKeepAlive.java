@@ -0,0 +1,290 @@
+package com.example.backend.service;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Loads the model in Ollama at startup and keeps it loaded and warm.
+ *
+ * - Right after start, and whenever the model is found unloaded, a one-token warm-up
+ *   generation loads it. The model counts as ready once a warm-up answers within the
+ *   maximum latency; the first one after a load usually does not, so a second one
+ *   follows straight away to measure the warm model.
+ * - Every generation asks Ollama to keep the model for {@code keepAlive} after it.
+ *   When none has run for the ping interval, the next check sends a warm-up instead,
+ *   so the model is not unloaded between bursts while this instance runs.
+ * - Otherwise each check asks Ollama which models are loaded (/api/ps), so an unload
+ *   by Ollama or a model swap is noticed and the model is warmed up again.
+ *
+ * One instance serves every DeepseekAiService bean, so the model is warmed once.
+ */
+@Component
+public class OllamaKeepAlive {
+
+    private static final Logger logger = LoggerFactory.getLogger(OllamaKeepAlive.class);
+    private static final Duration WARMUP_TIMEOUT = Duration.ofMinutes(10);
+    private static final Duration PS_TIMEOUT = Duration.ofSeconds(10);
+
+    private final WebClient webClient;
+    private final String apiUrl;
+    private final String psUrl;
+    private final String model;
+    private final Object keepAlive;
+    private final Duration pingInterval;
+    private final Duration checkInterval;
+    private final Duration maxReadyLatency;
+    private final AtomicLong lastUse = new AtomicLong(System.nanoTime());
+    private final AtomicBoolean warming = new AtomicBoolean();
+    private final LongAdder warmups = new LongAdder();
+    private final LongAdder warmupFailures = new LongAdder();
+    private final LongAdder unloadsDetected = new LongAdder();
+    private volatile boolean ready;
+    private volatile String state = "pending";
+    private volatile long lastWarmupMillis = -1;
+    private volatile String lastError;
+    private ScheduledExecutorService timer;
+
+    /**
+     * @param keepAlive                 Ollama keep_alive value, a duration such as "30m"
+     *                                  or a number of seconds, -1 for never unloading;
+     *                                  blank leaves Ollama's default
+     * @param pingMinutes               Idle time after which the model is warmed up
+     *                                  again; zero disables these pings
+     * @param checkIntervalSeconds      How often the model's state is checked; zero
+     *                                  disables preloading and checks, and the model is
+     *                                  reported ready
+     * @param maxReadyLatencyMillis     Slowest warm-up that still counts as ready
+     */
+    public OllamaKeepAlive(WebClient webClient,
+            @Value("${deepseek.api.url}") String apiUrl,
+            @Value("${deepseek.api.key}") String apiKey,
+            @Value("${app.ollama.keep-alive:30m}") String keepAlive,
+            @Value("${app.ollama.keep-alive-ping-minutes:10}") long pingMinutes,
+            @Value("${app.ollama.readiness.check-interval-seconds:30}") long checkIntervalSeconds,
+            @Value("${app.ollama.readiness.max-latency-ms:15000}") long maxReadyLatencyMillis) {
+        this.webClient = webClient;
+        this.apiUrl = apiUrl;
+        this.psUrl = URI.create(apiUrl).resolve("/api/ps").toString();
+        this.model = DeepseekAiService.modelName(apiKey);
+        this.keepAlive = parseKeepAlive(keepAlive);
+        this.pingInterval = Duration.ofMinutes(pingMinutes);
+        this.checkInterval = Duration.ofSeconds(checkIntervalSeconds);
+        this.maxReadyLatency = Duration.ofMillis(maxReadyLatencyMillis);
+    }
+
+    @PostConstruct
+    public void start() {
+        if (checkInterval.isZero() || checkInterval.isNegative()) {
+            ready = true;
+            state = "unmonitored";
+            return;
+        }
+        timer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "ollama-keep-alive");
+            thread.setDaemon(true);
+            return thread;
+        });
+        state = "warming";
+        timer.scheduleWithFixedDelay(this::check, 0, checkInterval.toSeconds(), TimeUnit.SECONDS);
+        logger.info("Preloading model {} (keep_alive {}, checked every {}s)", model, keepAlive,
+                checkInterval.toSeconds());
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (timer != null) {
+            timer.shutdownNow();
+        }
+    }
+
+    /**
+     * Adds the keep_alive setting to a generate request body
+     */
+    public void apply(Map<String, Object> requestBody) {
+        if (keepAlive != null) {
+            requestBody.put("keep_alive", keepAlive);
+        }
+    }
+
+    /**
+     * Records that a generation has just been sent, which restarts Ollama's unload timer
+     */
+    public void recordUse() {
+        lastUse.set(System.nanoTime());
+    }
+
+    /**
+     * Called when Ollama answered that the model is still loading: the model is not
+     * ready, and is warmed up again without waiting for the next check
+     */
+    public void modelLoading() {
+        if (timer == null || timer.isShutdown()) {
+            return;
+        }
+        if (ready) {
+            unloadsDetected.increment();
+            logger.warn("Ollama reports model {} loading; warming it up again", model);
+        }
+        ready = false;
+        state = "loading";
+        timer.execute(this::check);
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    public Map<String, Object> statistics() {
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("model", model);
+        stats.put("ready", ready);
+        stats.put("state", state);
+        stats.put("keepAlive", keepAlive == null ? "default" : keepAlive);
+        stats.put("pingIntervalSeconds", pingInterval.toSeconds());
+        stats.put("maxReadyLatencyMs", maxReadyLatency.toMillis());
+        stats.put("lastWarmupMs", lastWarmupMillis);
+        stats.put("idleSeconds", TimeUnit.NANOSECONDS.toSeconds(System.nanoTime() - lastUse.get()));
+        stats.put("warmups", warmups.sum());
+        stats.put("warmupFailures", warmupFailures.sum());
+        stats.put("unloadsDetected", unloadsDetected.sum());
+        if (lastError != null) {
+            stats.put("lastError", lastError);
+        }
+        return stats;
+    }
+
+    void check() {
+        // A warm-up triggered by modelLoading() may already be running
+        if (!warming.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            if (!ready) {
+                // The first warm-up may include loading the model; the second shows its warm latency
+                if (warmUp() && !ready) {
+                    warmUp();
+                }
+            } else if (!pingInterval.isZero() && System.nanoTime() - lastUse.get() >= pingInterval.toNanos()) {
+                warmUp();
+            } else if (!isLoaded()) {
+                unloadsDetected.increment();
+                logger.warn("Model {} is no longer loaded in Ollama; warming it up again", model);
+                ready = false;
+                state = "unloaded";
+                if (warmUp() && !ready) {
+                    warmUp();
+                }
+            }
+        } catch (RuntimeException e) {
+            // Warm-ups handle their own failures, so this is Ollama not answering /api/ps
+            ready = false;
+            state = "unreachable";
+            lastError = e.getMessage();
+            logger.warn("Checking model {} failed: {}", model, e.getMessage());
+        } finally {
+            warming.set(false);
+        }
+    }
+
+    /**
+     * Sends a one-token generation and updates readiness from its latency
+     *
+     * @return true if Ollama answered
+     */
+    private boolean warmUp() {
+        Map<String, Object> requestBody = new HashMap<>();
+        requestBody.put("model", model);
+        requestBody.put("prompt", "Hi");
+        requestBody.put("stream", false);
+        requestBody.put("options", Map.of("num_predict", 1));
+        apply(requestBody);
+        long start = System.nanoTime();
+        try {
+            Map<?, ?> reply = webClient.post()
+                    .uri(apiUrl)
+                    .bodyValue(requestBody)
+                    .retrieve()
+                    .bodyToMono(Map.class)
+                    .block(WARMUP_TIMEOUT);
+            long millis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+            warmups.increment();
+            recordUse();
+            lastWarmupMillis = millis;
+            lastError = null;
+            boolean wasReady = ready;
+            ready = millis <= maxReadyLatency.toMillis() && reply != null && !"load".equals(reply.get("done_reason"));
+            state = ready ? "ready" : "slow";
+            if (ready && !wasReady) {
+                logger.info("Model {} is ready (warm-up took {} ms)", model, millis);
+            } else if (!ready) {
+                logger.info("Model {} answered a warm-up in {} ms, above the {} ms readiness limit", model, millis,
+                        maxReadyLatency.toMillis());
+            }
+            return true;
+        } catch (RuntimeException e) {
+            warmupFailures.increment();
+            ready = false;
+            state = "unreachable";
+            lastError = e.getMessage();
+            logger.warn("Could not warm up model {}: {}", model, e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * Returns whether Ollama lists the model as loaded
+     */
+    private boolean isLoaded() {
+        Map<?, ?> reply = webClient.get()
+                .uri(psUrl)
+                .retrieve()
+                .bodyToMono(Map.class)
+                .block(PS_TIMEOUT);
+        if (reply == null || !(reply.get("models") instanceof List<?> models)) {
+            return false;
+        }
+        for (Object loaded : models) {
+            if (loaded instanceof Map<?, ?> entry && (sameModel(entry.get("name")) || sameModel(entry.get("model")))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private boolean sameModel(Object name) {
+        if (!(name instanceof String loadedName)) {
+            return false;
+        }
+        // Ollama lists "model" as "model:latest"
+        return loadedName.equals(model) || (!model.contains(":") && loadedName.equals(model + ":latest"));
+    }
+
+    private static Object parseKeepAlive(String keepAlive) {
+        if (keepAlive == null || keepAlive.isBlank()) {
+            return null;
+        }
+        try {
+            // Ollama reads a bare number as seconds
+            return Long.parseLong(keepAlive.trim());
+        } catch (NumberFormatException e) {
+            return keepAlive.trim();
+        }
+    }
+}
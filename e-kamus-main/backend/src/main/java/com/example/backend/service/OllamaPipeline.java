@@ -0,0 +1,124 @@
+package com.example.backend.service;
+
+import com.example.backend.cache.BackgroundQueue;
+import com.example.backend.cache.MicroBatcher;
+import com.example.backend.cache.SingleFlight;
+import com.example.backend.limit.AdaptiveLimiter;
+import com.example.backend.limit.HedgedUpstream;
+import com.example.backend.model.AiResponse;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.BiFunction;
+
+/**
+ * The parts of the explanation pipeline that must exist once per process rather than
+ * once per DeepseekAiService bean (the base service and EnhancedDeepseekAiService are
+ * both beans): the in-flight map, the stale-entry refresh queue, the Ollama
+ * concurrency limiter, the upstream timeouts and the micro-batcher. Sharing them keeps
+ * identical lookups on one generation and the configured limit the real cap on Ollama.
+ */
+@Component
+public class OllamaPipeline {
+
+    private final SingleFlight<String, AiResponse> inFlight = new SingleFlight<>();
+    private final BackgroundQueue refreshQueue;
+    private final AdaptiveLimiter limiter;
+    // Single-word and batched generations take very different times, so their latencies are kept apart
+    private final HedgedUpstream upstream;
+    private final HedgedUpstream batchUpstream;
+    private final MicroBatcher<String, AiResponse> batcher;
+    private final AtomicReference<BiFunction<String, List<String>, Mono<Map<String, AiResponse>>>> batchHandler =
+            new AtomicReference<>();
+
+    public OllamaPipeline(PipelineMetrics pipelineMetrics,
+            @Value("${deepseek.api.url}") String apiUrl,
+            @Value("${app.cache.refresh-concurrency:1}") int refreshConcurrency,
+            @Value("${app.cache.refresh-queue-capacity:1000}") int refreshQueueCapacity,
+            @Value("${app.ollama.limit.initial:2}") int initialLimit,
+            @Value("${app.ollama.limit.min:1}") int minLimit,
+            @Value("${app.ollama.limit.max:8}") int maxLimit,
+            @Value("${app.ollama.limit.max-queue:20}") int maxQueue,
+            @Value("${app.ollama.limit.max-queue-wait-seconds:30}") long maxQueueWaitSeconds,
+            @Value("${app.ollama.limit.latency-tolerance:2.0}") double latencyTolerance,
+            // Further Ollama generate endpoints serving the same model, used for hedged attempts
+            @Value("${app.ollama.hedge-urls:}") String hedgeUrls,
+            @Value("${app.upstream.min-timeout-ms:5000}") long minTimeoutMs,
+            @Value("${app.upstream.max-timeout-seconds:300}") long maxTimeoutSeconds,
+            @Value("${app.upstream.timeout-multiplier:3.0}") double timeoutMultiplier,
+            @Value("${app.upstream.window-size:200}") int windowSize,
+            @Value("${app.ollama.batch.enabled:true}") boolean batchEnabled,
+            @Value("${app.ollama.batch.max-size:4}") int batchMaxSize,
+            @Value("${app.ollama.batch.window-ms:50}") long batchWindowMs) {
+        this.refreshQueue = new BackgroundQueue("ai-cache-refresh", refreshConcurrency, refreshQueueCapacity,
+                inFlight::inFlightCount);
+        this.limiter = new AdaptiveLimiter("Ollama", initialLimit, minLimit, maxLimit, maxQueue,
+                Duration.ofSeconds(maxQueueWaitSeconds), latencyTolerance);
+        pipelineMetrics.monitorLimiter("ollama", limiter);
+        List<String> urls = HedgedUpstream.urls(apiUrl, hedgeUrls);
+        this.upstream = new HedgedUpstream("Ollama", urls, Duration.ofMillis(minTimeoutMs),
+                Duration.ofSeconds(maxTimeoutSeconds), timeoutMultiplier, windowSize);
+        this.batchUpstream = new HedgedUpstream("Ollama batch", urls, Duration.ofMillis(minTimeoutMs),
+                Duration.ofSeconds(maxTimeoutSeconds), timeoutMultiplier, windowSize);
+        this.batcher = batchEnabled && batchMaxSize > 1
+                ? new MicroBatcher<>("ai-batch", batchMaxSize, Duration.ofMillis(batchWindowMs), this::runBatch)
+                : null;
+    }
+
+    /**
+     * Sets how batches are generated. Every service bean generates them the same way,
+     * so the first one to register serves all of them.
+     */
+    public void handleBatches(BiFunction<String, List<String>, Mono<Map<String, AiResponse>>> handler) {
+        batchHandler.compareAndSet(null, handler);
+    }
+
+    public SingleFlight<String, AiResponse> inFlight() {
+        return inFlight;
+    }
+
+    public BackgroundQueue refreshQueue() {
+        return refreshQueue;
+    }
+
+    public AdaptiveLimiter limiter() {
+        return limiter;
+    }
+
+    public HedgedUpstream upstream() {
+        return upstream;
+    }
+
+    public HedgedUpstream batchUpstream() {
+        return batchUpstream;
+    }
+
+    /**
+     * Returns the micro-batcher, or null when batching is disabled
+     */
+    public MicroBatcher<String, AiResponse> batcher() {
+        return batcher;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        refreshQueue.shutdown();
+        if (batcher != null) {
+            batcher.shutdown();
+        }
+    }
+
+    private Mono<Map<String, AiResponse>> runBatch(String language, List<String> words) {
+        BiFunction<String, List<String>, Mono<Map<String, AiResponse>>> handler = batchHandler.get();
+        if (handler == null) {
+            return Mono.error(new IllegalStateException("No batch handler registered"));
+        }
+        return handler.apply(language, words);
+    }
+}
@@ -0,0 +1,191 @@
+package com.example.backend.service;
+
+import com.example.backend.cache.BoundedCache;
+import com.example.backend.cache.CacheMetrics;
+import com.example.backend.limit.AdaptiveLimiter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * PipelineMetrics times the stages of a dictionary lookup so latency can be attributed
+ * in production. Timers are published through Actuator as:
+ * - ekamus.pipeline.stage (stage=curated|translate|ollama|parse|assemble, language, outcome)
+ * - ekamus.pipeline.request (language, outcome), the whole of processWord
+ * - ekamus.cache.load (cache, outcome), the time to produce a value on a cache miss
+ * - ekamus.ollama.prompt-eval and ekamus.ollama.eval (language), Ollama's own time
+ *   spent evaluating the prompt and generating, with ekamus.ollama.prompt-tokens
+ */
+@Component
+public class PipelineMetrics {
+
+    public static final String SUCCESS = "success";
+    public static final String ERROR = "error";
+    public static final String EMPTY = "empty";
+    public static final String CANCELLED = "cancelled";
+
+    private final MeterRegistry registry;
+    private final LongAdder ollamaReplies = new LongAdder();
+    private final LongAdder promptTokens = new LongAdder();
+    private final LongAdder promptEvalNanos = new LongAdder();
+    private final LongAdder evalTokens = new LongAdder();
+    private final LongAdder evalNanos = new LongAdder();
+
+    public PipelineMetrics(MeterRegistry registry) {
+        this.registry = registry;
+    }
+
+    /**
+     * Registers size, weight, hit/miss and eviction meters for a cache
+     */
+    public void monitorCache(String cacheName, BoundedCache<?, ?> cache) {
+        CacheMetrics.monitor(registry, cacheName, cache);
+    }
+
+    /**
+     * Registers gauges for a concurrency limiter, for alerting and autoscaling:
+     * ekamus.limiter.limit, .in-flight and .queued, plus ekamus.limiter.rejected
+     */
+    public void monitorLimiter(String name, AdaptiveLimiter limiter) {
+        Gauge.builder("ekamus.limiter.limit", limiter, AdaptiveLimiter::getLimit)
+                .description("Current adaptive concurrency limit").tag("limiter", name).register(registry);
+        Gauge.builder("ekamus.limiter.in-flight", limiter, AdaptiveLimiter::getInFlight)
+                .description("Calls currently holding a permit").tag("limiter", name).register(registry);
+        Gauge.builder("ekamus.limiter.queued", limiter, AdaptiveLimiter::getQueued)
+                .description("Calls waiting for a permit").tag("limiter", name).register(registry);
+        FunctionCounter.builder("ekamus.limiter.rejected", limiter, AdaptiveLimiter::rejectedCount)
+                .description("Calls rejected with 429 or 503").tag("limiter", name).register(registry);
+    }
+
+    /**
+     * Times a stage from subscription until it completes, fails or is cancelled
+     */
+    public <T> Mono<T> timeStage(String stage, String language, Mono<T> mono) {
+        return timed(mono, (outcome, nanos) -> recordStage(stage, language, outcome, nanos));
+    }
+
+    /**
+     * Times the whole lookup of a word, outcome being e.g. memoized or success
+     */
+    public void recordRequest(String language, String outcome, long nanos) {
+        Timer.builder("ekamus.pipeline.request")
+                .description("End-to-end dictionary lookup time")
+                .tag("language", language)
+                .tag("outcome", outcome)
+                .register(registry)
+                .record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void recordStage(String stage, String language, String outcome, long nanos) {
+        Timer.builder("ekamus.pipeline.stage")
+                .description("Time spent in one stage of a dictionary lookup")
+                .tag("stage", stage)
+                .tag("language", language)
+                .tag("outcome", outcome)
+                .register(registry)
+                .record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Records the timings Ollama reports in the final reply of a generation. Tokens of
+     * a prompt prefix Ollama could reuse from its previous request are not evaluated
+     * again, so they show up as fewer prompt tokens and less prompt-eval time.
+     */
+    public void recordOllamaTimings(String language, Map<?, ?> reply) {
+        long promptNanos = longValue(reply.get("prompt_eval_duration"));
+        long prompt = longValue(reply.get("prompt_eval_count"));
+        long generateNanos = longValue(reply.get("eval_duration"));
+        if (promptNanos <= 0 && generateNanos <= 0) {
+            // Not a final reply, or an Ollama version without timings
+            return;
+        }
+        ollamaReplies.increment();
+        promptTokens.add(prompt);
+        promptEvalNanos.add(promptNanos);
+        evalTokens.add(longValue(reply.get("eval_count")));
+        evalNanos.add(generateNanos);
+        Timer.builder("ekamus.ollama.prompt-eval")
+                .description("Time Ollama spent evaluating the prompt")
+                .tag("language", language)
+                .register(registry)
+                .record(promptNanos, TimeUnit.NANOSECONDS);
+        Timer.builder("ekamus.ollama.eval")
+                .description("Time Ollama spent generating the reply")
+                .tag("language", language)
+                .register(registry)
+                .record(generateNanos, TimeUnit.NANOSECONDS);
+        DistributionSummary.builder("ekamus.ollama.prompt-tokens")
+                .description("Prompt tokens Ollama had to evaluate")
+                .tag("language", language)
+                .register(registry)
+                .record(prompt);
+    }
+
+    /**
+     * Returns averages of the timings recorded by {@link #recordOllamaTimings}
+     */
+    public Map<String, Object> ollamaTimingStatistics() {
+        long replies = ollamaReplies.sum();
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("replies", replies);
+        stats.put("averagePromptTokens", replies == 0 ? 0 : promptTokens.sum() / replies);
+        stats.put("averagePromptEvalMs", replies == 0 ? 0 : TimeUnit.NANOSECONDS.toMillis(promptEvalNanos.sum() / replies));
+        stats.put("averageEvalTokens", replies == 0 ? 0 : evalTokens.sum() / replies);
+        stats.put("averageEvalMs", replies == 0 ? 0 : TimeUnit.NANOSECONDS.toMillis(evalNanos.sum() / replies));
+        return stats;
+    }
+
+    /**
+     * Times the loading of a value after a cache miss
+     */
+    public <T> Mono<T> timeLoad(String cacheName, Mono<T> load) {
+        return timed(load, (outcome, nanos) -> Timer.builder("ekamus.cache.load")
+                .description("Time to produce a value after a cache miss")
+                .tag("cache", cacheName)
+                .tag("outcome", outcome)
+                .register(registry)
+                .record(nanos, TimeUnit.NANOSECONDS));
+    }
+
+    private static <T> Mono<T> timed(Mono<T> mono, Recorder recorder) {
+        return Mono.defer(() -> {
+            long start = System.nanoTime();
+            AtomicBoolean recorded = new AtomicBoolean();
+            return mono
+                    .doOnSuccess(value -> {
+                        if (recorded.compareAndSet(false, true)) {
+                            recorder.record(value != null ? SUCCESS : EMPTY, System.nanoTime() - start);
+                        }
+                    })
+                    .doOnError(e -> {
+                        if (recorded.compareAndSet(false, true)) {
+                            recorder.record(ERROR, System.nanoTime() - start);
+                        }
+                    })
+                    .doOnCancel(() -> {
+                        if (recorded.compareAndSet(false, true)) {
+                            recorder.record(CANCELLED, System.nanoTime() - start);
+                        }
+                    });
+        });
+    }
+
+    private static long longValue(Object value) {
+        return value instanceof Number number ? number.longValue() : 0;
+    }
+
+    @FunctionalInterface
+    private interface Recorder {
+        void record(String outcome, long nanos);
+    }
+}
@@ -0,0 +1,182 @@
+package com.example.backend.service;
+
+import com.example.backend.cache.AiResponseCache;
+import com.example.backend.cache.HeavyHitters;
+import com.example.backend.model.DictionaryResponse;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * PopularWordService tracks which words are looked up most, using a decaying
+ * {@link HeavyHitters} sketch updated on every lookup. Every app.popular.refresh-seconds
+ * it takes the current top words and:
+ * - pins them, and the AI explanations they resolve to, against cache eviction
+ * - queues the explanations of any that are no longer cached for regeneration
+ *
+ * Counts are halved every app.popular.decay-minutes, so words that stop being looked up
+ * drop out of the ranking.
+ */
+@Service
+public class PopularWordService {
+
+    private static final Logger logger = LoggerFactory.getLogger(PopularWordService.class);
+    private static final String LANGUAGE = "Mandarin";
+
+    private final DeepseekAiService deepseekAiService;
+    private final PrefetchService prefetchService;
+    private final HeavyHitters hitters;
+    private final int topK;
+    private final boolean pinningEnabled;
+    private final boolean precomputeEnabled;
+
+    // Mandarin word each tracked word resolved to on its last successful lookup
+    private final Map<String, String> mandarinByWord = new ConcurrentHashMap<>();
+    private volatile Set<String> pinnedWords = Set.of();
+    private volatile Set<String> pinnedAiKeys = Set.of();
+    private final AtomicLong precomputed = new AtomicLong();
+    private final ScheduledExecutorService maintenance;
+
+    public PopularWordService(DeepseekAiService deepseekAiService,
+            AiResponseCache aiResponseCache,
+            PrefetchService prefetchService,
+            MeterRegistry meterRegistry,
+            @Value("${app.popular.top-k:50}") int topK,
+            @Value("${app.popular.sketch-width:4096}") int sketchWidth,
+            @Value("${app.popular.refresh-seconds:30}") long refreshSeconds,
+            @Value("${app.popular.decay-minutes:10}") long decayMinutes,
+            @Value("${app.popular.pin:true}") boolean pinningEnabled,
+            @Value("${app.popular.precompute:true}") boolean precomputeEnabled) {
+        this.deepseekAiService = deepseekAiService;
+        this.prefetchService = prefetchService;
+        this.topK = topK;
+        this.hitters = new HeavyHitters(topK, sketchWidth);
+        this.pinningEnabled = pinningEnabled;
+        this.precomputeEnabled = precomputeEnabled;
+        if (pinningEnabled) {
+            aiResponseCache.setPinningPolicy(key -> pinnedAiKeys.contains(key));
+        }
+
+        this.maintenance = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "popular-words");
+            thread.setDaemon(true);
+            thread.setPriority(Thread.MIN_PRIORITY);
+            return thread;
+        });
+        maintenance.scheduleWithFixedDelay(this::refresh, refreshSeconds, refreshSeconds, TimeUnit.SECONDS);
+        if (decayMinutes > 0) {
+            maintenance.scheduleWithFixedDelay(hitters::decay, decayMinutes, decayMinutes, TimeUnit.MINUTES);
+        }
+
+        Gauge.builder("ekamus.popular.pinned", this, service -> service.pinnedWords.size())
+                .description("Popular words currently pinned in the caches").register(meterRegistry);
+    }
+
+    /**
+     * Counts a lookup of the word; cheap enough for the request path
+     */
+    public void recordLookup(String word) {
+        hitters.record(TextNormalizer.normalize(word));
+    }
+
+    /**
+     * Remembers what a tracked word resolved to, so its explanation can be pinned
+     */
+    public void recordResult(String word, DictionaryResponse response) {
+        String canonical = TextNormalizer.normalize(word);
+        if (DictionaryService.isSuccessful(response) && hitters.isTracked(canonical)) {
+            mandarinByWord.put(canonical, TextNormalizer.normalize(response.getMandarinWord()));
+        }
+    }
+
+    /**
+     * Whether the word (in canonical form) is currently pinned as popular
+     */
+    public boolean isPinned(String canonicalWord) {
+        return pinnedWords.contains(canonicalWord);
+    }
+
+    /**
+     * Returns the most looked-up words with their decayed counts, most popular first
+     */
+    public List<Map<String, Object>> getTopWords(int limit) {
+        List<Map<String, Object>> words = new ArrayList<>();
+        for (Map.Entry<String, Long> entry : hitters.top(Math.min(limit, topK))) {
+            Map<String, Object> word = new LinkedHashMap<>();
+            String mandarinWord = mandarinByWord.get(entry.getKey());
+            word.put("word", entry.getKey());
+            word.put("count", entry.getValue());
+            word.put("mandarinWord", mandarinWord);
+            word.put("cached", mandarinWord != null && deepseekAiService.isInCache(mandarinWord, LANGUAGE));
+            word.put("pinned", pinnedWords.contains(entry.getKey()));
+            words.add(word);
+        }
+        return words;
+    }
+
+    /**
+     * Returns sketch, pinning and precomputation counters for the stats endpoint
+     */
+    public Map<String, Object> getStatistics() {
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("topK", topK);
+        stats.put("recordedLookups", hitters.recordedCount());
+        stats.put("trackedWords", hitters.candidateCount());
+        stats.put("pinnedWords", pinnedWords.size());
+        stats.put("pinnedExplanations", pinnedAiKeys.size());
+        stats.put("precomputed", precomputed.get());
+        return stats;
+    }
+
+    void refresh() {
+        try {
+            List<Map.Entry<String, Long>> top = hitters.top();
+            Set<String> words = new HashSet<>();
+            Set<String> aiKeys = new HashSet<>();
+            for (Map.Entry<String, Long> entry : top) {
+                String word = entry.getKey();
+                words.add(word);
+                String mandarinWord = mandarinByWord.get(word);
+                if (mandarinWord == null) {
+                    continue;
+                }
+                aiKeys.add(DeepseekAiService.cacheKey(mandarinWord, LANGUAGE));
+                if (precomputeEnabled && !deepseekAiService.isInCache(mandarinWord, LANGUAGE)
+                        && prefetchService.prefetch(mandarinWord)) {
+                    precomputed.incrementAndGet();
+                    logger.debug("Queued popular word '{}' -> '{}' for precomputation", word, mandarinWord);
+                }
+            }
+            if (pinningEnabled) {
+                pinnedWords = words;
+                pinnedAiKeys = aiKeys;
+            }
+            // Forget resolutions for words that are no longer tracked
+            mandarinByWord.keySet().removeIf(word -> !hitters.isTracked(word));
+        } catch (RuntimeException e) {
+            logger.error("Could not refresh popular words: {}", e.getMessage(), e);
+        }
+    }
+
+    @PreDestroy
+    public void stop() {
+        maintenance.shutdownNow();
+    }
+}
@@ -0,0 +1,257 @@
+package com.example.backend.service;
+
+import com.example.backend.cache.BackgroundQueue;
+import com.example.backend.cache.BoundedCache;
+import com.example.backend.model.DictionaryResponse;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * PrefetchService warms the words a user is likely to look up next, after a lookup
+ * has completed:
+ * - known vocabulary appearing in the generated example sentences, in Chinese or in
+ *   their Malay translations (mapped to Mandarin through the curated word list)
+ * - the reverse translation of the looked-up word, for the translate endpoint
+ *
+ * Prefetches run on a {@link BackgroundQueue}, so they only start while no live
+ * request is waiting on Ollama, and they are limited to app.prefetch.per-minute
+ * words per minute and app.prefetch.max-per-lookup per lookup.
+ */
+@Service
+public class PrefetchService {
+
+    private static final Logger logger = LoggerFactory.getLogger(PrefetchService.class);
+    private static final String LANGUAGE = "Mandarin";
+    private static final Pattern MALAY_WORD = Pattern.compile("[A-Za-z]+(?:-[A-Za-z]+)*");
+    private static final long WINDOW_MILLIS = Duration.ofMinutes(1).toMillis();
+
+    private final DeepseekAiService deepseekAiService;
+    private final TranslationService translationService;
+    private final TranslationMappingService translationMappingService;
+
+    private final boolean enabled;
+    private final int perMinute;
+    private final int maxPerLookup;
+    private final BackgroundQueue queue;
+
+    // Mandarin vocabulary matched in examples, and the length of its longest word
+    private final Set<String> mandarinVocabulary = new HashSet<>();
+    private final int longestMandarinWord;
+
+    // Words prefetched recently, to count how many were then actually looked up
+    private final BoundedCache<String, Boolean> prefetched;
+
+    private final Object budgetLock = new Object();
+    private long windowStart;
+    private int usedInWindow;
+
+    private final LongAdder scheduled = new LongAdder();
+    private final LongAdder overBudget = new LongAdder();
+    private final LongAdder used = new LongAdder();
+
+    public PrefetchService(DeepseekAiService deepseekAiService,
+            TranslationService translationService,
+            TranslationMappingService translationMappingService,
+            PinyinService pinyinService,
+            MeterRegistry meterRegistry,
+            @Value("${app.prefetch.enabled:true}") boolean enabled,
+            @Value("${app.prefetch.per-minute:20}") int perMinute,
+            @Value("${app.prefetch.max-per-lookup:3}") int maxPerLookup,
+            @Value("${app.prefetch.concurrency:1}") int concurrency,
+            @Value("${app.prefetch.queue-capacity:200}") int queueCapacity) {
+        this.deepseekAiService = deepseekAiService;
+        this.translationService = translationService;
+        this.translationMappingService = translationMappingService;
+        this.enabled = enabled && perMinute > 0 && maxPerLookup > 0;
+        this.perMinute = perMinute;
+        this.maxPerLookup = maxPerLookup;
+        this.queue = this.enabled
+                ? new BackgroundQueue("prefetch", concurrency, queueCapacity, deepseekAiService::getInFlightCount)
+                : null;
+        this.prefetched = new BoundedCache<>(10_000, 10_000, Duration.ofHours(1), (key, value) -> 1);
+
+        int longest = 0;
+        Set<String> candidates = new HashSet<>(translationMappingService.getAllMandarinWords());
+        candidates.addAll(deepseekAiService.getCuratedWords());
+        candidates.addAll(pinyinService.getAllMappings().keySet());
+        for (String word : candidates) {
+            String canonical = TextNormalizer.normalize(word);
+            if (canonical.codePoints().allMatch(PrefetchService::isHan)) {
+                mandarinVocabulary.add(canonical);
+                longest = Math.max(longest, canonical.length());
+            }
+        }
+        this.longestMandarinWord = longest;
+
+        FunctionCounter.builder("ekamus.prefetch.scheduled", scheduled, LongAdder::sum)
+                .description("Words queued for predictive prefetch").register(meterRegistry);
+        FunctionCounter.builder("ekamus.prefetch.used", used, LongAdder::sum)
+                .description("Prefetched words that were later looked up").register(meterRegistry);
+        logger.info("PrefetchService initialized: enabled={}, perMinute={}, maxPerLookup={}, vocabulary={}",
+                this.enabled, perMinute, maxPerLookup, mandarinVocabulary.size());
+    }
+
+    /**
+     * Queues likely follow-up words for a completed lookup; never blocks the caller
+     *
+     * @param word     The word as the user typed it
+     * @param response The response returned for it
+     */
+    public void afterLookup(String word, DictionaryResponse response) {
+        if (!enabled || !DictionaryService.isSuccessful(response) || response.getMandarinWord() == null) {
+            return;
+        }
+        String mandarinWord = TextNormalizer.normalize(response.getMandarinWord());
+        if (prefetched.invalidate(mandarinWord) != null) {
+            used.increment();
+        }
+
+        int queuedForLookup = 0;
+        for (String candidate : relatedWords(mandarinWord, response.getExamples())) {
+            if (queuedForLookup >= maxPerLookup) {
+                break;
+            }
+            if (enqueueExplanation(candidate)) {
+                queuedForLookup++;
+                logger.debug("Prefetching '{}' after lookup of '{}'", candidate, word);
+            }
+        }
+
+        // Looking the word up from the other side starts with the reverse translation
+        if (translationService.peekTranslation(mandarinWord, "zh", "ms") == null) {
+            String key = "zh>ms:" + mandarinWord;
+            if (!queue.isPending(key) && takeBudget()
+                    && queue.submit(key, () -> translationService.translateText(mandarinWord, "zh", "ms"))) {
+                scheduled.increment();
+            }
+        }
+    }
+
+    /**
+     * Queues generation of a Mandarin word's explanation unless it is already cached,
+     * within the same budget as lookup-driven prefetches
+     *
+     * @return true if the word was queued
+     */
+    public boolean prefetch(String mandarinWord) {
+        return enabled && enqueueExplanation(TextNormalizer.normalize(mandarinWord));
+    }
+
+    /**
+     * Returns queue, budget and usefulness counters for the stats endpoint
+     */
+    public Map<String, Object> getStatistics() {
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("enabled", enabled);
+        if (!enabled) {
+            return stats;
+        }
+        stats.put("scheduled", scheduled.sum());
+        stats.put("queued", queue.queuedCount());
+        stats.put("running", queue.runningCount());
+        stats.put("completed", queue.completedCount());
+        stats.put("rejected", queue.droppedCount());
+        stats.put("overBudget", overBudget.sum());
+        stats.put("used", used.sum());
+        stats.put("perMinute", perMinute);
+        return stats;
+    }
+
+    /**
+     * Finds vocabulary in the examples, in order of appearance, excluding the word itself
+     */
+    Set<String> relatedWords(String mandarinWord, String examples) {
+        Set<String> related = new LinkedHashSet<>();
+        if (examples == null || examples.isEmpty()) {
+            return related;
+        }
+        String text = TextNormalizer.normalize(examples);
+        // Longest match first, so 美味 is preferred over a shorter word inside it
+        for (int i = 0; i < text.length(); i++) {
+            if (!isHan(text.charAt(i))) {
+                continue;
+            }
+            int maxLength = Math.min(longestMandarinWord, text.length() - i);
+            for (int length = maxLength; length > 0; length--) {
+                String candidate = text.substring(i, i + length);
+                if (mandarinVocabulary.contains(candidate)) {
+                    related.add(candidate);
+                    i += length - 1;
+                    break;
+                }
+            }
+        }
+        Matcher matcher = MALAY_WORD.matcher(text);
+        while (matcher.find()) {
+            String translated = translationMappingService.getMalayToMandarin(matcher.group());
+            if (translated != null) {
+                related.add(TextNormalizer.normalize(translated));
+            }
+        }
+        related.remove(mandarinWord);
+        return related;
+    }
+
+    private boolean enqueueExplanation(String word) {
+        if (deepseekAiService.isInCache(word, LANGUAGE) || queue.isPending(word) || !takeBudget()) {
+            return false;
+        }
+        if (!queue.submit(word, () -> prefetchExplanation(word))) {
+            return false;
+        }
+        scheduled.increment();
+        prefetched.put(word, Boolean.TRUE);
+        return true;
+    }
+
+    private Mono<?> prefetchExplanation(String word) {
+        // It may have been looked up for real while this was queued
+        if (deepseekAiService.isInCache(word, LANGUAGE)) {
+            return Mono.empty();
+        }
+        return deepseekAiService.generateExplanation(word, LANGUAGE);
+    }
+
+    private boolean takeBudget() {
+        synchronized (budgetLock) {
+            long now = System.currentTimeMillis();
+            if (now - windowStart >= WINDOW_MILLIS) {
+                windowStart = now;
+                usedInWindow = 0;
+            }
+            if (usedInWindow >= perMinute) {
+                overBudget.increment();
+                return false;
+            }
+            usedInWindow++;
+            return true;
+        }
+    }
+
+    private static boolean isHan(int codePoint) {
+        return Character.UnicodeScript.of(codePoint) == Character.UnicodeScript.HAN;
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (queue != null) {
+            queue.shutdown();
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package com.example.backend.service;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Finds completed sections (EXPLANATION:, PINYIN:, EXAMPLES:, IS_ADJECTIVE:) in
+ * generated text while it is still arriving token by token.
+ *
+ * A section is complete once a later header has appeared after it, and its content
+ * is cut exactly as the full-text parser would cut it: from its first header to the
+ * next header, with &lt;think&gt; blocks removed. Text inside an unfinished
+ * &lt;think&gt; block is ignored until the block closes. The last section is only
+ * known when generation ends, so it is never returned from here.
+ */
+public final class SectionStreamParser {
+
+    static final List<String> HEADERS = List.of("EXPLANATION:", "PINYIN:", "EXAMPLES:", "IS_ADJECTIVE:");
+
+    private final StringBuilder text = new StringBuilder();
+    private final Set<String> returned = new HashSet<>();
+
+    /**
+     * Adds the next chunk of generated text
+     *
+     * @return Sections completed by this chunk, keyed by header name without the colon,
+     *         in the order they appear
+     */
+    public Map<String, String> append(String chunk) {
+        text.append(chunk);
+        // Only a chunk ending a header can complete the section before it
+        if (chunk.indexOf(':') < 0 || returned.size() == HEADERS.size() - 1) {
+            return Map.of();
+        }
+        String visible = visibleText();
+
+        List<int[]> positions = new ArrayList<>();
+        for (int i = 0; i < HEADERS.size(); i++) {
+            int position = visible.indexOf(HEADERS.get(i));
+            if (position >= 0) {
+                positions.add(new int[] { position, i });
+            }
+        }
+        positions.sort((a, b) -> Integer.compare(a[0], b[0]));
+
+        Map<String, String> completed = new LinkedHashMap<>();
+        for (int i = 0; i < positions.size() - 1; i++) {
+            String header = HEADERS.get(positions.get(i)[1]);
+            String name = header.substring(0, header.length() - 1);
+            if (returned.add(name)) {
+                int start = positions.get(i)[0] + header.length();
+                completed.put(name, visible.substring(start, positions.get(i + 1)[0]).trim());
+            }
+        }
+        return completed;
+    }
+
+    /**
+     * Returns all text received so far
+     */
+    public String text() {
+        return text.toString();
+    }
+
+    private String visibleText() {
+        String visible = text.toString().replace("\r\n", "\n").replaceAll("(?s)<think>.*?</think>", "");
+        int unfinishedThink = visible.indexOf("<think>");
+        return unfinishedThink >= 0 ? visible.substring(0, unfinishedThink) : visible;
+    }
+}
@@ -0,0 +1,160 @@
+package com.example.backend.service;
+
+import com.example.backend.model.AiResponse;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Decodes explanations generated with Ollama's {@code format} option, which constrains
+ * the model to JSON matching {@link #SCHEMA}:
+ * {@code {explanation, pinyin, examples: [{chinese, malay}], isAdjective}}.
+ *
+ * Replaces the header search and regex clean-up of the text parser with one Jackson
+ * read. Examples are joined into the text layout the text parser produces (Chinese
+ * line, Malay line, blank line between examples) so both modes return the same shape.
+ */
+public final class StructuredExplanationParser {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper()
+            .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+
+    /**
+     * JSON schema of a single explanation, passed to Ollama as {@code format}
+     */
+    public static final Map<String, Object> SCHEMA = Map.of(
+            "type", "object",
+            "properties", Map.of(
+                    "explanation", Map.of("type", "string"),
+                    "pinyin", Map.of("type", "string"),
+                    "examples", Map.of(
+                            "type", "array",
+                            "items", Map.of(
+                                    "type", "object",
+                                    "properties", Map.of(
+                                            "chinese", Map.of("type", "string"),
+                                            "malay", Map.of("type", "string")),
+                                    "required", List.of("chinese", "malay"))),
+                    "isAdjective", Map.of("type", "boolean")),
+            "required", List.of("explanation", "pinyin", "examples", "isAdjective"));
+
+    /**
+     * JSON schema of a batched reply: one numbered explanation per word
+     */
+    public static final Map<String, Object> BATCH_SCHEMA = Map.of(
+            "type", "object",
+            "properties", Map.of(
+                    "answers", Map.of(
+                            "type", "array",
+                            "items", Map.of(
+                                    "type", "object",
+                                    "properties", withNumber(),
+                                    "required", List.of("number", "explanation", "pinyin", "examples",
+                                            "isAdjective")))),
+            "required", List.of("answers"));
+
+    private StructuredExplanationParser() {
+    }
+
+    /**
+     * Decodes one explanation. The pronunciation is left empty when the model gave none.
+     *
+     * @throws IllegalArgumentException if the text is not JSON of the expected shape or
+     *                                  has no explanation or examples
+     */
+    public static AiResponse parse(String json) {
+        return toResponse(read(json, Reply.class));
+    }
+
+    /**
+     * Decodes a batched reply into explanations keyed by their 1-based word number.
+     * Answers without a usable number, explanation or examples are left out.
+     *
+     * @throws IllegalArgumentException if the text is not JSON of the expected shape
+     */
+    public static Map<Integer, AiResponse> parseBatch(String json) {
+        BatchReply batch = read(json, BatchReply.class);
+        if (batch.answers() == null) {
+            throw new IllegalArgumentException("No answers in batched reply");
+        }
+        Map<Integer, AiResponse> responses = new HashMap<>();
+        for (int i = 0; i < batch.answers().size(); i++) {
+            Reply reply = batch.answers().get(i);
+            if (reply == null) {
+                continue;
+            }
+            int number = reply.number() != null ? reply.number() : i + 1;
+            try {
+                responses.putIfAbsent(number, toResponse(reply));
+            } catch (IllegalArgumentException e) {
+                // Generated again on its own by the caller
+            }
+        }
+        return responses;
+    }
+
+    private static <T> T read(String json, Class<T> type) {
+        try {
+            T value = MAPPER.readValue(json, type);
+            if (value == null) {
+                throw new IllegalArgumentException("Empty JSON reply");
+            }
+            return value;
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Reply is not the requested JSON: " + e.getOriginalMessage(), e);
+        }
+    }
+
+    private static AiResponse toResponse(Reply reply) {
+        String explanation = trimmed(reply.explanation());
+        if (explanation.isEmpty()) {
+            throw new IllegalArgumentException("Reply has no explanation");
+        }
+        StringBuilder examples = new StringBuilder();
+        if (reply.examples() != null) {
+            for (Example example : reply.examples()) {
+                if (example == null || trimmed(example.chinese()).isEmpty()) {
+                    continue;
+                }
+                if (examples.length() > 0) {
+                    examples.append("\n\n");
+                }
+                examples.append(trimmed(example.chinese()));
+                String malay = trimmed(example.malay());
+                if (!malay.isEmpty()) {
+                    examples.append('\n').append(malay);
+                }
+            }
+        }
+        if (examples.length() == 0) {
+            throw new IllegalArgumentException("Reply has no examples");
+        }
+        return new AiResponse(explanation, examples.toString(), trimmed(reply.pinyin()),
+                Boolean.TRUE.equals(reply.isAdjective()));
+    }
+
+    private static String trimmed(String text) {
+        return text == null ? "" : text.strip();
+    }
+
+    private static Map<String, Object> withNumber() {
+        @SuppressWarnings("unchecked")
+        Map<String, Object> properties = new HashMap<>((Map<String, Object>) SCHEMA.get("properties"));
+        properties.put("number", Map.of("type", "integer"));
+        return properties;
+    }
+
+    private record Example(String chinese, String malay) {
+    }
+
+    private record Reply(Integer number, String explanation, String pinyin, List<Example> examples,
+            Boolean isAdjective) {
+    }
+
+    private record BatchReply(List<Reply> answers) {
+    }
+}
@@ -0,0 +1,89 @@
+package com.example.backend.service;
+
+import java.text.Normalizer;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * TextNormalizer produces the canonical form of a word or phrase used for cache keys
+ * and curated-mapping lookups, so spelling variants of the same input share one entry.
+ *
+ * The canonical form:
+ * - folds full-width ASCII (Ｍａｋａｎ) and the ideographic space to their normal forms
+ * - applies Unicode NFC so composed and decomposed accents compare equal
+ * - trims and collapses runs of whitespace to a single space
+ * - lowercases with Locale.ROOT (only affects Latin script)
+ * - maps common traditional Chinese characters to simplified (們 → 们)
+ *
+ * {@link #normalizePhrase} does the same without lowercasing, for text whose meaning
+ * can depend on case.
+ */
+public final class TextNormalizer {
+
+    // Paired by position: TRADITIONAL.charAt(i) simplifies to SIMPLIFIED.charAt(i).
+    // Only characters that never appear in simplified text are listed, so the mapping
+    // cannot change the meaning of text that is already simplified.
+    private static final String TRADITIONAL =
+            "們這個來時會說對國學開關長為東車書見話讓還點從後過問間門當電動經現發進種樣頭親愛樂買賣聽寫讀語錢飯飲熱涼氣風雲陽週節藝術師醫體廣場畫筆紙張號碼歲鐘機飛鳥魚馬龍貓雞豬葉樹園邊遠難應該認識誰麼嗎給謝請歡麗傷憂鬱醜壞舊強輕緊鬆髒亂靜滿夠臉腦聰懶勞幫運轉變錯誤戀憶夢願雙簡單歷區縣農業產資貨費價賽員隊戰爭軍槍彈殺殘藥療護衛華廳廚麵湯鴨鵝蝦蘋與專實際環態構傳統級極標準確織紅綠藍黃顏聲響頁題類順須預領顧飄餓館饞驚騎驗髮鬧魯鹽麥黨齊齒龜裡裏於橢圓";
+    private static final String SIMPLIFIED =
+            "们这个来时会说对国学开关长为东车书见话让还点从后过问间门当电动经现发进种样头亲爱乐买卖听写读语钱饭饮热凉气风云阳周节艺术师医体广场画笔纸张号码岁钟机飞鸟鱼马龙猫鸡猪叶树园边远难应该认识谁么吗给谢请欢丽伤忧郁丑坏旧强轻紧松脏乱静满够脸脑聪懒劳帮运转变错误恋忆梦愿双简单历区县农业产资货费价赛员队战争军枪弹杀残药疗护卫华厅厨面汤鸭鹅虾苹与专实际环态构传统级极标准确织红绿蓝黄颜声响页题类顺须预领顾飘饿馆馋惊骑验发闹鲁盐麦党齐齿龟里里于椭圆";
+
+    private static final Map<Character, Character> TRADITIONAL_TO_SIMPLIFIED = new HashMap<>();
+
+    static {
+        if (TRADITIONAL.length() != SIMPLIFIED.length()) {
+            throw new IllegalStateException("Traditional/simplified tables are misaligned");
+        }
+        for (int i = 0; i < TRADITIONAL.length(); i++) {
+            TRADITIONAL_TO_SIMPLIFIED.put(TRADITIONAL.charAt(i), SIMPLIFIED.charAt(i));
+        }
+    }
+
+    private TextNormalizer() {
+    }
+
+    /**
+     * Returns the canonical form of the text, or null if the text is null
+     */
+    public static String normalize(String text) {
+        String phrase = normalizePhrase(text);
+        return phrase == null ? null : phrase.toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Returns the canonical form of the text with its case kept, or null if the text is null
+     */
+    public static String normalizePhrase(String text) {
+        if (text == null) {
+            return null;
+        }
+        StringBuilder folded = new StringBuilder(text.length());
+        boolean pendingSpace = false;
+        for (int i = 0; i < text.length(); i++) {
+            char c = foldCharacter(text.charAt(i));
+            if (Character.isWhitespace(c)) {
+                pendingSpace = folded.length() > 0;
+                continue;
+            }
+            if (pendingSpace) {
+                folded.append(' ');
+                pendingSpace = false;
+            }
+            folded.append(c);
+        }
+        return Normalizer.normalize(folded, Normalizer.Form.NFC);
+    }
+
+    private static char foldCharacter(char c) {
+        if (c >= '\uFF01' && c <= '\uFF5E') {
+            // Full-width ASCII block maps 1:1 onto printable ASCII
+            return (char) (c - 0xFEE0);
+        }
+        if (c == '\u3000') {
+            return ' ';
+        }
+        Character simplified = TRADITIONAL_TO_SIMPLIFIED.get(c);
+        return simplified != null ? simplified : c;
+    }
+}
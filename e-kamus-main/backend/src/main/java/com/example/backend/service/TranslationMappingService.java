@@ -2,6 +2,7 @@ package com.example.backend.service;
 
 import org.springframework.stereotype.Service;
 import java.util.*;
+import java.util.function.UnaryOperator;
 
 /**
  * TranslationMappingService provides curated translations for common Malay-Mandarin word pairs.
@@ -22,6 +23,31 @@ public class TranslationMappingService {
     
     static {
         initializeTranslations();
+        
+        // Store every key in canonical form so lookups match regardless of case,
+        // spacing, full-width or traditional characters. Sentences keep their case,
+        // as translation cache keys for phrases do.
+        canonicalizeKeys(MALAY_TO_MANDARIN, TextNormalizer::normalize);
+        canonicalizeKeys(MANDARIN_TO_MALAY, TextNormalizer::normalize);
+        canonicalizeKeys(MANDARIN_TO_MALAY_SENTENCES, TextNormalizer::normalizePhrase);
+        canonicalizeKeys(MALAY_TO_MANDARIN_SENTENCES, TextNormalizer::normalizePhrase);
+    }
+    
+    private static void canonicalizeKeys(Map<String, String> map, UnaryOperator<String> normalizer) {
+        Map<String, String> canonical = new HashMap<>();
+        Map<String, String> originalKeys = new HashMap<>();
+        for (Map.Entry<String, String> entry : map.entrySet()) {
+            String key = normalizer.apply(entry.getKey());
+            String previous = originalKeys.put(key, entry.getKey());
+            if (previous != null) {
+                // One translation would silently replace the other
+                throw new IllegalStateException("Curated entries '" + previous + "' and '" + entry.getKey()
+                        + "' have the same canonical form '" + key + "'");
+            }
+            canonical.put(key, entry.getValue());
+        }
+        map.clear();
+        map.putAll(canonical);
     }
     
     private static void initializeTranslations() {
@@ -101,7 +127,7 @@ public class TranslationMappingService {
      */
     public String getMalayToMandarin(String malayWord) {
         if (malayWord == null) return null;
-        return MALAY_TO_MANDARIN.get(malayWord.toLowerCase());
+        return MALAY_TO_MANDARIN.get(TextNormalizer.normalize(malayWord));
     }
     
     /**
@@ -109,21 +135,21 @@ public class TranslationMappingService {
      */
     public String getMalayFromMandarin(String mandarinWord) {
         if (mandarinWord == null) return null;
-        return MANDARIN_TO_MALAY.get(mandarinWord);
+        return MANDARIN_TO_MALAY.get(TextNormalizer.normalize(mandarinWord));
     }
     
     /**
      * Check if a Malay word has a mapping
      */
     public boolean hasMalayTranslation(String malayWord) {
-        return malayWord != null && MALAY_TO_MANDARIN.containsKey(malayWord.toLowerCase());
+        return malayWord != null && MALAY_TO_MANDARIN.containsKey(TextNormalizer.normalize(malayWord));
     }
     
     /**
      * Check if a Mandarin word has a mapping
      */
     public boolean hasMandarinTranslation(String mandarinWord) {
-        return mandarinWord != null && MANDARIN_TO_MALAY.containsKey(mandarinWord);
+        return mandarinWord != null && MANDARIN_TO_MALAY.containsKey(TextNormalizer.normalize(mandarinWord));
     }
     
     /**
@@ -145,7 +171,7 @@ public class TranslationMappingService {
      */
     public String getMandarinSentenceToMalay(String mandarinSentence) {
         if (mandarinSentence == null) return null;
-        return MANDARIN_TO_MALAY_SENTENCES.get(mandarinSentence);
+        return MANDARIN_TO_MALAY_SENTENCES.get(TextNormalizer.normalizePhrase(mandarinSentence));
     }
     
     /**
@@ -153,20 +179,20 @@ public class TranslationMappingService {
      */
     public String getMalaySentenceToMandarin(String malaySentence) {
         if (malaySentence == null) return null;
-        return MALAY_TO_MANDARIN_SENTENCES.get(malaySentence);
+        return MALAY_TO_MANDARIN_SENTENCES.get(TextNormalizer.normalizePhrase(malaySentence));
     }
     
     /**
      * Check if a Mandarin sentence has a mapping
      */
     public boolean hasMandarinSentenceMapping(String mandarinSentence) {
-        return mandarinSentence != null && MANDARIN_TO_MALAY_SENTENCES.containsKey(mandarinSentence);
+        return mandarinSentence != null && MANDARIN_TO_MALAY_SENTENCES.containsKey(TextNormalizer.normalizePhrase(mandarinSentence));
     }
     
     /**
      * Check if a Malay sentence has a mapping
      */
     public boolean hasMalaySentenceMapping(String malaySentence) {
-        return malaySentence != null && MALAY_TO_MANDARIN_SENTENCES.containsKey(malaySentence);
+        return malaySentence != null && MALAY_TO_MANDARIN_SENTENCES.containsKey(TextNormalizer.normalizePhrase(malaySentence));
     }
 }
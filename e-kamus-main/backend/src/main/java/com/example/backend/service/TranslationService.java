@@ -1,35 +1,120 @@
 package com.example.backend.service;
 
+import com.example.backend.cache.BoundedCache;
+import com.example.backend.cache.SharedCacheTier;
+import com.example.backend.cache.SingleFlight;
+import com.example.backend.limit.HedgedUpstream;
 import com.example.backend.model.LibreTranslateRequest;
 import com.example.backend.model.LibreTranslateResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.web.reactive.function.client.WebClient;
 import org.springframework.web.reactive.function.client.WebClientResponseException;
 import reactor.core.publisher.Mono;
 
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.BiConsumer;
+
 @Service
 public class TranslationService {
 
+    private static final Logger logger = LoggerFactory.getLogger(TranslationService.class);
+    private static final String SHARED_NAMESPACE = "translation";
+
     private final WebClient webClient;
     private final TranslationMappingService translationMappingService;
-
-    @Value("${libretranslate.api.url}")
-    private String libreTranslateApiUrl;
+    // LibreTranslate results keyed by source, target and normalized text (see cacheKey)
+    private final BoundedCache<String, String> translationCache;
+    private final SharedCacheTier sharedCache;
+    private final PipelineMetrics pipelineMetrics;
+    private final Duration ttl;
+    private final SingleFlight<String, String> inFlight = new SingleFlight<>();
+    private final HedgedUpstream libreTranslate;
+    private final String libreTranslateApiUrl;
 
     @Value("${libretranslate.api.key:#{null}}")
     private String libreTranslateApiKey;
 
-    public TranslationService(WebClient webClient, TranslationMappingService translationMappingService) {
+    public TranslationService(WebClient webClient, TranslationMappingService translationMappingService,
+            SharedCacheTier sharedCache, PipelineMetrics pipelineMetrics,
+            @Value("${app.translation-cache.max-entries:5000}") long maxEntries,
+            @Value("${app.translation-cache.max-weight-mb:8}") long maxWeightMb,
+            @Value("${app.translation-cache.ttl-hours:24}") long ttlHours,
+            @Value("${libretranslate.api.url}") String libreTranslateApiUrl,
+            // Further LibreTranslate endpoints, used for hedged attempts
+            @Value("${app.translation.hedge-urls:}") String hedgeUrls,
+            @Value("${app.upstream.min-timeout-ms:5000}") long minTimeoutMs,
+            @Value("${app.upstream.max-timeout-seconds:300}") long maxTimeoutSeconds,
+            @Value("${app.upstream.timeout-multiplier:3.0}") double timeoutMultiplier,
+            @Value("${app.upstream.window-size:200}") int windowSize) {
         this.webClient = webClient;
+        this.libreTranslateApiUrl = libreTranslateApiUrl;
+        this.libreTranslate = new HedgedUpstream("LibreTranslate", HedgedUpstream.urls(libreTranslateApiUrl, hedgeUrls),
+                Duration.ofMillis(minTimeoutMs), Duration.ofSeconds(maxTimeoutSeconds), timeoutMultiplier, windowSize);
         this.translationMappingService = translationMappingService;
+        this.sharedCache = sharedCache;
+        this.pipelineMetrics = pipelineMetrics;
+        this.ttl = ttlHours > 0 ? Duration.ofHours(ttlHours) : null;
+        this.translationCache = new BoundedCache<>(maxEntries, maxWeightMb * 1024 * 1024, ttl,
+                (key, value) -> 96 + 2L * (key.length() + value.length()));
+        pipelineMetrics.monitorCache("translation", translationCache);
         System.out.println("TranslationService initialized with WebClient and TranslationMappingService");
     }
 
     public Mono<String> translateText(String text, String sourceLanguage, String targetLanguage) {
         // Check if we have a curated sentence translation first (for phrases)
+        String curatedTranslation = curatedTranslation(text, sourceLanguage, targetLanguage);
+
+        if (curatedTranslation != null) {
+            System.out.println("Using curated translation: '" + text + "' → '" + curatedTranslation + "'");
+            return Mono.just(curatedTranslation);
+        }
+
+        String cacheKey = cacheKey(text, sourceLanguage, targetLanguage);
+        String cachedTranslation = translationCache.getIfPresent(cacheKey);
+        if (cachedTranslation != null) {
+            logger.debug("Using cached translation: '{}' → '{}'", text, cachedTranslation);
+            return Mono.just(cachedTranslation);
+        }
+
+        // Concurrent requests for the same text share one lookup: the tier shared with
+        // other instances first, then LibreTranslate
+        return inFlight.execute(cacheKey, () -> sharedCache.get(SHARED_NAMESPACE, cacheKey)
+                .map(bytes -> new String(bytes, StandardCharsets.UTF_8))
+                .doOnNext(translated -> {
+                    logger.debug("Using shared cached translation: '{}' → '{}'", text, translated);
+                    translationCache.put(cacheKey, translated);
+                })
+                .switchIfEmpty(Mono.defer(() -> pipelineMetrics.timeLoad("translation",
+                        callLibreTranslate(text, sourceLanguage, targetLanguage))
+                        .doOnNext(translated -> {
+                            translationCache.put(cacheKey, translated);
+                            sharedCache.putAsync(SHARED_NAMESPACE, cacheKey,
+                                    translated.getBytes(StandardCharsets.UTF_8), ttl);
+                        }))));
+    }
+
+    /**
+     * Returns the translation if it is curated or already cached, without calling
+     * LibreTranslate or counting a cache hit; null otherwise
+     */
+    public String peekTranslation(String text, String sourceLanguage, String targetLanguage) {
+        String curatedTranslation = curatedTranslation(text, sourceLanguage, targetLanguage);
+        if (curatedTranslation != null) {
+            return curatedTranslation;
+        }
+        return translationCache.peek(cacheKey(text, sourceLanguage, targetLanguage));
+    }
+
+    private String curatedTranslation(String text, String sourceLanguage, String targetLanguage) {
         String curatedTranslation = null;
-        
+
         if ("ms".equals(sourceLanguage) && "zh".equals(targetLanguage)) {
             // Check sentence mapping first, then word mapping
             curatedTranslation = translationMappingService.getMalaySentenceToMandarin(text);
@@ -43,11 +128,74 @@ public class TranslationService {
                 curatedTranslation = translationMappingService.getMalayFromMandarin(text);
             }
         }
-        
-        if (curatedTranslation != null) {
-            System.out.println("Using curated translation: '" + text + "' → '" + curatedTranslation + "'");
-            return Mono.just(curatedTranslation);
+        return curatedTranslation;
+    }
+
+    /**
+     * Returns hit/miss counts of the translation cache and how many LibreTranslate
+     * calls were started or avoided by joining one already in flight
+     */
+    public Map<String, Object> getCacheStatistics() {
+        Map<String, Object> stats = new HashMap<>();
+        long hits = translationCache.hitCount();
+        long misses = translationCache.missCount();
+        stats.put("size", translationCache.size());
+        stats.put("hits", hits);
+        stats.put("misses", misses);
+        stats.put("evictions", translationCache.evictionCount());
+        stats.put("hitRatio", hits + misses == 0 ? 0.0 : (double) hits / (hits + misses));
+        stats.put("upstreamCalls", inFlight.startedCount());
+        stats.put("coalescedRequests", inFlight.joinedCount());
+        stats.put("upstream", libreTranslate.statistics());
+        return stats;
+    }
+
+    /**
+     * Clears cached LibreTranslate results
+     */
+    public void clearCache() {
+        translationCache.invalidateAll();
+    }
+
+    /**
+     * Visits every cached LibreTranslate result, keyed as "source>target:text"
+     */
+    public void forEachCachedTranslation(BiConsumer<String, String> action) {
+        translationCache.forEach(action);
+    }
+
+    /**
+     * Seeds the cache with a result exported from another instance
+     *
+     * @return true if stored, false if an entry existed and overwrite is off
+     * @throws IllegalArgumentException if the key is not in the "source>target:text" form
+     */
+    public boolean importCachedTranslation(String key, String translation, boolean overwrite) {
+        int arrow = key.indexOf('>');
+        int colon = key.indexOf(':');
+        if (arrow <= 0 || colon <= arrow + 1 || translation == null) {
+            throw new IllegalArgumentException("Malformed translation cache entry: " + key);
         }
+        String canonicalKey = cacheKey(key.substring(colon + 1), key.substring(0, arrow),
+                key.substring(arrow + 1, colon));
+        if (!overwrite && translationCache.containsKey(canonicalKey)) {
+            return false;
+        }
+        translationCache.put(canonicalKey, translation);
+        return true;
+    }
+
+    static String cacheKey(String text, String sourceLanguage, String targetLanguage) {
+        String canonical = TextNormalizer.normalizePhrase(text);
+        // Case can change what a sentence means (proper nouns, acronyms), so only single
+        // words are case-folded
+        if (canonical != null && canonical.indexOf(' ') < 0) {
+            canonical = canonical.toLowerCase(Locale.ROOT);
+        }
+        return sourceLanguage + ">" + targetLanguage + ":" + canonical;
+    }
+
+    private Mono<String> callLibreTranslate(String text, String sourceLanguage, String targetLanguage) {
         // Create LibreTranslate request with proper field names
         LibreTranslateRequest request = new LibreTranslateRequest(text, sourceLanguage, targetLanguage);
 
@@ -60,12 +208,12 @@ public class TranslationService {
         System.out.println("Calling LibreTranslate API at: " + libreTranslateApiUrl);
         System.out.println("Translating: '" + text + "' from " + sourceLanguage + " to " + targetLanguage);
 
-        // Call the LibreTranslate API
-        return webClient.post()
-                .uri(libreTranslateApiUrl)
+        // Call the LibreTranslate API, bounded by its adaptive timeout
+        return libreTranslate.call(url -> webClient.post()
+                .uri(url)
                 .bodyValue(request)
                 .retrieve()
-                .bodyToMono(LibreTranslateResponse.class)
+                .bodyToMono(LibreTranslateResponse.class))
                 .doOnNext(response -> {
                     System.out.println("Received LibreTranslate API response: " + response.getTranslatedText());
                 })
@@ -0,0 +1,56 @@
+package com.example.backend.cache;
+
+import com.example.backend.model.AiResponse;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class AiResponseCacheTest {
+
+    private static final long TTL_MILLIS = Duration.ofHours(1).toMillis();
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void promotedEntriesKeepTheirOriginalExpiry() throws Exception {
+        AiResponseStore store = new AiResponseStore(true, directory.toString(), 1, 0.5, 60, 1);
+        try {
+            // Generated almost an hour ago, so it has moments left to live
+            CachedAiResponse entry = new CachedAiResponse(new AiResponse("explanation", "examples", "chī", false),
+                    "v1", System.currentTimeMillis() - TTL_MILLIS + 300);
+            cache(store).put("Mandarin:吃", entry);
+
+            // A fresh on-heap tier promotes it from the store
+            AiResponseCache restarted = cache(store);
+            assertNotNull(restarted.getEntry("Mandarin:吃"));
+            Thread.sleep(500);
+            assertNull(restarted.getEntry("Mandarin:吃"));
+
+            // An entry already past its TTL is not kept on-heap at all
+            AiResponseCache cache = cache(store);
+            cache.put("Mandarin:睡", new CachedAiResponse(new AiResponse("explanation", "examples", "shuì", false),
+                    "v1", System.currentTimeMillis() - 2 * TTL_MILLIS));
+            assertNull(cache.getEntry("Mandarin:睡"));
+
+            // Nor is one that has expired in the store reported as present
+            store.put("Mandarin:喝", new CachedAiResponse(new AiResponse("explanation", "examples", "hē", false),
+                    "v1", System.currentTimeMillis() - 2 * TTL_MILLIS));
+            assertFalse(cache(store).contains("Mandarin:喝"));
+        } finally {
+            store.close();
+        }
+    }
+
+    private static AiResponseCache cache(AiResponseStore store) {
+        // No off-heap tier, so an entry leaving the on-heap tier can only be found in the store
+        return new AiResponseCache(store, new SimpleMeterRegistry(), 100, 1, 1, 1.0, 0.25, 0, true, 1000, 0.01);
+    }
+}
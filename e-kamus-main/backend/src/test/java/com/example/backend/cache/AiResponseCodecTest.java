@@ -0,0 +1,64 @@
+package com.example.backend.cache;
+
+import com.example.backend.model.AiResponse;
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AiResponseCodecTest {
+
+    static AiResponse sampleResponse() {
+        return new AiResponse(
+                "吃 bermaksud memasukkan makanan ke dalam mulut dan menelannya. Perkataan ini biasanya "
+                        + "digunakan untuk menggambarkan perbuatan makan dalam kehidupan seharian.",
+                "我每天早上吃面包。(Wǒ měitiān zǎoshang chī miànbāo.) Saya makan roti setiap pagi.\n"
+                        + "你吃饭了吗？(Nǐ chīfàn le ma?) Adakah kamu sudah makan?\n"
+                        + "他们在餐厅吃晚饭。(Tāmen zài cāntīng chī wǎnfàn.) Mereka makan malam di restoran.",
+                "chī", false);
+    }
+
+    @Test
+    void typicalExplanationRoundTripsSmallerThanUtf8() {
+        AiResponse response = sampleResponse();
+
+        byte[] encoded = AiResponseCodec.encode(response);
+        AiResponse decoded = AiResponseCodec.decode(encoded);
+
+        assertEquals(response.getExplanation(), decoded.getExplanation());
+        assertEquals(response.getExamples(), decoded.getExamples());
+        assertEquals(response.getPronunciation(), decoded.getPronunciation());
+        int utf8 = (response.getExplanation() + response.getExamples() + response.getPronunciation())
+                .getBytes(StandardCharsets.UTF_8).length;
+        assertTrue(encoded.length < utf8 * 3 / 4, encoded.length + " bytes for " + utf8 + " bytes of text");
+    }
+
+    @Test
+    void readsUncompressedEntriesWrittenBeforeDeflate() {
+        byte[] pronunciation = "chī".getBytes(StandardCharsets.UTF_8);
+        ByteBuffer legacy = ByteBuffer.allocate(2 + 4 + pronunciation.length);
+        legacy.put((byte) 1).put((byte) (1 | 1 << 3)).putInt(pronunciation.length).put(pronunciation);
+
+        AiResponse decoded = AiResponseCodec.decode(legacy.array());
+
+        assertTrue(decoded.isAdjective());
+        assertNull(decoded.getExplanation());
+        assertEquals("chī", decoded.getPronunciation());
+    }
+
+    @Test
+    void cachedEntrySurvivesStoreEncoding() {
+        CachedAiResponse entry = new CachedAiResponse(sampleResponse(), "v2", 1234L);
+
+        CachedAiResponse decoded = AiResponseCodec.decodeEntry(AiResponseCodec.encodeEntry(entry));
+
+        assertEquals("v2", decoded.getPromptVersion());
+        assertEquals(1234L, decoded.getCreatedAt());
+        assertEquals(entry.encodedSize(), decoded.encodedSize());
+        assertEquals(sampleResponse().getExamples(), decoded.getResponse().getExamples());
+    }
+}
@@ -0,0 +1,58 @@
+package com.example.backend.cache;
+
+import com.example.backend.model.AiResponse;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Compares the heap retained per cached AI entry when the response is held as decoded
+ * Strings versus the compact encoded form. Not a unit test; run it with
+ *   java -cp target/test-classes:target/classes com.example.backend.cache.AiResponseMemoryBenchmark [entries]
+ * Numbers come from used heap after full GCs, so run it on an otherwise idle JVM.
+ */
+public final class AiResponseMemoryBenchmark {
+
+    private AiResponseMemoryBenchmark() {
+    }
+
+    public static void main(String[] args) {
+        int entries = args.length > 0 ? Integer.parseInt(args[0]) : 20_000;
+        AiResponse sample = AiResponseCodecTest.sampleResponse();
+
+        long decoded = bytesPerEntry(entries, i -> variant(sample, i));
+        long compact = bytesPerEntry(entries, i -> new CachedAiResponse(variant(sample, i), "v1", 0L));
+
+        System.out.printf("entries=%d decoded=%d B/entry compact=%d B/entry saving=%.0f%%%n",
+                entries, decoded, compact, 100.0 * (decoded - compact) / decoded);
+    }
+
+    // Each entry gets its own Strings so nothing is shared between entries
+    private static AiResponse variant(AiResponse sample, int i) {
+        return new AiResponse(sample.getExplanation() + " #" + i, sample.getExamples() + " #" + i,
+                sample.getPronunciation() + i, (i & 1) == 0);
+    }
+
+    private static long bytesPerEntry(int entries, Function<Integer, Object> factory) {
+        List<Object> retained = new ArrayList<>(entries);
+        long before = usedHeap();
+        for (int i = 0; i < entries; i++) {
+            retained.add(factory.apply(i));
+        }
+        long after = usedHeap();
+        long perEntry = (after - before) / entries;
+        if (retained.size() != entries) {
+            throw new IllegalStateException();
+        }
+        return perEntry;
+    }
+
+    private static long usedHeap() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
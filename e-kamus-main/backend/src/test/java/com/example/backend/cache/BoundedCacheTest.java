@@ -0,0 +1,111 @@
+package com.example.backend.cache;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BoundedCacheTest {
+
+    @Test
+    void evictsWhenEntryBoundIsExceeded() {
+        BoundedCache<String, String> cache = new BoundedCache<>(100, Long.MAX_VALUE, null, (k, v) -> 1);
+        for (int i = 0; i < 1000; i++) {
+            cache.put("word" + i, "value" + i);
+        }
+        assertTrue(cache.size() <= 100);
+        assertTrue(cache.evictionCount() >= 900);
+    }
+
+    @Test
+    void evictsWhenWeightBoundIsExceeded() {
+        BoundedCache<String, String> cache = new BoundedCache<>(1000, 500, null, (k, v) -> 100);
+        for (int i = 0; i < 20; i++) {
+            cache.put("word" + i, "value" + i);
+        }
+        assertTrue(cache.weightedSize() <= 500);
+        assertTrue(cache.size() <= 5);
+    }
+
+    @Test
+    void frequentlyUsedEntriesSurviveAScan() {
+        BoundedCache<String, String> cache = new BoundedCache<>(100, Long.MAX_VALUE, null, (k, v) -> 1);
+        for (int i = 0; i < 100; i++) {
+            cache.put("hot" + i, "value");
+        }
+        for (int round = 0; round < 5; round++) {
+            for (int i = 0; i < 100; i++) {
+                cache.getIfPresent("hot" + i);
+            }
+        }
+        // One-off keys only seen once each should not displace the popular ones
+        for (int i = 0; i < 1000; i++) {
+            cache.put("scan" + i, "value");
+        }
+        int hotRemaining = 0;
+        for (int i = 0; i < 100; i++) {
+            if (cache.containsKey("hot" + i)) {
+                hotRemaining++;
+            }
+        }
+        assertTrue(hotRemaining >= 90, "only " + hotRemaining + " hot entries survived");
+    }
+
+    @Test
+    void expiresEntriesAfterTheirTtl() {
+        AtomicLong now = new AtomicLong();
+        BoundedCache<String, String> cache = new BoundedCache<>(10, Long.MAX_VALUE, Duration.ofMinutes(5),
+                (k, v) -> 1);
+        cache.setTicker(now::get);
+
+        cache.put("makan", "eat");
+        cache.put("tidur", "sleep", Duration.ofHours(1));
+        assertNotNull(cache.getIfPresent("makan"));
+
+        now.addAndGet(Duration.ofMinutes(6).toNanos());
+        assertNull(cache.getIfPresent("makan"));
+        assertEquals("sleep", cache.getIfPresent("tidur"));
+
+        now.addAndGet(Duration.ofHours(1).toNanos());
+        cache.cleanUp();
+        assertFalse(cache.containsKey("tidur"));
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    void countsHitsAndMissesAndClears() {
+        BoundedCache<String, String> cache = new BoundedCache<>(10, Long.MAX_VALUE, null, (k, v) -> 1);
+        cache.put("makan", "eat");
+        cache.getIfPresent("makan");
+        cache.getIfPresent("minum");
+        assertEquals(1, cache.hitCount());
+        assertEquals(1, cache.missCount());
+
+        cache.invalidateAll();
+        assertEquals(0, cache.size());
+        assertEquals(0, cache.weightedSize());
+    }
+
+    @Test
+    void pinnedEntriesAreNotEvictedForSize() {
+        BoundedCache<String, String> cache = new BoundedCache<>(100, Long.MAX_VALUE, null, (k, v) -> 1);
+        cache.setPinningPolicy(key -> key.startsWith("pinned"));
+        for (int i = 0; i < 5; i++) {
+            cache.put("pinned" + i, "value");
+        }
+        for (int i = 0; i < 1000; i++) {
+            cache.put("scan" + i, "value");
+        }
+
+        assertTrue(cache.size() <= 100);
+        for (int i = 0; i < 5; i++) {
+            assertNotNull(cache.peek("pinned" + i));
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package com.example.backend.cache;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class HeavyHittersTest {
+
+    @Test
+    void findsFrequentKeysAmongManyRareOnes() {
+        HeavyHitters hitters = new HeavyHitters(3, 1024);
+        for (int round = 0; round < 50; round++) {
+            hitters.record("makan");
+            hitters.record("makan");
+            hitters.record("tidur");
+            if (round % 2 == 0) {
+                hitters.record("cantik");
+            }
+            for (int i = 0; i < 20; i++) {
+                hitters.record("typo" + round + "-" + i);
+            }
+        }
+
+        List<Map.Entry<String, Long>> top = hitters.top();
+
+        assertEquals(List.of("makan", "tidur", "cantik"), top.stream().map(Map.Entry::getKey).toList());
+        assertTrue(top.get(0).getValue() >= 100);
+    }
+
+    @Test
+    void decayLetsNewlyPopularKeysOvertakeOldOnes() {
+        HeavyHitters hitters = new HeavyHitters(1, 1024);
+        for (int i = 0; i < 100; i++) {
+            hitters.record("makan");
+        }
+        for (int i = 0; i < 4; i++) {
+            hitters.decay();
+        }
+        for (int i = 0; i < 20; i++) {
+            hitters.record("tidur");
+        }
+
+        assertEquals("tidur", hitters.top().get(0).getKey());
+        assertEquals(6, hitters.estimate("makan"));
+    }
+}
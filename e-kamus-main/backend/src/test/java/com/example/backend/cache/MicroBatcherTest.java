@@ -0,0 +1,55 @@
+package com.example.backend.cache;
+
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class MicroBatcherTest {
+
+    @Test
+    void itemsWithinTheWindowShareOneBatchPerGroup() {
+        List<List<String>> batches = new CopyOnWriteArrayList<>();
+        MicroBatcher<String, String> batcher = new MicroBatcher<>("test", 3, Duration.ofMillis(100),
+                (group, items) -> {
+                    batches.add(items);
+                    return Mono.just(items.stream().collect(Collectors.toMap(item -> item, item -> group + item)));
+                });
+
+        Mono<String> a = batcher.submit("ms", "a");
+        Mono<String> b = batcher.submit("ms", "b");
+        Mono<String> again = batcher.submit("ms", "a");
+        Mono<String> other = batcher.submit("zh", "c");
+
+        // Subscribed together, as concurrent lookups would be
+        List<String> results = Mono.zip(a, b, again, other)
+                .map(all -> List.of(all.getT1(), all.getT2(), all.getT3(), all.getT4()))
+                .block(Duration.ofSeconds(5));
+        assertEquals(List.of("msa", "msb", "msa", "zhc"), results);
+        assertEquals(2, batches.size());
+        assertEquals(List.of("a", "b"), batches.stream().filter(batch -> batch.size() == 2).findFirst().orElseThrow());
+        batcher.shutdown();
+    }
+
+    @Test
+    void fullBatchIsSentWithoutWaitingAndMissingResultsFail() {
+        MicroBatcher<String, String> batcher = new MicroBatcher<>("test", 2, Duration.ofMinutes(1),
+                (group, items) -> Mono.just(Map.of("a", "A")));
+
+        Mono<String> a = batcher.submit("ms", "a").cache();
+        Mono<String> b = batcher.submit("ms", "b").cache();
+        a.subscribe(value -> { }, e -> { });
+        b.subscribe(value -> { }, e -> { });
+
+        assertEquals("A", a.block(Duration.ofSeconds(5)));
+        assertThrows(IllegalStateException.class, () -> b.block(Duration.ofSeconds(5)));
+        batcher.shutdown();
+    }
+}
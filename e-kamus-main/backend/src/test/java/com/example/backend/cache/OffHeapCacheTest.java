@@ -0,0 +1,51 @@
+package com.example.backend.cache;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class OffHeapCacheTest {
+
+    @Test
+    void oldestEntriesAreEvictedWhenTheRingWraps() {
+        OffHeapCache cache = new OffHeapCache(1024);
+        byte[] value = new byte[100];
+
+        for (int i = 0; i < 30; i++) {
+            value[0] = (byte) i;
+            assertTrue(cache.put("Mandarin:" + i, value));
+        }
+
+        assertNull(cache.get("Mandarin:0"));
+        assertEquals(29, cache.get("Mandarin:29")[0]);
+        assertTrue(cache.usedBytes() <= cache.capacityBytes());
+        assertEquals(30, cache.size() + cache.evictionCount());
+        // Every entry still indexed is readable after the wrap
+        for (String key : cache.keys()) {
+            assertEquals(Integer.parseInt(key.substring(9)), cache.get(key)[0]);
+        }
+    }
+
+    @Test
+    void replacedValuesAreNotCountedAsEvictions() {
+        OffHeapCache cache = new OffHeapCache(1024);
+
+        cache.put("Malay:makan", "lama".getBytes(StandardCharsets.UTF_8));
+        cache.put("Malay:makan", "baru".getBytes(StandardCharsets.UTF_8));
+        for (int i = 0; i < 20; i++) {
+            cache.put("Malay:makan", new byte[100]);
+        }
+        cache.put("Malay:minum", "minum".getBytes(StandardCharsets.UTF_8));
+
+        assertEquals(0, cache.evictionCount());
+        assertEquals(2, cache.size());
+        assertArrayEquals("minum".getBytes(StandardCharsets.UTF_8), cache.get("Malay:minum"));
+        assertFalse(cache.put("Malay:besar", new byte[512]));
+    }
+}
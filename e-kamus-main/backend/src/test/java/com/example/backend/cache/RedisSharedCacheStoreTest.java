@@ -0,0 +1,145 @@
+package com.example.backend.cache;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class RedisSharedCacheStoreTest {
+
+    private ServerSocket server;
+    private final Map<String, byte[]> data = new ConcurrentHashMap<>();
+    private final List<String> commands = new ArrayList<>();
+
+    @BeforeEach
+    void startServer() throws IOException {
+        server = new ServerSocket(0);
+        Thread acceptor = new Thread(() -> {
+            while (!server.isClosed()) {
+                try {
+                    Socket socket = server.accept();
+                    Thread handler = new Thread(() -> serve(socket));
+                    handler.setDaemon(true);
+                    handler.start();
+                } catch (IOException e) {
+                    return;
+                }
+            }
+        });
+        acceptor.setDaemon(true);
+        acceptor.start();
+    }
+
+    @AfterEach
+    void stopServer() throws IOException {
+        server.close();
+    }
+
+    @Test
+    void storesAndReadsBinaryValuesOverResp() {
+        RedisSharedCacheStore store = new RedisSharedCacheStore("localhost", server.getLocalPort(), "secret", 2, 2,
+                Duration.ofSeconds(2));
+        byte[] value = { 0, 1, '\r', '\n', (byte) 0xE5, (byte) 0x90, (byte) 0x83 };
+
+        store.put("ekamus:ai:Mandarin:吃", value, Duration.ofMinutes(5)).block(Duration.ofSeconds(2));
+
+        assertArrayEquals(value, store.get("ekamus:ai:Mandarin:吃").block(Duration.ofSeconds(2)));
+        assertNull(store.get("ekamus:ai:missing").block(Duration.ofSeconds(2)));
+        store.remove("ekamus:ai:Mandarin:吃").block(Duration.ofSeconds(2));
+        assertNull(store.get("ekamus:ai:Mandarin:吃").block(Duration.ofSeconds(2)));
+
+        // The pooled connection is authenticated and switched to the database once
+        synchronized (commands) {
+            assertEquals(List.of("AUTH", "SELECT", "SET", "GET", "GET", "DEL", "GET"), commands);
+        }
+        assertEquals(1, store.statistics().get("openConnections"));
+        store.close();
+    }
+
+    private void serve(Socket socket) {
+        try (socket) {
+            InputStream in = new BufferedInputStream(socket.getInputStream());
+            OutputStream out = socket.getOutputStream();
+            while (true) {
+                List<byte[]> args = readCommand(in);
+                if (args == null) {
+                    return;
+                }
+                String name = new String(args.get(0), StandardCharsets.UTF_8);
+                synchronized (commands) {
+                    commands.add(name);
+                }
+                String key = args.size() > 1 ? new String(args.get(1), StandardCharsets.UTF_8) : null;
+                switch (name) {
+                    case "SET":
+                        data.put(key, args.get(2));
+                        out.write("+OK\r\n".getBytes(StandardCharsets.UTF_8));
+                        break;
+                    case "GET": {
+                        byte[] value = data.get(key);
+                        if (value == null) {
+                            out.write("$-1\r\n".getBytes(StandardCharsets.UTF_8));
+                        } else {
+                            out.write(("$" + value.length + "\r\n").getBytes(StandardCharsets.UTF_8));
+                            out.write(value);
+                            out.write("\r\n".getBytes(StandardCharsets.UTF_8));
+                        }
+                        break;
+                    }
+                    case "DEL":
+                        out.write((":" + (data.remove(key) != null ? 1 : 0) + "\r\n").getBytes(StandardCharsets.UTF_8));
+                        break;
+                    default:
+                        out.write("+OK\r\n".getBytes(StandardCharsets.UTF_8));
+                }
+                out.flush();
+            }
+        } catch (IOException e) {
+            // Client disconnected
+        }
+    }
+
+    private static List<byte[]> readCommand(InputStream in) throws IOException {
+        int marker = in.read();
+        if (marker == -1) {
+            return null;
+        }
+        int count = Integer.parseInt(readLine(in));
+        List<byte[]> args = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            in.read(); // '$'
+            int length = Integer.parseInt(readLine(in));
+            args.add(in.readNBytes(length));
+            in.read();
+            in.read();
+        }
+        return args;
+    }
+
+    private static String readLine(InputStream in) throws IOException {
+        ByteArrayOutputStream line = new ByteArrayOutputStream();
+        int c;
+        while ((c = in.read()) != '\r') {
+            line.write(c);
+        }
+        in.read();
+        return line.toString(StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,139 @@
+package com.example.backend.cache;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.RandomAccessFile;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SegmentLogTest {
+
+    private static final int SEGMENT_BYTES = 4096;
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void recoversEntriesAfterReopen() throws Exception {
+        try (SegmentLog log = SegmentLog.open(directory, SEGMENT_BYTES)) {
+            log.put("Mandarin:吃", bytes("eat"));
+            log.put("Mandarin:睡", bytes("sleep"));
+            log.put("Mandarin:吃", bytes("to eat"));
+            log.remove("Mandarin:睡");
+        }
+        try (SegmentLog log = SegmentLog.open(directory, SEGMENT_BYTES)) {
+            assertEquals(1, log.size());
+            assertArrayEquals(bytes("to eat"), log.get("Mandarin:吃"));
+            assertNull(log.get("Mandarin:睡"));
+        }
+    }
+
+    @Test
+    void discardsTornRecordOnRecovery() throws Exception {
+        try (SegmentLog log = SegmentLog.open(directory, SEGMENT_BYTES)) {
+            log.put("first", bytes("one"));
+            log.put("second", bytes("two"));
+        }
+        // Corrupt the last byte of the second record's value
+        int secondValueEnd = 16 + 5 + 3 + 16 + 6 + 3;
+        try (RandomAccessFile file = new RandomAccessFile(directory.resolve("0000000001.seg").toFile(), "rw")) {
+            file.seek(secondValueEnd - 1);
+            file.write('X');
+        }
+        try (SegmentLog log = SegmentLog.open(directory, SEGMENT_BYTES)) {
+            assertArrayEquals(bytes("one"), log.get("first"));
+            assertNull(log.get("second"));
+            log.put("third", bytes("three"));
+        }
+        try (SegmentLog log = SegmentLog.open(directory, SEGMENT_BYTES)) {
+            assertEquals(2, log.size());
+            assertArrayEquals(bytes("three"), log.get("third"));
+        }
+    }
+
+    @Test
+    void compactionKeepsOnlyLiveRecords() throws Exception {
+        byte[] value = new byte[500];
+        try (SegmentLog log = SegmentLog.open(directory, SEGMENT_BYTES)) {
+            for (int round = 0; round < 5; round++) {
+                for (int i = 0; i < 10; i++) {
+                    value[0] = (byte) round;
+                    log.put("key" + i, value.clone());
+                }
+            }
+            assertTrue(log.segmentCount() > 2);
+            long before = log.totalBytes();
+
+            assertTrue(log.compact(0.5));
+            assertTrue(log.totalBytes() < before);
+            assertEquals(10, log.size());
+            assertEquals(4, log.get("key3")[0]);
+        }
+        try (SegmentLog log = SegmentLog.open(directory, SEGMENT_BYTES)) {
+            assertEquals(10, log.size());
+            for (int i = 0; i < 10; i++) {
+                assertEquals(4, log.get("key" + i)[0]);
+            }
+        }
+    }
+
+    @Test
+    void interruptedCompactionDoesNotBringBackRemovedKeys() throws Exception {
+        byte[] value = new byte[500];
+        Path first = directory.resolve("0000000001.seg");
+        byte[] firstSegment;
+        try (SegmentLog log = SegmentLog.open(directory, SEGMENT_BYTES)) {
+            log.put("removed", bytes("old"));
+            for (int i = 0; i < 10; i++) {
+                log.put("key" + i, value.clone());
+            }
+            // The tombstone lands in a later segment than the record it covers
+            log.remove("removed");
+            for (int i = 10; i < 20; i++) {
+                log.put("key" + i, value.clone());
+            }
+            assertTrue(log.segmentCount() > 2);
+            log.force();
+            firstSegment = Files.readAllBytes(first);
+            assertTrue(log.compact(0.0));
+            assertFalse(Files.exists(first));
+            assertFalse(Files.exists(directory.resolve(SegmentLog.COMPACTION_MARKER)));
+        }
+
+        // A crash after the rename but before the deletes leaves the marker and an old segment
+        Files.write(first, firstSegment);
+        Files.writeString(directory.resolve(SegmentLog.COMPACTION_MARKER), "0000000001.seg\n");
+        try (SegmentLog log = SegmentLog.open(directory, SEGMENT_BYTES)) {
+            assertNull(log.get("removed"));
+            assertEquals(20, log.size());
+            assertFalse(Files.exists(first));
+            assertFalse(Files.exists(directory.resolve(SegmentLog.COMPACTION_MARKER)));
+        }
+
+        // Before the rename, the segments listed in the marker are still the only copy
+        Path sealed;
+        try (Stream<Path> files = Files.list(directory)) {
+            sealed = files.filter(path -> path.toString().endsWith(".seg")).sorted().findFirst().orElseThrow();
+        }
+        Files.writeString(directory.resolve(SegmentLog.COMPACTION_MARKER), sealed.getFileName() + "\n");
+        Files.write(directory.resolve("9999999999.seg.compact"), new byte[16]);
+        try (SegmentLog log = SegmentLog.open(directory, SEGMENT_BYTES)) {
+            assertTrue(Files.exists(sealed));
+            assertEquals(20, log.size());
+            assertFalse(Files.exists(directory.resolve(SegmentLog.COMPACTION_MARKER)));
+        }
+    }
+
+    private static byte[] bytes(String s) {
+        return s.getBytes(StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,51 @@
+package com.example.backend.cache;
+
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class SharedCacheTierTest {
+
+    @Test
+    void writesAreVisibleToOtherTiersOnTheSameStore() {
+        LocalSharedCacheStore store = new LocalSharedCacheStore();
+        SharedCacheTier writer = new SharedCacheTier(store, "ekamus:", 250, 30);
+        SharedCacheTier reader = new SharedCacheTier(store, "ekamus:", 250, 30);
+
+        writer.putAsync("translation", "ms>zh:makan", "吃".getBytes(StandardCharsets.UTF_8), Duration.ofHours(1));
+
+        assertArrayEquals("吃".getBytes(StandardCharsets.UTF_8),
+                reader.get("translation", "ms>zh:makan").block(Duration.ofSeconds(1)));
+        assertNull(reader.get("ai", "ms>zh:makan").block(Duration.ofSeconds(1)));
+        assertEquals(1L, reader.statistics().get("hits"));
+        assertEquals(1L, reader.statistics().get("misses"));
+    }
+
+    @Test
+    void failingStoreIsSkippedDuringBackoff() {
+        AtomicInteger calls = new AtomicInteger();
+        SharedCacheStore unreachable = new LocalSharedCacheStore() {
+            @Override
+            public Mono<byte[]> get(String key) {
+                calls.incrementAndGet();
+                return Mono.error(new IOException("Connection refused"));
+            }
+        };
+        SharedCacheTier tier = new SharedCacheTier(unreachable, "ekamus:", 250, 30);
+
+        assertNull(tier.get("ai", "Mandarin:吃").block(Duration.ofSeconds(1)));
+        assertNull(tier.get("ai", "Mandarin:吃").block(Duration.ofSeconds(1)));
+
+        assertEquals(1, calls.get());
+        assertEquals(1L, tier.statistics().get("errors"));
+        assertEquals(false, tier.statistics().get("available"));
+    }
+}
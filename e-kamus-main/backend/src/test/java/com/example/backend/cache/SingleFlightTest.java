@@ -0,0 +1,80 @@
+package com.example.backend.cache;
+
+import org.junit.jupiter.api.Test;
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SingleFlightTest {
+
+    @Test
+    void concurrentCallersShareOneUpstreamCall() {
+        SingleFlight<String, String> flight = new SingleFlight<>();
+        AtomicInteger calls = new AtomicInteger();
+        Sinks.One<String> upstream = Sinks.one();
+
+        Mono<String> first = flight.execute("Mandarin:吃", () -> {
+            calls.incrementAndGet();
+            return upstream.asMono();
+        });
+        Mono<String> second = flight.execute("Mandarin:吃", () -> {
+            calls.incrementAndGet();
+            return upstream.asMono();
+        });
+
+        Mono<String> firstResult = first.cache();
+        Mono<String> secondResult = second.cache();
+        firstResult.subscribe();
+        secondResult.subscribe();
+        upstream.tryEmitValue("eat");
+
+        assertEquals("eat", firstResult.block(Duration.ofSeconds(1)));
+        assertEquals("eat", secondResult.block(Duration.ofSeconds(1)));
+        assertEquals(1, calls.get());
+        assertEquals(1, flight.joinedCount());
+        assertFalse(flight.isInFlight("Mandarin:吃"));
+    }
+
+    @Test
+    void cancellingOneCallerDoesNotCancelTheSharedCall() {
+        SingleFlight<String, String> flight = new SingleFlight<>();
+        AtomicInteger upstreamCancelled = new AtomicInteger();
+        Sinks.One<String> upstream = Sinks.one();
+
+        Disposable cancelled = flight.execute("key", () -> upstream.asMono()
+                .doOnCancel(upstreamCancelled::incrementAndGet)).subscribe();
+        Mono<String> survivor = flight.execute("key", () -> Mono.just("unused")).cache();
+        survivor.subscribe();
+
+        cancelled.dispose();
+        assertTrue(flight.isInFlight("key"));
+        upstream.tryEmitValue("value");
+
+        assertEquals("value", survivor.block(Duration.ofSeconds(1)));
+        assertEquals(0, upstreamCancelled.get());
+    }
+
+    @Test
+    void errorsReachAllCallersAndAreNotRemembered() {
+        SingleFlight<String, String> flight = new SingleFlight<>();
+        Sinks.One<String> upstream = Sinks.one();
+
+        Mono<String> first = flight.execute("key", upstream::asMono).cache();
+        Mono<String> second = flight.execute("key", upstream::asMono).cache();
+        first.subscribe(v -> { }, e -> { });
+        second.subscribe(v -> { }, e -> { });
+        upstream.tryEmitError(new IllegalStateException("Ollama unavailable"));
+
+        assertThrows(IllegalStateException.class, () -> first.block(Duration.ofSeconds(1)));
+        assertThrows(IllegalStateException.class, () -> second.block(Duration.ofSeconds(1)));
+        assertEquals("retry", flight.execute("key", () -> Mono.just("retry")).block(Duration.ofSeconds(1)));
+    }
+}
@@ -0,0 +1,42 @@
+package com.example.backend.cluster;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ConsistentHashRingTest {
+
+    private static final List<String> MEMBERS = List.of(
+            "http://localhost:8081", "http://localhost:8082", "http://localhost:8083");
+
+    @Test
+    void keysSpreadAcrossMembers() {
+        ConsistentHashRing ring = new ConsistentHashRing(MEMBERS, 128);
+        Map<String, Integer> owned = new HashMap<>();
+        for (int i = 0; i < 30_000; i++) {
+            owned.merge(ring.owner("Mandarin:word" + i), 1, Integer::sum);
+        }
+        for (String member : MEMBERS) {
+            int count = owned.getOrDefault(member, 0);
+            assertTrue(count > 7_000 && count < 13_000, member + " owns " + count);
+        }
+    }
+
+    @Test
+    void removingAMemberOnlyMovesItsKeys() {
+        ConsistentHashRing full = new ConsistentHashRing(MEMBERS, 128);
+        ConsistentHashRing reduced = new ConsistentHashRing(MEMBERS.subList(0, 2), 128);
+        for (int i = 0; i < 10_000; i++) {
+            String key = "Mandarin:word" + i;
+            String before = full.owner(key);
+            if (!before.equals(MEMBERS.get(2))) {
+                assertEquals(before, reduced.owner(key), key);
+            }
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package com.example.backend.controller;
+
+import com.example.backend.model.DictionaryResponse;
+import com.example.backend.service.PipelineMetrics;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.springframework.http.ResponseEntity;
+
+import java.lang.management.ManagementFactory;
+import java.time.Duration;
+import java.util.function.Supplier;
+
+/**
+ * Compares the per-hit cost of answering a memoized dictionary lookup by mapping and
+ * serializing the response (the regular path) against sending the bytes held by
+ * {@link EncodedResponseCache}. Not a unit test; run it with
+ *   java -cp target/test-classes:target/classes:$(deps) com.example.backend.controller.EncodedResponseBenchmark [iterations]
+ * Reports average time and bytes allocated per request on the calling thread.
+ */
+public final class EncodedResponseBenchmark {
+
+    private static final Duration MAX_AGE = Duration.ofHours(1);
+
+    private EncodedResponseBenchmark() {
+    }
+
+    public static void main(String[] args) {
+        int iterations = args.length > 0 ? Integer.parseInt(args[0]) : 200_000;
+        ObjectMapper objectMapper = new ObjectMapper();
+        HttpCacheSupport httpCache = new HttpCacheSupport(objectMapper, true, 3600, 3600, 86400);
+        EncodedResponseCache encodedResponses = new EncodedResponseCache(objectMapper,
+                new PipelineMetrics(new SimpleMeterRegistry()), true, 100, 16, true, 256);
+        DictionaryResponse memoized = sampleResponse();
+
+        // Regular path: copy into a response, compute the ETag, then serialize the body
+        Supplier<Object> serialize = () -> {
+            try {
+                DictionaryResponse copy = new DictionaryResponse(memoized.getMalayWord(), memoized.getMandarinWord(),
+                        memoized.getExplanation(), memoized.getExamples(), memoized.getPinyin(),
+                        memoized.isAdjective());
+                ResponseEntity<DictionaryResponse> response = httpCache.respond(copy, true, null, MAX_AGE);
+                return objectMapper.writeValueAsBytes(response.getBody());
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+        };
+        Supplier<Object> plain = () -> httpCache.respondEncoded(
+                encodedResponses.get("berani", memoized), false, null, MAX_AGE).getBody();
+        Supplier<Object> gzip = () -> httpCache.respondEncoded(
+                encodedResponses.get("berani", memoized), true, null, MAX_AGE).getBody();
+
+        for (int round = 0; round < 2; round++) {
+            // The first round is warm-up for the JIT
+            boolean report = round == 1;
+            run("serialize", serialize, iterations, report);
+            run("encoded", plain, iterations, report);
+            run("encoded+gzip", gzip, iterations, report);
+        }
+    }
+
+    private static void run(String name, Supplier<Object> request, int iterations, boolean report) {
+        com.sun.management.ThreadMXBean threads =
+                (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long threadId = Thread.currentThread().getId();
+        long sink = 0;
+        long allocatedBefore = threads.getThreadAllocatedBytes(threadId);
+        long start = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            sink += ((byte[]) request.get()).length;
+        }
+        long nanos = System.nanoTime() - start;
+        long allocated = threads.getThreadAllocatedBytes(threadId) - allocatedBefore;
+        if (report) {
+            System.out.printf("%-13s %8.0f ns/op %8d B/op allocated %6d B body%n", name,
+                    (double) nanos / iterations, allocated / iterations, sink / iterations);
+        }
+    }
+
+    private static DictionaryResponse sampleResponse() {
+        return new DictionaryResponse("berani", "勇敢",
+                "勇敢 (yǒng gǎn) describes someone who faces danger or difficulty without fear. "
+                        + "It is used for people, actions and decisions, and is usually positive.",
+                "1. 他是一个勇敢的消防员。\nDia seorang ahli bomba yang berani.\n"
+                        + "2. 你要勇敢地面对困难。\nAnda mesti berani menghadapi kesukaran.\n"
+                        + "3. 她勇敢地说出了真相。\nDia dengan berani mengatakan kebenaran.",
+                "yǒng gǎn", true);
+    }
+}
@@ -0,0 +1,107 @@
+package com.example.backend.controller;
+
+import com.example.backend.model.DictionaryResponse;
+import com.example.backend.service.PipelineMetrics;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import java.io.ByteArrayInputStream;
+import java.time.Duration;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class HttpCacheSupportTest {
+
+    private final HttpCacheSupport httpCache = new HttpCacheSupport(new ObjectMapper(), true, 3600, 3600, 86400);
+
+    @Test
+    void repeatedLookupWithMatchingEtagIsNotModified() {
+        DictionaryResponse response = response("makan", "吃");
+        ResponseEntity<DictionaryResponse> first = httpCache.respond(response, true, null, Duration.ofHours(1));
+        String etag = first.getHeaders().getETag();
+
+        assertEquals(HttpStatus.OK, first.getStatusCode());
+        assertEquals("max-age=3600, public", first.getHeaders().getCacheControl());
+
+        ResponseEntity<DictionaryResponse> second = httpCache.notModifiedOrNull(response("makan", "吃"),
+                "W/" + etag, Duration.ofHours(1));
+        assertEquals(HttpStatus.NOT_MODIFIED, second.getStatusCode());
+        assertNull(second.getBody());
+        assertEquals(HttpHeaders.ACCEPT_ENCODING, second.getHeaders().getFirst(HttpHeaders.VARY));
+
+        assertNull(httpCache.notModifiedOrNull(response("makan", "食"), etag, Duration.ofHours(1)));
+    }
+
+    @Test
+    void failuresAreNeverStored() {
+        ResponseEntity<DictionaryResponse> failed = httpCache.respond(response("makan", "Translation failed"), false,
+                null, Duration.ofHours(1));
+
+        assertEquals("no-store", failed.getHeaders().getCacheControl());
+        assertNull(failed.getHeaders().getETag());
+    }
+
+    @Test
+    void ifNoneMatchAcceptsListsAndWildcard() {
+        assertTrue(HttpCacheSupport.matches("\"a\", \"b\"", "\"b\""));
+        assertTrue(HttpCacheSupport.matches("*", "\"b\""));
+        assertFalse(HttpCacheSupport.matches("\"a\"", "\"b\""));
+    }
+
+    @Test
+    void encodedResponseKeepsEtagAndIsGzippedWhenAccepted() throws Exception {
+        EncodedResponseCache encodedResponses = new EncodedResponseCache(new ObjectMapper(),
+                new PipelineMetrics(new SimpleMeterRegistry()), true, 100, 1, true, 64);
+        DictionaryResponse response = response("makan", "吃");
+        response.setExplanation("吃 means to eat. ".repeat(20));
+        EncodedResponseCache.EncodedResponse encoded = encodedResponses.get("makan", response);
+        assertSame(encoded, encodedResponses.get("makan", response));
+
+        ResponseEntity<byte[]> plain = httpCache.respondEncoded(encoded, false, null, Duration.ofHours(1));
+        assertEquals(httpCache.respond(response, true, null, Duration.ofHours(1)).getHeaders().getETag(),
+                plain.getHeaders().getETag());
+        assertArrayEquals(new ObjectMapper().writeValueAsBytes(response), plain.getBody());
+
+        ResponseEntity<byte[]> gzipped = httpCache.respondEncoded(encoded, true, null, Duration.ofHours(1));
+        assertEquals("gzip", gzipped.getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING));
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(gzipped.getBody()))) {
+            assertArrayEquals(plain.getBody(), in.readAllBytes());
+        }
+
+        // Each representation has its own strong tag, and either revalidates the word
+        String plainTag = plain.getHeaders().getETag();
+        String gzipTag = gzipped.getHeaders().getETag();
+        assertNotEquals(plainTag, gzipTag);
+        ResponseEntity<byte[]> revalidatedGzip = httpCache.respondEncoded(encoded, true, gzipTag, Duration.ofHours(1));
+        assertEquals(HttpStatus.NOT_MODIFIED, revalidatedGzip.getStatusCode());
+        assertEquals(gzipTag, revalidatedGzip.getHeaders().getETag());
+        assertEquals(HttpHeaders.ACCEPT_ENCODING, revalidatedGzip.getHeaders().getFirst(HttpHeaders.VARY));
+        ResponseEntity<byte[]> revalidatedPlain = httpCache.respondEncoded(encoded, false, gzipTag, Duration.ofHours(1));
+        assertEquals(HttpStatus.NOT_MODIFIED, revalidatedPlain.getStatusCode());
+        assertEquals(plainTag, revalidatedPlain.getHeaders().getETag());
+        assertEquals(HttpStatus.NOT_MODIFIED,
+                httpCache.notModifiedOrNull(response, gzipTag, Duration.ofHours(1)).getStatusCode());
+
+        assertTrue(EncodedResponseCache.acceptsGzip("deflate, gzip;q=0.8"));
+        assertFalse(EncodedResponseCache.acceptsGzip("gzip;q=0, br"));
+        assertFalse(EncodedResponseCache.acceptsJson("text/html"));
+    }
+
+    private static DictionaryResponse response(String malayWord, String mandarinWord) {
+        DictionaryResponse response = new DictionaryResponse();
+        response.setMalayWord(malayWord);
+        response.setMandarinWord(mandarinWord);
+        return response;
+    }
+}
@@ -0,0 +1,70 @@
+package com.example.backend.limit;
+
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class AdaptiveLimiterTest {
+
+    @Test
+    void callsBeyondTheLimitWaitThenOverflowTheQueue() {
+        AdaptiveLimiter limiter = new AdaptiveLimiter("test", 1, 1, 4, 1, Duration.ofSeconds(10), 2.0);
+        Sinks.One<String> first = Sinks.one();
+        AtomicReference<String> firstResult = new AtomicReference<>();
+        AtomicReference<String> secondResult = new AtomicReference<>();
+        AtomicReference<Throwable> thirdError = new AtomicReference<>();
+
+        limiter.run(first::asMono).subscribe(firstResult::set);
+        limiter.run(() -> Mono.just("second")).subscribe(secondResult::set);
+        limiter.run(() -> Mono.just("third")).subscribe(value -> { }, thirdError::set);
+
+        assertEquals(1, limiter.getInFlight());
+        assertEquals(1, limiter.getQueued());
+        assertNull(secondResult.get());
+        LimitExceededException rejected = assertInstanceOf(LimitExceededException.class, thirdError.get());
+        assertEquals(LimitExceededException.Reason.QUEUE_FULL, rejected.getReason());
+
+        // Finishing the running call hands its permit to the waiting one
+        first.tryEmitValue("first");
+        assertEquals("first", firstResult.get());
+        assertEquals("second", secondResult.get());
+        assertEquals(0, limiter.getInFlight());
+        assertEquals(0, limiter.getQueued());
+    }
+
+    @Test
+    void callsThatWaitTooLongAreRejected() {
+        AdaptiveLimiter limiter = new AdaptiveLimiter("test", 1, 1, 4, 5, Duration.ofMillis(50), 2.0);
+        limiter.run(() -> Mono.never()).subscribe();
+
+        Throwable error = assertInstanceOf(LimitExceededException.class,
+                catchError(limiter.run(() -> Mono.just("late"))));
+        assertEquals(LimitExceededException.Reason.QUEUE_TIMEOUT, ((LimitExceededException) error).getReason());
+        assertEquals(0, limiter.getQueued());
+    }
+
+    @Test
+    void failuresShrinkTheLimit() {
+        AdaptiveLimiter limiter = new AdaptiveLimiter("test", 4, 1, 8, 0, Duration.ofSeconds(1), 2.0);
+        for (int i = 0; i < 3; i++) {
+            limiter.run(() -> Mono.error(new IllegalStateException("timed out"))).subscribe(value -> { }, e -> { });
+        }
+        assertEquals(1, limiter.getLimit());
+    }
+
+    private static Throwable catchError(Mono<?> mono) {
+        try {
+            mono.block(Duration.ofSeconds(5));
+            return null;
+        } catch (RuntimeException e) {
+            return e;
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package com.example.backend.limit;
+
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeoutException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class HedgedUpstreamTest {
+
+    @Test
+    void timeoutFollowsLatencyAndSlowCallsAreHedged() {
+        // The minimum is well above the latency of a cold first call, so timing noise cannot lift the timeout
+        HedgedUpstream upstream = new HedgedUpstream("test", List.of("a", "b"), Duration.ofMillis(500),
+                Duration.ofSeconds(10), 3.0, 50);
+        assertEquals(Duration.ofSeconds(10), upstream.timeout("a"));
+
+        for (int i = 0; i < 20; i++) {
+            assertEquals("a", upstream.call(Mono::just).block(Duration.ofSeconds(1)));
+        }
+        // Fast calls bring the timeout down to the minimum
+        assertEquals(Duration.ofMillis(500), upstream.timeout("a"));
+
+        // A stuck first endpoint is hedged after its p95 instead of waiting for the timeout
+        String answer = upstream.call(url -> url.equals("a") ? Mono.never() : Mono.just(url))
+                .block(Duration.ofSeconds(1));
+        assertEquals("b", answer);
+        assertEquals(1L, upstream.statistics().get("hedgeWins"));
+
+        // When every endpoint is stuck, the call fails after the adaptive timeout
+        RuntimeException error = assertThrows(RuntimeException.class,
+                () -> upstream.call(url -> Mono.never()).block(Duration.ofSeconds(5)));
+        assertInstanceOf(TimeoutException.class, error.getCause());
+        Map<?, ?> endpointA = (Map<?, ?>) ((Map<?, ?>) upstream.statistics().get("endpoints")).get("a");
+        assertEquals(1L, endpointA.get("timeouts"));
+    }
+
+    @Test
+    void failuresAreRetriedOnTheNextEndpointAtOnce() {
+        HedgedUpstream upstream = new HedgedUpstream("test", List.of("a", "b"), Duration.ofMillis(50),
+                Duration.ofSeconds(10), 3.0, 50);
+
+        // No latency is known yet, so only a failure sends the call on
+        String answer = upstream.call(url -> url.equals("a") ? Mono.error(new IllegalStateException("refused"))
+                : Mono.just(url)).block(Duration.ofSeconds(1));
+        assertEquals("b", answer);
+        assertEquals(1L, upstream.statistics().get("hedged"));
+
+        IllegalStateException error = assertThrows(IllegalStateException.class,
+                () -> upstream.call(url -> Mono.error(new IllegalStateException(url))).block(Duration.ofSeconds(1)));
+        assertEquals("a", error.getMessage());
+    }
+}
@@ -0,0 +1,121 @@
+package com.example.backend.service;
+
+import com.example.backend.cache.AiResponseCache;
+import com.example.backend.cache.AiResponseStore;
+import com.example.backend.cache.CachedAiResponse;
+import com.example.backend.model.AiResponse;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class DeepseekAiServiceTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void wordMissingFromBatchedReplyIsGeneratedAlone() {
+        AtomicInteger calls = new AtomicInteger();
+        // The batched reply only answers the first word; later calls are single-word generations
+        WebClient webClient = WebClient.builder().exchangeFunction(request -> Mono.just(reply(
+                calls.incrementAndGet() == 1
+                        ? "WORD 1\n" + answer("yǒng gǎn bermaksud berani.", "yǒng gǎn") + "\nWORD 2\nEXPLANATION:\n"
+                        : answer("róng huà bermaksud cair.", "róng huà"))))
+                .build();
+        DeepseekAiService service = service(webClient, null);
+
+        Map<String, AiResponse> results = service.requestBatch("Mandarin", List.of("勇敢", "融化"))
+                .block(Duration.ofSeconds(5));
+
+        assertEquals(2, calls.get());
+        assertEquals("yǒng gǎn bermaksud berani.", results.get("勇敢").getExplanation());
+        assertEquals("róng huà bermaksud cair.", results.get("融化").getExplanation());
+        assertEquals("róng huà", results.get("融化").getPronunciation());
+        // The cut-off second answer is dropped rather than cached as if it were complete
+        assertEquals(Set.of(1), DeepseekAiService.splitBatch(
+                "WORD 1\n" + answer("x", "y") + "\nWORD 2\nEXPLANATION:\n").keySet());
+    }
+
+    @Test
+    void importedEntryFromTheCurrentPromptIsServedWithoutGenerating() {
+        AtomicInteger calls = new AtomicInteger();
+        WebClient webClient = WebClient.builder().exchangeFunction(request -> {
+            calls.incrementAndGet();
+            return Mono.just(reply(answer("chī bermaksud makan.", "chī")));
+        }).build();
+        AiResponseStore store = new AiResponseStore(true, directory.toString(), 1, 0.5, 60, 1);
+        try {
+            AiResponseCache cache = new AiResponseCache(store, new SimpleMeterRegistry(), 100, 1, 1, 1.0, 0.25, 0,
+                    true, 1000, 0.01);
+            DeepseekAiService service = service(webClient, cache);
+            ReflectionTestUtils.setField(service, "cacheEnabled", true);
+            service.initPromptVersioning();
+            AiResponse imported = new AiResponse("imported", "examples", "chī", false);
+            long createdAt = System.currentTimeMillis();
+
+            assertTrue(service.importCachedExplanation("Mandarin:吃",
+                    new CachedAiResponse(imported, service.promptVersion("吃"), createdAt), false));
+            assertEquals("imported", service.generateLocalExplanation("吃", "Mandarin")
+                    .block(Duration.ofSeconds(5)).getExplanation());
+            assertEquals(0, calls.get());
+
+            // An entry from another prompt version is kept, but as stale
+            service.importCachedExplanation("Mandarin:喝",
+                    new CachedAiResponse(imported, "other-version", createdAt), false);
+            assertFalse(service.isCurrentInCache("喝", "Mandarin"));
+            assertEquals(CachedAiResponse.UNKNOWN_VERSION, cache.getEntry("Mandarin:喝").getPromptVersion());
+        } finally {
+            store.close();
+        }
+    }
+
+    private static DeepseekAiService service(WebClient webClient, AiResponseCache cache) {
+        PipelineMetrics metrics = new PipelineMetrics(new SimpleMeterRegistry());
+        OllamaPipeline pipeline = new OllamaPipeline(metrics, "http://localhost/api/generate", 1, 1, 2, 1, 8, 20, 30,
+                2.0, "", 5000, 300, 3.0, 200, false, 4, 50);
+        OllamaKeepAlive keepAlive = new OllamaKeepAlive(webClient, "http://localhost/api/generate", "test-model",
+                "30m", 0, 0, 15000);
+        DeepseekAiService service = new DeepseekAiService(webClient, new PinyinService(), cache, null, metrics, null,
+                keepAlive, pipeline);
+        // Normally injected from application.properties; the cache stays disabled unless a test enables it
+        ReflectionTestUtils.setField(service, "deepseekApiUrl", "http://localhost/api/generate");
+        ReflectionTestUtils.setField(service, "deepseekApiKey", "test-model");
+        ReflectionTestUtils.setField(service, "maxTokens", 250);
+        return service;
+    }
+
+    private static String answer(String explanation, String pinyin) {
+        return "EXPLANATION:\n" + explanation + "\n\nPINYIN:\n" + pinyin
+                + "\n\nEXAMPLES:\n他很勇敢。\nDia sangat berani.\n\nIS_ADJECTIVE:\nYES\n";
+    }
+
+    private static ClientResponse reply(String text) {
+        String json = "{\"model\":\"test-model\",\"response\":" + quote(text) + ",\"done\":true}";
+        return ClientResponse.create(HttpStatus.OK)
+                .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                .body(json)
+                .build();
+    }
+
+    private static String quote(String text) {
+        return "\"" + text.replace("\\", "\\\\").replace("\"", "\\\"").replace("\n", "\\n") + "\"";
+    }
+}
@@ -0,0 +1,93 @@
+package com.example.backend.service;
+
+import com.example.backend.model.AiResponse;
+import com.example.backend.model.DictionaryResponse;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class DictionaryServiceTest {
+
+    private static final String WORD = "吃";
+
+    private final AtomicInteger generations = new AtomicInteger();
+    private DictionaryEntryService entries;
+    private PopularWordService popularWords;
+    private DictionaryService dictionaryService;
+
+    @BeforeEach
+    void setUp() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        PipelineMetrics metrics = new PipelineMetrics(registry);
+        OllamaPipeline pipeline = new OllamaPipeline(metrics, "http://localhost", 1, 1, 2, 1, 8, 20, 30, 2.0, "",
+                5000, 300, 3.0, 200, false, 4, 50);
+        // Every explanation counts as freshly generated and cached, so responses are memoized
+        DeepseekAiService ai = new DeepseekAiService(null, new PinyinService(), null, null, metrics, null, null,
+                pipeline) {
+            @Override
+            public Mono<AiResponse> generateExplanation(String word, String language) {
+                generations.incrementAndGet();
+                return Mono.just(new AiResponse("AI explanation", "AI examples", "chī", false));
+            }
+
+            @Override
+            public boolean isCurrentInCache(String word, String language) {
+                return true;
+            }
+        };
+        PrefetchService prefetch = new PrefetchService(ai, null, new TranslationMappingService(), new PinyinService(),
+                registry, false, 20, 3, 1, 200);
+        popularWords = new PopularWordService(ai, null, prefetch, registry, 50, 4096, 30, 10, false, false);
+        entries = new DictionaryEntryService(false, "");
+        dictionaryService = new DictionaryService(null, ai, entries, metrics, prefetch, popularWords, 100, 1, 1);
+    }
+
+    @AfterEach
+    void tearDown() {
+        entries.removeWord(WORD);
+        popularWords.stop();
+    }
+
+    @Test
+    void curatedChangeEvictsMemoizedResponse() {
+        assertEquals("chī", lookup().getPinyin());
+        assertEquals("chī", lookup().getPinyin());
+        assertEquals(1, generations.get());
+        assertNotNull(dictionaryService.peekMemoized(WORD));
+
+        entries.setOverride(WORD, "chi1", null);
+        assertNull(dictionaryService.peekMemoized(WORD));
+        assertEquals("chi1", lookup().getPinyin());
+
+        entries.addEntry(new DictionaryEntryService.DictionaryEntry(WORD, WORD, "chī", "Curated explanation",
+                new String[] { "我吃饭。" }, false));
+        assertNull(dictionaryService.peekMemoized(WORD));
+        assertEquals("Curated explanation", lookup().getExplanation());
+    }
+
+    @Test
+    void warmUpIsNotCountedAsALookup() {
+        // The second warm-up is served from the memoized response
+        assertEquals("chī", dictionaryService.warmWord(WORD).block(Duration.ofSeconds(5)).getPinyin());
+        assertEquals("chī", dictionaryService.warmWord(WORD).block(Duration.ofSeconds(5)).getPinyin());
+        assertEquals(1, generations.get());
+        assertTrue(popularWords.getTopWords(10).isEmpty());
+
+        lookup();
+        assertEquals(WORD, popularWords.getTopWords(10).get(0).get("word"));
+    }
+
+    private DictionaryResponse lookup() {
+        return dictionaryService.processWord(WORD).block(Duration.ofSeconds(5));
+    }
+}
@@ -0,0 +1,81 @@
+package com.example.backend.service;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.actuate.health.Status;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class OllamaHealthIndicatorTest {
+
+    private static final String LOADING = "{\"response\":\"\",\"done\":true,\"done_reason\":\"load\"}";
+    private static final String ANSWER = "{\"response\":\"Hi\",\"done\":true,\"done_reason\":\"length\"}";
+
+    private final AtomicBoolean loaded = new AtomicBoolean(true);
+    // Warm-up replies in order, each with the delay before it arrives
+    private final Deque<Warmup> warmups = new ArrayDeque<>();
+
+    @Test
+    void readinessFollowsModelLoadsAndWarmUpLatency() {
+        WebClient webClient = WebClient.builder().exchangeFunction(request -> {
+            if (request.method() == HttpMethod.GET) {
+                return Mono.just(json(loaded.get() ? "{\"models\":[{\"name\":\"test-model:latest\"}]}"
+                        : "{\"models\":[]}"));
+            }
+            Warmup warmup = warmups.removeFirst();
+            return Mono.delay(warmup.delay()).thenReturn(json(warmup.reply()));
+        }).build();
+        OllamaKeepAlive keepAlive = new OllamaKeepAlive(webClient, "http://localhost/api/generate", "test-model",
+                "30m", 0, 30, 200);
+        OllamaHealthIndicator health = new OllamaHealthIndicator(keepAlive);
+        assertEquals(Status.DOWN, health.health().getStatus());
+
+        // The model loads, and its first warm answer is still above max-latency-ms
+        warmups.add(new Warmup(LOADING, Duration.ZERO));
+        warmups.add(new Warmup(ANSWER, Duration.ofMillis(400)));
+        keepAlive.check();
+        assertEquals(Status.DOWN, health.health().getStatus());
+        assertEquals("slow", health.health().getDetails().get("state"));
+
+        warmups.add(new Warmup(ANSWER, Duration.ZERO));
+        keepAlive.check();
+        assertEquals(Status.UP, health.health().getStatus());
+
+        // Ollama unloads the model; it stays DOWN while the reload is in progress
+        loaded.set(false);
+        warmups.add(new Warmup(LOADING, Duration.ZERO));
+        warmups.add(new Warmup(LOADING, Duration.ZERO));
+        keepAlive.check();
+        assertEquals(Status.DOWN, health.health().getStatus());
+        assertEquals(1L, health.health().getDetails().get("unloadsDetected"));
+
+        // UP again once a warm-up answers within the limit
+        loaded.set(true);
+        warmups.add(new Warmup(ANSWER, Duration.ZERO));
+        keepAlive.check();
+        assertEquals(Status.UP, health.health().getStatus());
+        assertEquals("ready", health.health().getDetails().get("state"));
+        assertEquals(0, warmups.size());
+    }
+
+    private record Warmup(String reply, Duration delay) {
+    }
+
+    private static ClientResponse json(String body) {
+        return ClientResponse.create(HttpStatus.OK)
+                .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                .body(body)
+                .build();
+    }
+}
@@ -0,0 +1,75 @@
+package com.example.backend.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PrefetchServiceTest {
+
+    private PrefetchService prefetchService;
+
+    @AfterEach
+    void tearDown() {
+        prefetchService.stop();
+    }
+
+    @Test
+    void prefetchesStopWhenTheMinuteBudgetIsUsed() {
+        prefetchService = prefetchService(3, 100);
+
+        assertTrue(prefetchService.prefetch("勇敢"));
+        assertTrue(prefetchService.prefetch("融化"));
+        assertTrue(prefetchService.prefetch("残酷"));
+        assertFalse(prefetchService.prefetch("美味"));
+        assertFalse(prefetchService.prefetch("残忍"));
+
+        Map<String, Object> stats = prefetchService.getStatistics();
+        assertEquals(3L, stats.get("scheduled"));
+        assertEquals(2L, stats.get("overBudget"));
+        assertEquals(0L, stats.get("rejected"));
+    }
+
+    @Test
+    void prefetchesBeyondTheQueueCapacityAreRejected() {
+        prefetchService = prefetchService(100, 2);
+
+        assertTrue(prefetchService.prefetch("勇敢"));
+        // A word already waiting is not queued twice
+        assertFalse(prefetchService.prefetch("勇敢"));
+        assertTrue(prefetchService.prefetch("融化"));
+        assertFalse(prefetchService.prefetch("残酷"));
+
+        Map<String, Object> stats = prefetchService.getStatistics();
+        assertEquals(2L, stats.get("scheduled"));
+        assertEquals(2, stats.get("queued"));
+        assertEquals(1L, stats.get("rejected"));
+        assertEquals(0L, stats.get("overBudget"));
+    }
+
+    private static PrefetchService prefetchService(int perMinute, int queueCapacity) {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        OllamaPipeline pipeline = new OllamaPipeline(new PipelineMetrics(registry), "http://localhost", 1, 1, 2, 1,
+                8, 20, 30, 2.0, "", 5000, 300, 3.0, 200, false, 4, 50);
+        // Live lookups keep Ollama busy, so queued prefetches wait instead of running
+        DeepseekAiService ai = new DeepseekAiService(null, new PinyinService(), null, null, null, null, null,
+                pipeline) {
+            @Override
+            public boolean isInCache(String word, String language) {
+                return false;
+            }
+
+            @Override
+            public int getInFlightCount() {
+                return Integer.MAX_VALUE;
+            }
+        };
+        return new PrefetchService(ai, null, new TranslationMappingService(), new PinyinService(), registry, true,
+                perMinute, 3, 1, queueCapacity);
+    }
+}
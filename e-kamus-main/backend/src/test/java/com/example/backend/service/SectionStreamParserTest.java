@@ -0,0 +1,44 @@
+package com.example.backend.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SectionStreamParserTest {
+
+    @Test
+    void sectionsCompleteWhenTheNextHeaderArrives() {
+        String text = "<think>EXPLANATION: draft</think>EXPLANATION:\n勇敢 bermaksud berani.\n\nPINYIN:\nyǒng gǎn\n\n"
+                + "EXAMPLES:\n他很勇敢。\nDia sangat berani.\n\nIS_ADJECTIVE:\nYES";
+        SectionStreamParser parser = new SectionStreamParser();
+        Map<String, String> completed = new LinkedHashMap<>();
+        Map<String, Integer> completedAt = new LinkedHashMap<>();
+        // Feed it in small pieces, as Ollama streams tokens
+        for (int i = 0; i < text.length(); i += 3) {
+            int end = Math.min(text.length(), i + 3);
+            parser.append(text.substring(i, end)).forEach((name, content) -> {
+                completed.put(name, content);
+                completedAt.put(name, end);
+            });
+        }
+
+        assertEquals(Map.of("EXPLANATION", "勇敢 bermaksud berani.", "PINYIN", "yǒng gǎn",
+                "EXAMPLES", "他很勇敢。\nDia sangat berani."), completed);
+        assertEquals(3, completedAt.size());
+        // Each section is released right after the following header, not at the end
+        assertTrue(completedAt.get("EXPLANATION") < text.indexOf("yǒng"));
+        assertTrue(completedAt.get("EXAMPLES") < text.length());
+        assertEquals(text, parser.text());
+    }
+
+    @Test
+    void unfinishedThinkBlockHoldsBackSections() {
+        SectionStreamParser parser = new SectionStreamParser();
+        assertTrue(parser.append("<think>EXPLANATION: a\nPINYIN: b\nEXAMPLES:").isEmpty());
+        assertEquals(Map.of("EXPLANATION", "c"), parser.append("</think>EXPLANATION: c\nPINYIN:"));
+    }
+}
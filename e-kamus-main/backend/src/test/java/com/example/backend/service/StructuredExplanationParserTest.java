@@ -0,0 +1,45 @@
+package com.example.backend.service;
+
+import com.example.backend.model.AiResponse;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class StructuredExplanationParserTest {
+
+    @Test
+    void decodesExamplesIntoTheTextLayout() {
+        AiResponse response = StructuredExplanationParser.parse("""
+                {"explanation": " yǒng gǎn bermaksud berani. ", "pinyin": "yǒng gǎn",
+                 "examples": [{"chinese": "他很勇敢。", "malay": "Dia sangat berani."},
+                              {"chinese": "她勇敢地说出了真相。", "malay": "Dia dengan berani mengatakan kebenaran."}],
+                 "isAdjective": true, "extra": 1}""");
+
+        assertEquals("yǒng gǎn bermaksud berani.", response.getExplanation());
+        assertEquals("yǒng gǎn", response.getPronunciation());
+        assertEquals("他很勇敢。\nDia sangat berani.\n\n她勇敢地说出了真相。\nDia dengan berani mengatakan kebenaran.",
+                response.getExamples());
+        assertTrue(response.isAdjective());
+
+        assertThrows(IllegalArgumentException.class, () -> StructuredExplanationParser.parse("EXPLANATION: berani"));
+        assertThrows(IllegalArgumentException.class,
+                () -> StructuredExplanationParser.parse("{\"explanation\": \"berani\", \"examples\": []}"));
+    }
+
+    @Test
+    void batchKeepsOnlyCompleteAnswersByNumber() {
+        Map<Integer, AiResponse> answers = StructuredExplanationParser.parseBatch("""
+                {"answers": [
+                  {"number": 2, "explanation": "kucing", "pinyin": "māo",
+                   "examples": [{"chinese": "猫很可爱。", "malay": "Kucing sangat comel."}], "isAdjective": false},
+                  {"number": 1, "explanation": "", "pinyin": "gǒu", "examples": [], "isAdjective": false}]}""");
+
+        assertEquals("kucing", answers.get(2).getExplanation());
+        assertFalse(answers.containsKey(1));
+    }
+}
@@ -0,0 +1,127 @@
+package com.example.backend.service;
+
+import ch.qos.logback.classic.Level;
+import com.example.backend.model.AiResponse;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Compares the cost and failure rate of the text parser ({@code parseGeneratedText})
+ * with {@link StructuredExplanationParser} over the same explanations, in the shapes
+ * the model returns them in. Not a unit test; run it with
+ *   java -cp target/test-classes:target/classes:$(deps) com.example.backend.service.StructuredParseBenchmark [iterations]
+ * A reply counts as failed when a parser gives up on a field the user sees; for the
+ * structured parser that is when it would hand the reply to the text parser.
+ */
+public final class StructuredParseBenchmark {
+
+    private static final String EXPLANATION = "yǒng gǎn bermaksud berani, iaitu tidak takut menghadapi bahaya atau kesukaran.";
+    private static final String[][] EXAMPLES = {
+            { "他是一个勇敢的消防员。", "Dia seorang ahli bomba yang berani." },
+            { "你要勇敢地面对困难。", "Anda mesti berani menghadapi kesukaran." },
+            { "她勇敢地说出了真相。", "Dia dengan berani mengatakan kebenaran." } };
+
+    private StructuredParseBenchmark() {
+    }
+
+    public static void main(String[] args) {
+        int iterations = args.length > 0 ? Integer.parseInt(args[0]) : 20_000;
+        // Parsing logs at debug and info level; keep it out of the measurement
+        ((ch.qos.logback.classic.Logger) LoggerFactory.getLogger(Logger.ROOT_LOGGER_NAME)).setLevel(Level.ERROR);
+        OllamaPipeline pipeline = new OllamaPipeline(new PipelineMetrics(new SimpleMeterRegistry()), "http://localhost",
+                1, 1, 2, 1, 8, 20, 30, 2.0, "", 5000, 300, 3.0, 200, false, 4, 50);
+        DeepseekAiService service = new DeepseekAiService(null, new PinyinService(), null, null, null, null, null,
+                pipeline);
+
+        List<String> texts = List.of(text(false, false), text(true, false), numberedText(), lowercaseText(),
+                truncate(text(false, false)));
+        List<String> jsons = List.of(json(false), json(true), json(false).replace("\"pinyin\": \"yǒng gǎn\"",
+                "\"pinyin\": \"\""), "```json\n" + json(false) + "\n```", truncate(json(false)));
+
+        for (int round = 0; round < 2; round++) {
+            // The first round is warm-up for the JIT
+            boolean report = round == 1;
+            run("text", texts, text -> service.parseGeneratedText(text, "勇敢"), iterations, report);
+            run("structured", jsons, json -> {
+                try {
+                    return StructuredExplanationParser.parse(json);
+                } catch (IllegalArgumentException e) {
+                    return null;
+                }
+            }, iterations, report);
+        }
+    }
+
+    private static void run(String name, List<String> replies, Function<String, AiResponse> parser,
+            int iterations, boolean report) {
+        int failures = 0;
+        for (String reply : replies) {
+            if (failed(parser.apply(reply))) {
+                failures++;
+            }
+        }
+        long sink = 0;
+        long start = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            AiResponse response = parser.apply(replies.get(i % 2));
+            sink += response.getExamples().length();
+        }
+        long nanos = System.nanoTime() - start;
+        if (report) {
+            System.out.printf("%-11s %8.0f ns/op on well-formed replies, %d of %d reply shapes failed%n", name,
+                    (double) nanos / iterations, failures, replies.size());
+        }
+        if (sink < 0) {
+            throw new IllegalStateException();
+        }
+    }
+
+    private static boolean failed(AiResponse response) {
+        return response == null
+                || response.getExplanation().startsWith("No explanation available")
+                || response.getExplanation().startsWith("Error parsing")
+                || response.getExamples().startsWith("No examples available")
+                || response.getExamples().startsWith("Error parsing");
+    }
+
+    private static String text(boolean markdown, boolean think) {
+        StringBuilder text = new StringBuilder(think ? "<think>The user wants EXPLANATION: and more.</think>\n" : "");
+        String bold = markdown ? "**" : "";
+        text.append(bold).append("EXPLANATION:").append(bold).append('\n').append(EXPLANATION).append("\n\n")
+                .append(bold).append("PINYIN:").append(bold).append("\nyǒng gǎn\n\n")
+                .append(bold).append("EXAMPLES:").append(bold).append('\n');
+        for (String[] example : EXAMPLES) {
+            text.append(example[0]).append('\n').append(example[1]).append("\n\n");
+        }
+        return text.append(bold).append("IS_ADJECTIVE:").append(bold).append("\nYES").toString();
+    }
+
+    private static String numberedText() {
+        return text(false, false).replace(EXAMPLES[0][0], "1. " + EXAMPLES[0][0])
+                .replace(EXAMPLES[1][0], "2. " + EXAMPLES[1][0]).replace(EXAMPLES[2][0], "3. " + EXAMPLES[2][0]);
+    }
+
+    private static String lowercaseText() {
+        return text(false, false).replace("EXPLANATION:", "Explanation:").replace("EXAMPLES:", "Examples:");
+    }
+
+    private static String json(boolean spaced) {
+        String separator = spaced ? ",\n    " : ", ";
+        StringBuilder json = new StringBuilder("{\"explanation\": \"").append(EXPLANATION).append('"')
+                .append(separator).append("\"pinyin\": \"yǒng gǎn\"").append(separator).append("\"examples\": [");
+        for (int i = 0; i < EXAMPLES.length; i++) {
+            json.append(i > 0 ? separator : "").append("{\"chinese\": \"").append(EXAMPLES[i][0])
+                    .append("\", \"malay\": \"").append(EXAMPLES[i][1]).append("\"}");
+        }
+        return json.append(']').append(separator).append("\"isAdjective\": true}").toString();
+    }
+
+    // Cut off mid-examples, as when the token limit is reached
+    private static String truncate(String reply) {
+        return reply.substring(0, reply.indexOf(EXAMPLES[1][0]));
+    }
+}
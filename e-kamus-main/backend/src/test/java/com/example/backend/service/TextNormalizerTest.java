@@ -0,0 +1,81 @@
+package com.example.backend.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Locale;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class TextNormalizerTest {
+
+    @Test
+    void foldsFullWidthCharactersAndIdeographicSpace() {
+        assertEquals("makan nasi", TextNormalizer.normalize("Ｍａｋａｎ　ｎａｓｉ"));
+        assertEquals("吃饭!", TextNormalizer.normalize("吃饭！"));
+    }
+
+    @Test
+    void trimsAndCollapsesWhitespace() {
+        assertEquals("makan nasi goreng", TextNormalizer.normalize("  makan \t nasi\n\ngoreng  "));
+        assertEquals("", TextNormalizer.normalize(" 　 "));
+    }
+
+    @Test
+    void composesDecomposedAccents() {
+        // e followed by a combining acute accent becomes the single character é
+        assertEquals("caf\u00e9", TextNormalizer.normalize("cafe\u0301"));
+    }
+
+    @Test
+    void lowercasesIndependentlyOfTheDefaultLocale() {
+        Locale previous = Locale.getDefault();
+        try {
+            // Turkish lowercases I to a dotless ı; the canonical form must not
+            Locale.setDefault(Locale.forLanguageTag("tr"));
+            assertEquals("ikan", TextNormalizer.normalize("IKAN"));
+        } finally {
+            Locale.setDefault(previous);
+        }
+    }
+
+    @Test
+    void mapsTraditionalChineseToSimplified() {
+        assertEquals("我们说话", TextNormalizer.normalize("我們說話"));
+        assertEquals("电脑", TextNormalizer.normalize("電腦"));
+    }
+
+    @Test
+    void leavesCanonicalTextUnchanged() {
+        for (String text : new String[] { "makan", "我们吃饭", "nasi goreng", "yǒng gǎn" }) {
+            assertEquals(text, TextNormalizer.normalize(text));
+        }
+        String canonical = TextNormalizer.normalize("Ｍａｋａｎ  們");
+        assertEquals(canonical, TextNormalizer.normalize(canonical));
+        assertNull(TextNormalizer.normalize(null));
+    }
+
+    @Test
+    void phrasesKeepTheirCase() {
+        assertEquals("Saya jumpa Mei", TextNormalizer.normalizePhrase(" Saya  jumpa Ｍei"));
+        assertNull(TextNormalizer.normalizePhrase(null));
+    }
+
+    @Test
+    void translationKeysFoldCaseOnlyForSingleWords() {
+        assertEquals(TranslationService.cacheKey("makan", "ms", "zh"), TranslationService.cacheKey("MAKAN", "ms", "zh"));
+        assertEquals(TranslationService.cacheKey("Saya  makan", "ms", "zh"),
+                TranslationService.cacheKey("Saya makan", "ms", "zh"));
+        assertNotEquals(TranslationService.cacheKey("Saya suka Mei", "ms", "zh"),
+                TranslationService.cacheKey("saya suka mei", "ms", "zh"));
+    }
+
+    @Test
+    void curatedSentencesAreMatchedWithTheirCase() {
+        TranslationMappingService mappings = new TranslationMappingService();
+        assertEquals("你很聪明", mappings.getMalaySentenceToMandarin(" Kamu  sangat bijak"));
+        assertNull(mappings.getMalaySentenceToMandarin("kamu sangat bijak"));
+        assertEquals("开心", mappings.getMalayToMandarin("GEMBIRA"));
+    }
+}